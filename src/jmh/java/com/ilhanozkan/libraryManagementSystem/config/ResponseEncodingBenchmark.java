@@ -0,0 +1,109 @@
+package com.ilhanozkan.libraryManagementSystem.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.BookResponseDTO;
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.BorrowingResponseDTO;
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.PagedResponse;
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.UserResponseDTO;
+import com.ilhanozkan.libraryManagementSystem.model.enums.BookGenre;
+import com.ilhanozkan.libraryManagementSystem.model.enums.UserRole;
+import com.ilhanozkan.libraryManagementSystem.model.enums.UserStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Time to encode a 10k-row book page and borrowing list as JSON, CBOR and Smile, with and without gzip.
+ * The payload size of each combination is printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ResponseEncodingBenchmark {
+  private static final int ROWS = 10_000;
+
+  @Param({"json", "cbor", "smile"})
+  public String format;
+
+  @Param({"false", "true"})
+  public boolean gzip;
+
+  private ObjectMapper mapper;
+  private PagedResponse<BookResponseDTO> bookPage;
+  private List<BorrowingResponseDTO> borrowings;
+
+  @Setup
+  public void setUp() throws IOException {
+    Jackson2ObjectMapperBuilder builder = switch (format) {
+      case "cbor" -> Jackson2ObjectMapperBuilder.cbor();
+      case "smile" -> Jackson2ObjectMapperBuilder.smile();
+      default -> Jackson2ObjectMapperBuilder.json();
+    };
+    // Same date handling as the Boot-configured mapper behind the HTTP converters
+    mapper = builder.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+
+    List<BookResponseDTO> books = new ArrayList<>(ROWS);
+    borrowings = new ArrayList<>(ROWS);
+    LocalDateTime now = LocalDateTime.now();
+    for (int i = 0; i < ROWS; i++) {
+      BookResponseDTO book = new BookResponseDTO(UUID.randomUUID(), "Benchmark Book " + i, String.format("979%010d", i),
+          "Benchmark Author " + (i % 500), "Benchmark Publisher", 100 + i % 400, 5, i % 6,
+          BookGenre.values()[i % BookGenre.values().length], (long) i, now);
+      UserResponseDTO user = new UserResponseDTO(UUID.randomUUID(), "patron" + i, "patron" + i + "@library.test",
+          "Patron", "Number " + i, UserRole.PATRON, UserStatus.ACTIVE);
+      books.add(book);
+      borrowings.add(new BorrowingResponseDTO(UUID.randomUUID(), book, user, now.minusDays(i % 30),
+          now.plusDays(14 - i % 30), null, false));
+    }
+    bookPage = PagedResponse.<BookResponseDTO>builder()
+        .content(books)
+        .page(0)
+        .size(ROWS)
+        .totalElements(ROWS * 10L)
+        .totalPages(10)
+        .last(false)
+        .build();
+
+    System.out.printf("%n%s%s: book page %d bytes, borrowing list %d bytes%n",
+        format, gzip ? "+gzip" : "", encode(bookPage), encode(borrowings));
+  }
+
+  @Benchmark
+  public int bookPage() throws IOException {
+    return encode(bookPage);
+  }
+
+  @Benchmark
+  public int borrowingList() throws IOException {
+    return encode(borrowings);
+  }
+
+  private int encode(Object body) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 20);
+    try (OutputStream out = gzip ? new GZIPOutputStream(bytes, 8192) : bytes) {
+      mapper.writeValue(out, body);
+    }
+    return bytes.size();
+  }
+}
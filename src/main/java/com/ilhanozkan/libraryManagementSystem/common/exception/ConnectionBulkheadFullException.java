@@ -0,0 +1,16 @@
+package com.ilhanozkan.libraryManagementSystem.common.exception;
+
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * A connection was refused by the bulkhead in front of the pool, because too many callers were already
+ * waiting or none was free within the wait limit. Transient: the request can be retried.
+ */
+public class ConnectionBulkheadFullException extends SQLTransientConnectionException {
+  // Connection exception class, so Hibernate and Spring translate it like a pool timeout
+  private static final String SQL_STATE = "08001";
+
+  public ConnectionBulkheadFullException(String message) {
+    super(message, SQL_STATE);
+  }
+}
@@ -6,11 +6,15 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.coyote.BadRequestException;
 import org.hibernate.JDBCException;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.dao.InvalidDataAccessResourceUsageException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -105,6 +109,21 @@ public class GlobalExceptionHandler {
         .body(ApiResponseModel.error("A server error occurred. Please try again later."));
   }
 
+  // A connection refused by the bulkhead is overload, not a failure: ask the client to come back shortly
+  @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+  public ResponseEntity<ApiResponseModel<Object>> handleConnectionFailure(RuntimeException ex) {
+    if (NestedExceptionUtils.getMostSpecificCause(ex) instanceof ConnectionBulkheadFullException) {
+      log.warn("Request rejected: {}", NestedExceptionUtils.getMostSpecificCause(ex).getMessage());
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+          .header(HttpHeaders.RETRY_AFTER, "1")
+          .body(ApiResponseModel.error("The server is busy. Please try again shortly."));
+    }
+
+    log.error("Database connection error occurred", ex);
+    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+        .body(ApiResponseModel.error("A server error occurred. Please try again later."));
+  }
+
   @ExceptionHandler(Exception.class)
   public ResponseEntity<ApiResponseModel<Object>> handleGenericException(Exception ex) {
     return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
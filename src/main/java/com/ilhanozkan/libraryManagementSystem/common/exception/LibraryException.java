@@ -0,0 +1,12 @@
+package com.ilhanozkan.libraryManagementSystem.common.exception;
+
+/**
+ * A request the library refuses: an unknown book or user, an inactive user, no copies left. Controllers catch
+ * these to answer the client; database and transaction failures are not library errors and are left to
+ * {@link GlobalExceptionHandler}, which answers 503 when the connection bulkhead turned the request away.
+ */
+public abstract class LibraryException extends RuntimeException {
+  protected LibraryException(String message) {
+    super(message);
+  }
+}
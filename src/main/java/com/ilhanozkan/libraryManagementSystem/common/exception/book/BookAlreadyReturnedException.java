@@ -1,8 +1,10 @@
 package com.ilhanozkan.libraryManagementSystem.common.exception.book;
 
+import com.ilhanozkan.libraryManagementSystem.common.exception.LibraryException;
+
 import java.util.UUID;
 
-public class BookAlreadyReturnedException extends RuntimeException {
+public class BookAlreadyReturnedException extends LibraryException {
   public BookAlreadyReturnedException(UUID id) {
     super("Book with id " + id + " has already been returned");
   }
@@ -1,8 +1,10 @@
 package com.ilhanozkan.libraryManagementSystem.common.exception.book;
 
+import com.ilhanozkan.libraryManagementSystem.common.exception.LibraryException;
+
 import java.util.UUID;
 
-public class BookNotAvailableException extends RuntimeException {
+public class BookNotAvailableException extends LibraryException {
   public BookNotAvailableException(UUID id) {
     super("Book with id " + id + " not available");
   }
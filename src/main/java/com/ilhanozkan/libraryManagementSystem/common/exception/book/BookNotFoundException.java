@@ -1,8 +1,10 @@
 package com.ilhanozkan.libraryManagementSystem.common.exception.book;
 
+import com.ilhanozkan.libraryManagementSystem.common.exception.LibraryException;
+
 import java.util.UUID;
 
-public class BookNotFoundException extends RuntimeException {
+public class BookNotFoundException extends LibraryException {
   public BookNotFoundException(UUID id) {
     super("Book with id " + id + " not found");
   }
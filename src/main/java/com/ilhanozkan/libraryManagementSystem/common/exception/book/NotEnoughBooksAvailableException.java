@@ -1,6 +1,8 @@
 package com.ilhanozkan.libraryManagementSystem.common.exception.book;
 
-public class NotEnoughBooksAvailableException extends RuntimeException {
+import com.ilhanozkan.libraryManagementSystem.common.exception.LibraryException;
+
+public class NotEnoughBooksAvailableException extends LibraryException {
   public NotEnoughBooksAvailableException() {
     super("Not enough books available");
   }
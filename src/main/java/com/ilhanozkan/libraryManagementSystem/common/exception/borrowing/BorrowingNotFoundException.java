@@ -1,8 +1,10 @@
 package com.ilhanozkan.libraryManagementSystem.common.exception.borrowing;
 
+import com.ilhanozkan.libraryManagementSystem.common.exception.LibraryException;
+
 import java.util.UUID;
 
-public class BorrowingNotFoundException extends RuntimeException {
+public class BorrowingNotFoundException extends LibraryException {
   public BorrowingNotFoundException(UUID id) {
     super("Borrowing with id " + id + " not found");
   }
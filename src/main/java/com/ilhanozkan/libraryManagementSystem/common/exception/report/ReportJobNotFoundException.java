@@ -0,0 +1,11 @@
+package com.ilhanozkan.libraryManagementSystem.common.exception.report;
+
+import com.ilhanozkan.libraryManagementSystem.common.exception.LibraryException;
+
+import java.util.UUID;
+
+public class ReportJobNotFoundException extends LibraryException {
+  public ReportJobNotFoundException(UUID id) {
+    super("Report job with id " + id + " not found");
+  }
+}
@@ -1,8 +1,10 @@
 package com.ilhanozkan.libraryManagementSystem.common.exception.user;
 
+import com.ilhanozkan.libraryManagementSystem.common.exception.LibraryException;
+
 import java.util.UUID;
 
-public class UserIsNotActiveException extends RuntimeException {
+public class UserIsNotActiveException extends LibraryException {
   public UserIsNotActiveException(UUID id) {
     super("User with id " + id + " is not active");
   }
@@ -1,8 +1,10 @@
 package com.ilhanozkan.libraryManagementSystem.common.exception.user;
 
+import com.ilhanozkan.libraryManagementSystem.common.exception.LibraryException;
+
 import java.util.UUID;
 
-public class UserNotFoundException extends RuntimeException {
+public class UserNotFoundException extends LibraryException {
   public UserNotFoundException(UUID id) {
     super("User with id " + id + " not found");
   }
@@ -0,0 +1,44 @@
+package com.ilhanozkan.libraryManagementSystem.config;
+
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.BookImportResultDTO;
+import com.ilhanozkan.libraryManagementSystem.model.enums.BookImportFormat;
+import com.ilhanozkan.libraryManagementSystem.service.BookImportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Imports a catalog file at startup, e.g. {@code java -jar app.jar --library.import.file=catalog.csv}.
+ * Files ending in .jsonl or .ndjson are read as JSON lines, anything else as CSV.
+ */
+@Component
+@ConditionalOnProperty(name = "library.import.file")
+@RequiredArgsConstructor
+@Slf4j
+public class BookImportRunner implements ApplicationRunner {
+
+    private final BookImportService bookImportService;
+
+    @Value("${library.import.file}")
+    private Path file;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        log.info("Importing books from {}", file);
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            BookImportResultDTO result = bookImportService.importBooks(reader, BookImportFormat.fromFileName(file.toString()));
+            log.info("Import of {} finished: {} rows, {} inserted, {} updated, {} rejected, {} rows/s",
+                     file, result.rows(), result.inserted(), result.updated(), result.rejected(), result.rowsPerSecond());
+            result.errors().forEach(error -> log.warn("Rejected {}", error));
+        }
+    }
+}
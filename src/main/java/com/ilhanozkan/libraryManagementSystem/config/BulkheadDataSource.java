@@ -0,0 +1,154 @@
+package com.ilhanozkan.libraryManagementSystem.config;
+
+import com.ilhanozkan.libraryManagementSystem.common.exception.ConnectionBulkheadFullException;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulkhead in front of the connection pool: at most maxConcurrent connections are out at once, at most
+ * maxWaiting callers queue for one, and a caller that cannot get one within maxWait fails fast. With
+ * virtual threads there is no request thread limit any more, so without it thousands of requests would
+ * pile up inside the pool and time out together instead of a few being turned away early.
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+  private final Semaphore permits;
+  private final int maxWaiting;
+  private final Duration maxWait;
+  private final AtomicInteger waiting = new AtomicInteger();
+  private final AtomicLong rejected = new AtomicLong();
+
+  public BulkheadDataSource(DataSource target, int maxConcurrent, int maxWaiting, Duration maxWait) {
+    super(target);
+    this.permits = new Semaphore(maxConcurrent, true);
+    this.maxWaiting = maxWaiting;
+    this.maxWait = maxWait;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    acquire();
+    try {
+      return guard(super.getConnection());
+    } catch (SQLException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    acquire();
+    try {
+      return guard(super.getConnection(username, password));
+    } catch (SQLException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  public int getWaiting() {
+    return waiting.get();
+  }
+
+  public long getRejected() {
+    return rejected.get();
+  }
+
+  private void acquire() throws SQLException {
+    // The timed form with no wait keeps the semaphore fair towards callers already queued
+    try {
+      if (permits.tryAcquire(0, TimeUnit.NANOSECONDS))
+        return;
+
+      if (waiting.incrementAndGet() > maxWaiting) {
+        waiting.decrementAndGet();
+        throw reject("Connection bulkhead full: " + maxWaiting + " callers already waiting");
+      }
+      try {
+        if (!permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS))
+          throw reject("Connection bulkhead full: no connection free within " + maxWait.toMillis() + " ms");
+      } finally {
+        waiting.decrementAndGet();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLTransientConnectionException("Interrupted while waiting for a connection", e);
+    }
+  }
+
+  private ConnectionBulkheadFullException reject(String message) {
+    rejected.incrementAndGet();
+    return new ConnectionBulkheadFullException(message);
+  }
+
+  // Hands back the permit when the connection is closed, once, however often close is called
+  private Connection guard(Connection target) {
+    return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+        new Class<?>[]{ConnectionProxy.class}, new PermitReleasingHandler(target));
+  }
+
+  private class PermitReleasingHandler implements InvocationHandler {
+    private final Connection target;
+    private boolean closed = false;
+
+    private PermitReleasingHandler(Connection target) {
+      this.target = target;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      switch (method.getName()) {
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        case "getTargetConnection":
+          return target;
+        case "unwrap":
+          if (((Class<?>) args[0]).isInstance(proxy))
+            return proxy;
+          break;
+        case "isWrapperFor":
+          if (((Class<?>) args[0]).isInstance(proxy))
+            return true;
+          break;
+        case "isClosed":
+          if (closed)
+            return true;
+          break;
+        case "close":
+          if (closed)
+            return null;
+          closed = true;
+          try {
+            target.close();
+          } finally {
+            permits.release();
+          }
+          return null;
+        default:
+          break;
+      }
+
+      try {
+        return method.invoke(target, args);
+      } catch (InvocationTargetException e) {
+        throw e.getTargetException();
+      }
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package com.ilhanozkan.libraryManagementSystem.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Puts a {@link BulkheadDataSource} in front of the connection pool. It admits as many callers as the pool
+ * has connections (library.jdbc.bulkhead.max-concurrent, by default the Hikari pool size), lets a bounded
+ * number wait and turns the rest away with a 503 instead of letting every request thread queue in Hikari.
+ * Only on when library.jdbc.bulkhead.enabled says so, which follows spring.threads.virtual.enabled unless set:
+ * platform request threads are already bounded by Tomcat's pool.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "library.jdbc.bulkhead", name = "enabled", havingValue = "true")
+public class ConnectionBulkheadConfig {
+
+    // Static so the post-processor is registered before the DataSource bean is created
+    @Bean
+    public static BeanPostProcessor connectionBulkheadPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof BulkheadDataSource)
+                    return bean;
+
+                int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+                int maxConcurrent = environment.getProperty("library.jdbc.bulkhead.max-concurrent", Integer.class, poolSize);
+                int maxWaiting = environment.getProperty("library.jdbc.bulkhead.max-waiting", Integer.class, 500);
+                Duration maxWait = environment.getProperty("library.jdbc.bulkhead.max-wait", Duration.class, Duration.ofSeconds(3));
+
+                log.info("Connection bulkhead on {}: {} concurrent, {} waiting, {} ms wait",
+                    beanName, maxConcurrent, maxWaiting, maxWait.toMillis());
+                return new BulkheadDataSource(dataSource, maxConcurrent, maxWaiting, maxWait);
+            }
+        };
+    }
+}
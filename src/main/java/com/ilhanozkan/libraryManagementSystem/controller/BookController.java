@@ -1,25 +1,39 @@
 package com.ilhanozkan.libraryManagementSystem.controller;
 
+import com.ilhanozkan.libraryManagementSystem.common.exception.LibraryException;
 import com.ilhanozkan.libraryManagementSystem.model.dto.request.BookQuantityUpdateDTO;
 import com.ilhanozkan.libraryManagementSystem.model.dto.request.BookRequestDTO;
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.BookCacheStatsDTO;
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.BookResponseDTO;
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.CatalogVersionDTO;
 import com.ilhanozkan.libraryManagementSystem.model.enums.BookGenre;
+import com.ilhanozkan.libraryManagementSystem.model.enums.BookImportFormat;
+import com.ilhanozkan.libraryManagementSystem.service.BookImportService;
 import com.ilhanozkan.libraryManagementSystem.service.BookService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.JDBCException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.InvalidDataAccessResourceUsageException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.time.ZoneId;
 import java.util.Arrays;
 import java.util.UUID;
 
@@ -29,17 +43,33 @@ import java.util.UUID;
 @Tag(name = "Book Management", description = "APIs for managing books in the library")
 @Slf4j
 public class BookController {
+    // Clients and proxies may keep validated responses but have to revalidate them on every use. Without it
+    // Spring Security sends no-store, nothing keeps a copy and no If-None-Match ever comes back
+    private static final CacheControl REVALIDATE = CacheControl.noCache();
+    // The ETag and Last-Modified headers are already set by checkNotModified
+    private static final ResponseEntity<?> NOT_MODIFIED = ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+
     private final BookService bookService;
+    private final BookImportService bookImportService;
 
-    @Operation(summary = "Get all books with pagination", description = "Retrieves a list of all books in the library")
+    @Operation(summary = "Get all books with pagination",
+               description = "Retrieves a list of all books in the library. Pass a cursor to walk the catalog by name without offsets")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Successfully retrieved books")
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved books"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor")
     })
     @GetMapping
-    public ResponseEntity<?> getAllBooksPaged(@PageableDefault(size = 10) Pageable pageable) {
+    public ResponseEntity<?> getAllBooksPaged(
+            @Parameter(description = "nextCursor of the previous page; empty for the first page, omit for offset paging")
+            @RequestParam(required = false) String cursor,
+            @PageableDefault(size = 10) Pageable pageable, WebRequest request) {
       try {
-        return ResponseEntity.ok(bookService.getAllBooks(pageable));
-      } catch (RuntimeException e) {
+        if (notModified(request, bookService.getCatalogVersion()))
+          return NOT_MODIFIED;
+        if (cursor != null)
+          return revalidated(bookService.getBooksByCursor(cursor, pageable.getPageSize()));
+        return revalidated(bookService.getAllBooks(pageable));
+      } catch (LibraryException | IllegalArgumentException e) {
         log.error("Error retrieving all books", e);
         return ResponseEntity.badRequest().body(e.getMessage());
       }
@@ -55,14 +85,16 @@ public class BookController {
             @Parameter(description = "Author to search for") @RequestParam(required = false) String author,
             @Parameter(description = "ISBN to search for") @RequestParam(required = false) String isbn,
             @Parameter(description = "Genre to search for (case sensitive, must match enum value)") @RequestParam(required = false) String genre,
-            @PageableDefault(size = 10) Pageable pageable
+            @PageableDefault(size = 10) Pageable pageable, WebRequest request
     ) {
         try {
-            return ResponseEntity.ok(bookService.searchBooks(title, author, isbn, genre, pageable));
+            if (notModified(request, bookService.getCatalogVersion()))
+                return NOT_MODIFIED;
+            return revalidated(bookService.searchBooks(title, author, isbn, genre, pageable));
         } catch (InvalidDataAccessResourceUsageException e) {
             log.error("Database error while searching books", e);
             return ResponseEntity.status(500).body("Server error occurred while searching books. Please try again later.");
-        } catch (RuntimeException e) {
+        } catch (LibraryException | IllegalArgumentException e) {
             log.error("Error searching books", e);
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -75,10 +107,13 @@ public class BookController {
     })
     @GetMapping("/{id}")
     public ResponseEntity<?> getBookById(
-            @Parameter(description = "ID of the book to retrieve") @PathVariable UUID id) {
+            @Parameter(description = "ID of the book to retrieve") @PathVariable UUID id, WebRequest request) {
       try {
-        return ResponseEntity.ok(bookService.getBookById(id));
-      } catch (RuntimeException e) {
+        BookResponseDTO book = bookService.getBookById(id);
+        if (notModified(request, book))
+          return NOT_MODIFIED;
+        return revalidated(book);
+      } catch (LibraryException | IllegalArgumentException e) {
         log.error("Error retrieving book with ID {}", id, e);
         return ResponseEntity.badRequest().body(e.getMessage());
       }
@@ -91,10 +126,13 @@ public class BookController {
     })
     @GetMapping("/isbn/{isbn}")
     public ResponseEntity<?> getBookByIsbn(
-            @Parameter(description = "ISBN of the book to retrieve") @PathVariable String isbn) {
+            @Parameter(description = "ISBN of the book to retrieve") @PathVariable String isbn, WebRequest request) {
       try {
-        return ResponseEntity.ok(bookService.getBookByIsbn(isbn));
-      } catch (RuntimeException e) {
+        BookResponseDTO book = bookService.getBookByIsbn(isbn);
+        if (notModified(request, book))
+          return NOT_MODIFIED;
+        return revalidated(book);
+      } catch (LibraryException | IllegalArgumentException e) {
         log.error("Error retrieving book with ISBN {}", isbn, e);
         return ResponseEntity.badRequest().body(e.getMessage());
       }
@@ -115,7 +153,7 @@ public class BookController {
             return ResponseEntity.badRequest().body("Book genre is required");
         }
         return ResponseEntity.ok(bookService.createBook(bookRequestDTO));
-      } catch (RuntimeException e) {
+      } catch (LibraryException | IllegalArgumentException | DataIntegrityViolationException e) {
         log.error("Error creating book", e);
         if (e.getMessage() != null && e.getMessage().contains("book_genre") && e.getMessage().contains("not-null")) {
             return ResponseEntity.badRequest().body("Book genre must be specified. Please choose from the available genres: " + 
@@ -125,6 +163,28 @@ public class BookController {
       }
     }
 
+    @Operation(summary = "Import books in bulk",
+               description = "Streams a CSV (header row with name, isbn, author, publisher, numberOfPages, quantity, genre) " +
+                             "or JSON lines catalog into the library. Books are matched by ISBN: new ones are created, " +
+                             "existing ones updated. Invalid rows are skipped and reported")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Import finished, see the counts and rejected rows"),
+        @ApiResponse(responseCode = "400", description = "Unreadable catalog")
+    })
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson", "application/jsonl"})
+    @PreAuthorize("hasRole('LIBRARIAN')")
+    public ResponseEntity<?> importBooks(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, HttpServletRequest request) {
+      try {
+        BookImportFormat format = BookImportFormat.fromContentType(contentType);
+        log.info("Request to import books as {}", format);
+        return ResponseEntity.ok(bookImportService.importBooks(request.getReader(), format));
+      } catch (IOException | LibraryException | IllegalArgumentException e) {
+        log.error("Error importing books", e);
+        return ResponseEntity.badRequest().body(e.getMessage());
+      }
+    }
+
     @Operation(summary = "Update book", description = "Updates an existing book in the library")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully updated book"),
@@ -138,7 +198,7 @@ public class BookController {
             @Parameter(description = "Updated book details") @Valid @RequestBody BookRequestDTO bookDetails) {
         try {
             return ResponseEntity.ok(bookService.updateBook(id, bookDetails));
-        } catch (RuntimeException e) {
+        } catch (LibraryException | IllegalArgumentException | DataIntegrityViolationException e) {
             log.error("Error updating book with ID {}", id, e);
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -160,7 +220,7 @@ public class BookController {
         } catch (IllegalArgumentException e) {
             log.error("Invalid quantity update for book with ID {}: {}", id, e.getMessage());
             return ResponseEntity.badRequest().body(e.getMessage());
-        } catch (RuntimeException e) {
+        } catch (LibraryException e) {
             log.error("Error updating book quantity with ID {}", id, e);
             return ResponseEntity.notFound().build();
         }
@@ -178,9 +238,41 @@ public class BookController {
         try {
             bookService.deleteBook(id);
             return ResponseEntity.ok().build();
-        } catch (RuntimeException e) {
+        } catch (LibraryException | DataIntegrityViolationException e) {
             log.error("Error deleting book with ID {}", id, e);
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
-} 
\ No newline at end of file
+
+    @Operation(summary = "Get book cache statistics",
+               description = "Hits, misses and invalidations of the second-level cache that serves book lookups")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved cache statistics"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @GetMapping("/cache-stats")
+    @PreAuthorize("hasRole('LIBRARIAN')")
+    public ResponseEntity<BookCacheStatsDTO> getCacheStats() {
+        log.info("Request to get book cache statistics");
+        return ResponseEntity.ok(bookService.getCacheStats());
+    }
+
+    // Conditional GET: true when the client's If-None-Match / If-Modified-Since still match and a 304 has been
+    // set up; otherwise the ETag and Last-Modified headers are on the response and the body goes out as usual.
+    // List and search pages are validated against the catalog version, before any row is read.
+    // The ETags are weak: JSON, CBOR and Smile carry the same book, and Tomcat does not gzip responses with a strong one
+    private static ResponseEntity<?> revalidated(Object body) {
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(body);
+    }
+
+    private static boolean notModified(WebRequest request, CatalogVersionDTO catalog) {
+        return request.checkNotModified(catalog.eTag(), catalog.lastModified().toEpochMilli());
+    }
+
+    private static boolean notModified(WebRequest request, BookResponseDTO book) {
+        long lastModified = book.updatedAt() != null
+                ? book.updatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : -1;
+        return request.checkNotModified("W/\"" + book.version() + "\"", lastModified);
+    }
+}
@@ -1,9 +1,19 @@
 package com.ilhanozkan.libraryManagementSystem.controller;
 
+import com.ilhanozkan.libraryManagementSystem.common.exception.LibraryException;
+import com.ilhanozkan.libraryManagementSystem.common.exception.report.ReportJobNotFoundException;
+import com.ilhanozkan.libraryManagementSystem.model.dto.request.BorrowingFilterDTO;
 import com.ilhanozkan.libraryManagementSystem.model.dto.request.BorrowingRequestDTO;
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.BorrowingBatchResponseDTO;
 import com.ilhanozkan.libraryManagementSystem.model.dto.response.BorrowingResponseDTO;
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.OverdueStatsDTO;
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.PagedResponse;
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.ReportJobDTO;
 import com.ilhanozkan.libraryManagementSystem.model.entity.User;
 import com.ilhanozkan.libraryManagementSystem.model.entity.UserPrincipal;
+import com.ilhanozkan.libraryManagementSystem.model.enums.ReportFormat;
+import com.ilhanozkan.libraryManagementSystem.model.enums.ReportJobStatus;
+import com.ilhanozkan.libraryManagementSystem.service.ReportJobService;
 import com.ilhanozkan.libraryManagementSystem.service.impl.BorrowingServiceImpl;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,16 +21,26 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.annotation.Description;
+import org.springframework.data.domain.Pageable;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.UUID;
 
@@ -30,32 +50,62 @@ import java.util.UUID;
 @Slf4j
 public class BorrowingController {
   private final BorrowingServiceImpl borrowingService;
+  private final ReportJobService reportJobService;
 
   @Autowired
-  public BorrowingController(BorrowingServiceImpl borrowingService) {
+  public BorrowingController(BorrowingServiceImpl borrowingService, ReportJobService reportJobService) {
     this.borrowingService = borrowingService;
+    this.reportJobService = reportJobService;
     log.info("BorrowingController initialized");
   }
 
-  @Description("List user's all borrowings with filters")
+  @Operation(summary = "Get all borrowings",
+             description = "Retrieves borrowings filtered by status, user, book and borrow date, ordered by borrow date, one cursor page at a time")
   @ApiResponses(value = {
-      @ApiResponse(responseCode = "200", description = "Successfully retrieved user's all borrowings with filter"),
+      @ApiResponse(responseCode = "200", description = "Successfully retrieved borrowings"),
+      @ApiResponse(responseCode = "400", description = "Invalid cursor or filter"),
       @ApiResponse(responseCode = "403", description = "Access denied")
   })
   @GetMapping
   @PreAuthorize("hasRole('LIBRARIAN')")
-  public List<BorrowingResponseDTO> getBorrowings() {
+  public ResponseEntity<?> getBorrowings(
+      @ParameterObject @ModelAttribute BorrowingFilterDTO filter,
+      @Parameter(description = "nextCursor of the previous page; omit for the first page")
+      @RequestParam(required = false) String cursor,
+      @PageableDefault(size = 20) Pageable pageable) {
     try {
-      log.info("Request to get all borrowings");
-      List<BorrowingResponseDTO> borrowings = borrowingService.getBorrowings();
-      log.info("Successfully retrieved {} borrowings", borrowings.size());
-      return borrowings;
-    } catch (RuntimeException e) {
-      log.error("Error retrieving all borrowings", e);
-      throw new RuntimeException(e.getMessage());
+      log.info("Request to get borrowings - filter: {}, size: {}", filter, pageable.getPageSize());
+      PagedResponse<BorrowingResponseDTO> borrowings = borrowingService.getBorrowings(filter, cursor, pageable.getPageSize());
+      log.info("Successfully retrieved {} borrowings", borrowings.getContent().size());
+      return ResponseEntity.ok(borrowings);
+    } catch (IllegalArgumentException e) {
+      log.warn("Invalid borrowings cursor: {}", e.getMessage());
+      return ResponseEntity.badRequest().body(e.getMessage());
     }
   }
 
+  @Operation(summary = "Export borrowings as CSV",
+             description = "Streams every borrowing matching the filters as CSV while it is read from the database")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Export started"),
+      @ApiResponse(responseCode = "400", description = "Invalid filter"),
+      @ApiResponse(responseCode = "403", description = "Access denied")
+  })
+  @GetMapping(value = "/export", produces = "text/csv")
+  @PreAuthorize("hasRole('LIBRARIAN')")
+  public ResponseEntity<StreamingResponseBody> exportBorrowings(@ParameterObject @ModelAttribute BorrowingFilterDTO filter) {
+    log.info("Request to export borrowings - filter: {}", filter);
+    StreamingResponseBody body = outputStream -> {
+      Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+      long exported = borrowingService.exportBorrowings(filter, writer);
+      log.info("Successfully exported {} borrowings", exported);
+    };
+    return ResponseEntity.ok()
+        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=borrowings.csv")
+        .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+        .body(body);
+  }
+
   @Operation(summary = "Get user's borrowings", description = "Retrieves all borrowings for a specific user")
   @ApiResponses(value = {
       @ApiResponse(responseCode = "200", description = "Successfully retrieved user's borrowings"),
@@ -103,13 +153,34 @@ public class BorrowingController {
       BorrowingResponseDTO borrowing = borrowingService.createBorrowing(borrowingRequestDTO);
       log.info("Librarian user created a new borrowing successfully with ID: {}", borrowing.id());
       return ResponseEntity.ok(borrowing);
-    } catch (RuntimeException e) {
+    } catch (LibraryException | IllegalArgumentException e) {
       log.error("Librarian user get an error while creating borrowing - Book ID: {}, User ID: {}: {}",
                 borrowingRequestDTO.getBookId(), borrowingRequestDTO.getUserId(), e.getMessage());
       return ResponseEntity.badRequest().body(e.getMessage());
     }
   }
 
+  @Operation(summary = "Create borrowings in bulk",
+             description = "Checks out up to 500 books in one request and reports the outcome of each entry")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Batch processed, see the per-entry results"),
+      @ApiResponse(responseCode = "400", description = "Empty or oversized batch"),
+      @ApiResponse(responseCode = "403", description = "Access denied")
+  })
+  @PostMapping("/batch")
+  @PreAuthorize("hasRole('LIBRARIAN')")
+  public ResponseEntity<?> createBorrowings(@RequestBody List<BorrowingRequestDTO> borrowingRequests) {
+    log.info("Request to create {} borrowings in bulk", borrowingRequests.size());
+    try {
+      BorrowingBatchResponseDTO result = borrowingService.createBorrowings(borrowingRequests);
+      log.info("Bulk borrowing finished: {} succeeded, {} failed", result.succeeded(), result.failed());
+      return ResponseEntity.ok(result);
+    } catch (LibraryException | IllegalArgumentException e) {
+      log.error("Error creating borrowings in bulk: {}", e.getMessage());
+      return ResponseEntity.badRequest().body(e.getMessage());
+    }
+  }
+
   @Operation(summary = "Create new borrowing", description = "Creates a new book borrowing")
   @ApiResponses(value = {
       @ApiResponse(responseCode = "200", description = "Successfully created borrowing"),
@@ -132,7 +203,7 @@ public class BorrowingController {
 
       log.info("Borrowing created successfully with ID: {}", borrowing.id());
       return ResponseEntity.ok(borrowing);
-    } catch (RuntimeException e) {
+    } catch (LibraryException | IllegalArgumentException e) {
       log.error("Error creating borrowing - Book ID: {}, User ID: {}: {}",
           bookId, user.getId(), e.getMessage());
       return ResponseEntity.badRequest().body(e.getMessage());
@@ -142,7 +213,8 @@ public class BorrowingController {
   @Operation(summary = "Return book", description = "Marks a borrowed book as returned")
   @ApiResponses(value = {
       @ApiResponse(responseCode = "200", description = "Successfully returned book"),
-      @ApiResponse(responseCode = "400", description = "Book already returned or invalid input")
+      @ApiResponse(responseCode = "400", description = "Book already returned or invalid input"),
+      @ApiResponse(responseCode = "403", description = "Borrowing belongs to another user")
   })
   @PutMapping("/{id}/return")
   public ResponseEntity<?> returnBook(
@@ -152,12 +224,31 @@ public class BorrowingController {
       BorrowingResponseDTO borrowing = borrowingService.returnBook(id);
       log.info("Book returned successfully for borrowing ID: {}", id);
       return ResponseEntity.ok(borrowing);
-    } catch (RuntimeException e) {
+    } catch (LibraryException | IllegalArgumentException e) {
       log.error("Error returning book for borrowing ID: {}: {}", id, e.getMessage());
       return ResponseEntity.badRequest().body(e.getMessage());
     }
   }
 
+  @Operation(summary = "Return books in bulk",
+             description = "Marks up to 500 borrowings as returned in one request and reports the outcome of each entry")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Batch processed, see the per-entry results"),
+      @ApiResponse(responseCode = "400", description = "Empty or oversized batch")
+  })
+  @PutMapping("/batch/return")
+  public ResponseEntity<?> returnBooks(@RequestBody List<UUID> ids) {
+    log.info("Request to return {} borrowings in bulk", ids.size());
+    try {
+      BorrowingBatchResponseDTO result = borrowingService.returnBooks(ids);
+      log.info("Bulk return finished: {} succeeded, {} failed", result.succeeded(), result.failed());
+      return ResponseEntity.ok(result);
+    } catch (LibraryException | IllegalArgumentException e) {
+      log.error("Error returning borrowings in bulk: {}", e.getMessage());
+      return ResponseEntity.badRequest().body(e.getMessage());
+    }
+  }
+
   @Operation(summary = "Delete borrowing", description = "Deletes a borrowing record")
   @ApiResponses(value = {
       @ApiResponse(responseCode = "200", description = "Successfully deleted borrowing"),
@@ -173,7 +264,7 @@ public class BorrowingController {
       borrowingService.deleteBorrowing(id);
       log.info("Borrowing deleted successfully: {}", id);
       return ResponseEntity.ok().build();
-    } catch (RuntimeException e) {
+    } catch (LibraryException e) {
       log.error("Error deleting borrowing with ID: {}: {}", id, e.getMessage());
       return ResponseEntity.notFound().build();
     }
@@ -213,29 +304,35 @@ public class BorrowingController {
     return ResponseEntity.ok(activeBorrowings);
   }
 
-  @Operation(summary = "Generate overdue books PDF report", description = "Generates a PDF report of overdue books")
+  @Operation(summary = "Get overdue statistics", description = "Returns total, active and overdue borrowing counts without scanning the borrowings")
   @ApiResponses(value = {
-      @ApiResponse(responseCode = "200", description = "Successfully generated overdue books report"),
-      @ApiResponse(responseCode = "400", description = "Error generating report")
+      @ApiResponse(responseCode = "200", description = "Successfully retrieved overdue statistics")
+  })
+  @GetMapping("/overdue-stats")
+  @PreAuthorize("hasRole('LIBRARIAN')")
+  public ResponseEntity<OverdueStatsDTO> getOverdueStats() {
+    log.info("Request to get overdue statistics");
+    return ResponseEntity.ok(borrowingService.getOverdueStats());
+  }
+
+  @Operation(summary = "Generate overdue books PDF report",
+             description = "Streams a PDF report of overdue books while the rows are read from the database")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Report generation started"),
+      @ApiResponse(responseCode = "403", description = "Access denied")
   })
-  @GetMapping("/overdue-pdf-report")
+  @GetMapping(value = "/overdue-pdf-report", produces = MediaType.APPLICATION_PDF_VALUE)
   @PreAuthorize("hasRole('LIBRARIAN')")
-  public ResponseEntity<?> getOverdueBooksPDFReport() {
+  public ResponseEntity<StreamingResponseBody> getOverdueBooksPDFReport() {
     log.info("Request to generate overdue books PDF report");
-    try {
-      byte[] report = borrowingService.getOverdueBooksPDFReport();
-      log.info("Successfully generated overdue books PDF report, size: {} bytes", report.length);
-      return ResponseEntity.ok()
-          .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=report.pdf")
-          .contentType(MediaType.APPLICATION_PDF)
-          .body(report);
-    } catch (RuntimeException e) {
-      log.error("Error generating overdue books PDF report", e);
-      return ResponseEntity.badRequest().body(e.getMessage());
-    } catch (Exception e) {
-      log.error("Unexpected error generating overdue books PDF report", e);
-      return ResponseEntity.status(500).body(null);
-    }
+    StreamingResponseBody body = outputStream -> {
+      long written = borrowingService.writeOverdueBooksPDFReport(outputStream);
+      log.info("Successfully generated overdue books PDF report with {} borrowings", written);
+    };
+    return ResponseEntity.ok()
+        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=report.pdf")
+        .contentType(MediaType.APPLICATION_PDF)
+        .body(body);
   }
 
   @Operation(summary = "Generate overdue books text report", description = "Generates a text report of overdue books")
@@ -251,9 +348,72 @@ public class BorrowingController {
       String report = borrowingService.getOverdueBooksTextReport();
       log.info("Successfully generated overdue books text report");
       return ResponseEntity.ok(report);
-    } catch (RuntimeException e) {
+    } catch (LibraryException | IllegalArgumentException e) {
       log.error("Error generating overdue books text report", e);
       return ResponseEntity.badRequest().body(e.getMessage());
     }
   }
+
+  @Operation(summary = "Queue overdue report job",
+             description = "Renders the overdue report in the background; identical requests within the freshness window share one job")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "202", description = "Report job queued or reused"),
+      @ApiResponse(responseCode = "403", description = "Access denied")
+  })
+  @PostMapping("/overdue-report/jobs")
+  @PreAuthorize("hasRole('LIBRARIAN')")
+  public ResponseEntity<ReportJobDTO> submitOverdueReportJob(
+      @Parameter(description = "Format of the report") @RequestParam(defaultValue = "PDF") ReportFormat format) {
+    log.info("Request to queue {} overdue report job", format);
+    ReportJobDTO job = reportJobService.submitOverdueReport(format);
+    return ResponseEntity.accepted()
+        .location(ServletUriComponentsBuilder.fromCurrentContextPath()
+            .path("/borrowings/overdue-report/jobs/{id}")
+            .buildAndExpand(job.id())
+            .toUri())
+        .body(job);
+  }
+
+  @Operation(summary = "Get overdue report job", description = "Returns the status of a report job")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Successfully retrieved report job"),
+      @ApiResponse(responseCode = "404", description = "Report job not found")
+  })
+  @GetMapping("/overdue-report/jobs/{id}")
+  @PreAuthorize("hasRole('LIBRARIAN')")
+  public ResponseEntity<ReportJobDTO> getOverdueReportJob(@Parameter(description = "ID of the report job") @PathVariable UUID id) {
+    try {
+      return ResponseEntity.ok(reportJobService.getJob(id));
+    } catch (ReportJobNotFoundException e) {
+      log.warn(e.getMessage());
+      return ResponseEntity.notFound().build();
+    }
+  }
+
+  @Operation(summary = "Download overdue report", description = "Downloads the report of a completed job")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Report downloaded"),
+      @ApiResponse(responseCode = "404", description = "Report job not found"),
+      @ApiResponse(responseCode = "409", description = "Report job still running or failed")
+  })
+  @GetMapping("/overdue-report/jobs/{id}/file")
+  @PreAuthorize("hasRole('LIBRARIAN')")
+  public ResponseEntity<?> downloadOverdueReport(@Parameter(description = "ID of the report job") @PathVariable UUID id) {
+    try {
+      ReportJobDTO job = reportJobService.getJob(id);
+      if (job.status() != ReportJobStatus.COMPLETED)
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(job);
+
+      // Opened here so the report cannot be deleted from under the download
+      InputStreamResource report = new InputStreamResource(reportJobService.openReport(id));
+      return ResponseEntity.ok()
+          .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=report" + job.format().getExtension())
+          .contentType(MediaType.parseMediaType(job.format().getContentType()))
+          .contentLength(job.sizeBytes())
+          .body(report);
+    } catch (ReportJobNotFoundException e) {
+      log.warn(e.getMessage());
+      return ResponseEntity.notFound().build();
+    }
+  }
 }
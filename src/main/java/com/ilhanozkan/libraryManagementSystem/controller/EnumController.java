@@ -3,10 +3,13 @@ package com.ilhanozkan.libraryManagementSystem.controller;
 import com.ilhanozkan.libraryManagementSystem.model.enums.BookGenre;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.Arrays;
 import java.util.List;
@@ -16,13 +19,19 @@ import java.util.stream.Collectors;
 @RequestMapping("/enums")
 @Tag(name = "Enum Values", description = "APIs for retrieving enum values used in the application")
 public class EnumController {
+    private static final List<String> BOOK_GENRES = Arrays.stream(BookGenre.values())
+            .map(Enum::name)
+            .collect(Collectors.toList());
+    // Genres only change with a release, so their hash is a stable validator for clients that poll the list
+    private static final String BOOK_GENRES_ETAG = "W/\"" + Integer.toHexString(BOOK_GENRES.hashCode()) + "\"";
+    // Keep a copy but revalidate it, instead of the no-store Spring Security would send
+    private static final CacheControl REVALIDATE = CacheControl.noCache();
 
     @Operation(summary = "Get all book genres", description = "Retrieves a list of all valid book genres")
     @GetMapping("/book-genres")
-    public ResponseEntity<List<String>> getAllBookGenres() {
-        List<String> genres = Arrays.stream(BookGenre.values())
-                .map(Enum::name)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(genres);
+    public ResponseEntity<List<String>> getAllBookGenres(WebRequest request) {
+        if (request.checkNotModified(BOOK_GENRES_ETAG))
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(BOOK_GENRES);
     }
 } 
\ No newline at end of file
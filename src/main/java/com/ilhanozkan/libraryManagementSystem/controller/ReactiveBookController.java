@@ -1,18 +1,27 @@
 package com.ilhanozkan.libraryManagementSystem.controller;
 
+import com.ilhanozkan.libraryManagementSystem.model.dto.event.AvailabilityStreamStats;
 import com.ilhanozkan.libraryManagementSystem.model.dto.event.BookAvailabilityEvent;
+import com.ilhanozkan.libraryManagementSystem.model.dto.request.AvailabilityStreamFilterDTO;
 import com.ilhanozkan.libraryManagementSystem.service.BookAvailabilityPublisher;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
 
-import java.time.Duration;
 import java.util.UUID;
 
 @RestController
@@ -26,9 +35,15 @@ public class ReactiveBookController {
 
     @GetMapping(value = "/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     @Operation(summary = "Stream book availability changes", 
-               description = "Returns a stream of Server-Sent Events (SSE) for real-time book availability updates")
-    public Flux<BookAvailabilityEvent> streamBookAvailability() {
-        log.debug("Client connected to book availability stream");
+               description = "Returns a stream of Server-Sent Events (SSE) for real-time book availability updates. " +
+                   "Each event id is its sequence number; pass fromSeq (or reconnect with Last-Event-ID) to replay from there before live events. " +
+                   "Filter by book ids, ISBNs or genre, and set coalesce to receive only the latest state of each book per window")
+    public Flux<ServerSentEvent<BookAvailabilityEvent>> streamBookAvailability(
+        @ParameterObject @ModelAttribute AvailabilityStreamFilterDTO filter,
+        @RequestParam(required = false) @Parameter(description = "First sequence number to replay") Long fromSeq,
+        @RequestHeader(value = "Last-Event-ID", required = false) @Parameter(hidden = true) Long lastEventId
+    ) {
+        log.debug("Client connected to book availability stream, fromSeq: {}, Last-Event-ID: {}, filter: {}", fromSeq, lastEventId, filter);
         
         // Create an initial connection event
         BookAvailabilityEvent connectionEvent = new BookAvailabilityEvent(
@@ -40,8 +55,20 @@ public class ReactiveBookController {
             System.currentTimeMillis()
         );
 
-        // Combine the initial event, heartbeat, and the actual events
-        return Flux.just(connectionEvent)
-            .concatWith(bookAvailabilityPublisher.getEventStream());
+        // An explicit offset wins over the browser's automatic resume header
+        Long resumeFrom = fromSeq != null ? fromSeq : lastEventId != null ? lastEventId + 1 : null;
+        Flux<BookAvailabilityEvent> events = bookAvailabilityPublisher.getEventStream(resumeFrom, filter);
+
+        // Combine the initial event and the actual events
+        return Flux.just(ServerSentEvent.builder(connectionEvent).build())
+            .concatWith(events.map(event -> ServerSentEvent.builder(event).id(String.valueOf(event.seq())).build()));
+    }
+
+    @GetMapping("/availability/stats")
+    @PreAuthorize("hasRole('LIBRARIAN')")
+    @Operation(summary = "Get availability stream statistics",
+               description = "Returns connected subscribers and how many events were published, dropped or coalesced for slow subscribers")
+    public ResponseEntity<AvailabilityStreamStats> getStreamStats() {
+        return ResponseEntity.ok(bookAvailabilityPublisher.getStats());
     }
-} 
\ No newline at end of file
+}
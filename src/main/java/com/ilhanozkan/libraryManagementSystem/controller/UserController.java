@@ -1,5 +1,6 @@
 package com.ilhanozkan.libraryManagementSystem.controller;
 
+import com.ilhanozkan.libraryManagementSystem.common.exception.LibraryException;
 import com.ilhanozkan.libraryManagementSystem.model.dto.request.UserRequestDTO;
 import com.ilhanozkan.libraryManagementSystem.model.dto.response.PagedResponse;
 import com.ilhanozkan.libraryManagementSystem.model.dto.response.UserResponseDTO;
@@ -13,6 +14,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.BadRequestException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Description;
 import org.springframework.data.domain.Pageable;
@@ -36,23 +38,33 @@ public class UserController {
     log.info("UserController initialized");
   }
 
-  @Operation(summary = "Get all users with pagination", description = "Retrieves a paginated list of all library users")
+  @Operation(summary = "Get all users with pagination",
+             description = "Retrieves a paginated list of all library users. Pass a cursor to walk users by username without offsets")
   @ApiResponses(value = {
       @ApiResponse(responseCode = "200", description = "Successfully retrieved users")
   })
   @Description("Fetch all users")
   @GetMapping
-  public PagedResponse<UserResponseDTO> getUsersPaged(@PageableDefault(size = 10) Pageable pageable) {
-    log.info("Request to get all users with pagination - page: {}, size: {}", pageable.getPageNumber(), pageable.getPageSize());
-    try {
-      PagedResponse<UserResponseDTO> response = userService.getUsers(pageable);
-      log.info("Successfully retrieved {} users (page {} of {})", 
-               response.getContent().size(), response.getPage(), response.getTotalPages());
-      return response;
-    } catch (RuntimeException e) {
-      log.error("Error retrieving users with pagination", e);
-      throw new RuntimeException(e.getMessage());
+  public PagedResponse<UserResponseDTO> getUsersPaged(
+      @Parameter(description = "nextCursor of the previous page; empty for the first page, omit for offset paging")
+      @RequestParam(required = false) String cursor,
+      @PageableDefault(size = 10) Pageable pageable) throws BadRequestException {
+    if (cursor != null) {
+      log.info("Request to get users after cursor - size: {}", pageable.getPageSize());
+      try {
+        PagedResponse<UserResponseDTO> response = userService.getUsersByCursor(cursor, pageable.getPageSize());
+        log.info("Successfully retrieved {} users (last page: {})", response.getContent().size(), response.isLast());
+        return response;
+      } catch (IllegalArgumentException e) {
+        throw new BadRequestException(e.getMessage());
+      }
     }
+
+    log.info("Request to get all users with pagination - page: {}, size: {}", pageable.getPageNumber(), pageable.getPageSize());
+    PagedResponse<UserResponseDTO> response = userService.getUsers(pageable);
+    log.info("Successfully retrieved {} users (page {} of {})", 
+             response.getContent().size(), response.getPage(), response.getTotalPages());
+    return response;
   }
 
   @Operation(summary = "Get user by ID", description = "Retrieves a specific user by their ID")
@@ -64,14 +76,9 @@ public class UserController {
   @GetMapping("/{id}")
   public UserResponseDTO getUserById(@PathVariable UUID id) {
     log.info("Request to get user by ID: {}", id);
-    try {
-      UserResponseDTO user = userService.getUserById(id);
-      log.info("Successfully retrieved user: {}", user.username());
-      return user;
-    } catch (RuntimeException e) {
-      log.error("Error retrieving user with ID: {}", id, e);
-      throw new RuntimeException(e.getMessage());
-    }
+    UserResponseDTO user = userService.getUserById(id);
+    log.info("Successfully retrieved user: {}", user.username());
+    return user;
   }
 
   @Operation(
@@ -91,7 +98,7 @@ public class UserController {
       UserResponseDTO response = userService.createUser(userRequestDTO);
       log.info("User created successfully: {}", response.username());
       return ResponseEntity.status(HttpStatus.CREATED).body(response);
-    } catch (RuntimeException e) {
+    } catch (LibraryException | IllegalArgumentException e) {
       log.error("Error creating user: {}", e.getMessage());
       return ResponseEntity.badRequest().body(e.getMessage());
     }
@@ -110,7 +117,7 @@ public class UserController {
       UserResponseDTO user = userService.getUserByEmail(email);
       log.info("Successfully retrieved user by email: {}", user.username());
       return ResponseEntity.ok(user);
-    } catch (Exception e) {
+    } catch (LibraryException | IllegalArgumentException e) {
       log.error("Error retrieving user with email: {}", email, e);
       return ResponseEntity.badRequest().body(e.getMessage());
     }
@@ -131,7 +138,7 @@ public class UserController {
       UserResponseDTO updatedUser = userService.updateUser(id, userRequestDTO);
       log.info("User updated successfully: {}", updatedUser.username());
       return ResponseEntity.ok(updatedUser);
-    } catch (Exception e) {
+    } catch (LibraryException | BadRequestException e) {
       log.error("Error updating user with ID: {}", id, e);
       return ResponseEntity.notFound().build();
     }
@@ -150,7 +157,7 @@ public class UserController {
       userService.deleteUser(id);
       log.info("User deleted successfully: {}", id);
       return ResponseEntity.ok().build();
-    } catch (Exception e) {
+    } catch (LibraryException e) {
       log.error("Error deleting user with ID: {}", id, e);
       return ResponseEntity.notFound().build();
     }
@@ -169,7 +176,7 @@ public class UserController {
       UserResponseDTO deactivatedUser = userService.deactivateUser(id);
       log.info("User deactivated successfully: {}", deactivatedUser.username());
       return ResponseEntity.ok(deactivatedUser);
-    } catch (Exception e) {
+    } catch (LibraryException e) {
       log.error("Error deactivating user with ID: {}", id, e);
       return ResponseEntity.notFound().build();
     }
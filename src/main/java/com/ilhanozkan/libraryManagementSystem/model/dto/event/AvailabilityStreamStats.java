@@ -0,0 +1,9 @@
+package com.ilhanozkan.libraryManagementSystem.model.dto.event;
+
+public record AvailabilityStreamStats(
+    int subscribers,
+    long published,
+    long dropped,
+    long coalesced
+) {
+}
@@ -1,5 +1,7 @@
 package com.ilhanozkan.libraryManagementSystem.model.dto.event;
 
+import com.ilhanozkan.libraryManagementSystem.model.enums.BookGenre;
+
 import java.util.UUID;
 
 public record BookAvailabilityEvent(
@@ -8,9 +10,24 @@ public record BookAvailabilityEvent(
     String isbn,
     Integer totalQuantity,
     Integer availableQuantity,
-    Long timestamp
+    Long timestamp,
+    BookGenre genre,
+    // Offset in the event stream; null until the event has committed and been given one
+    Long seq
 ) {
+    public BookAvailabilityEvent(UUID bookId, String bookName, String isbn, Integer totalQuantity, Integer availableQuantity, Long timestamp) {
+        this(bookId, bookName, isbn, totalQuantity, availableQuantity, timestamp, null, null);
+    }
+
     public static BookAvailabilityEvent create(UUID bookId, String bookName, String isbn, Integer totalQuantity, Integer availableQuantity) {
-        return new BookAvailabilityEvent(bookId, bookName, isbn, totalQuantity, availableQuantity, System.currentTimeMillis());
+        return create(bookId, bookName, isbn, totalQuantity, availableQuantity, null);
+    }
+
+    public static BookAvailabilityEvent create(UUID bookId, String bookName, String isbn, Integer totalQuantity, Integer availableQuantity, BookGenre genre) {
+        return new BookAvailabilityEvent(bookId, bookName, isbn, totalQuantity, availableQuantity, System.currentTimeMillis(), genre, null);
+    }
+
+    public BookAvailabilityEvent withSeq(Long seq) {
+        return new BookAvailabilityEvent(bookId, bookName, isbn, totalQuantity, availableQuantity, timestamp, genre, seq);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,12 @@
+package com.ilhanozkan.libraryManagementSystem.model.dto.event;
+
+/**
+ * Published once when a bulk catalog import has finished, in place of an event per imported book
+ */
+public record BookImportCompletedEvent(
+    long inserted,
+    long updated,
+    long rejected,
+    long elapsedMillis
+) {
+}
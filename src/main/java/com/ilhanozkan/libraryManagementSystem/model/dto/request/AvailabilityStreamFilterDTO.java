@@ -0,0 +1,26 @@
+package com.ilhanozkan.libraryManagementSystem.model.dto.request;
+
+import com.ilhanozkan.libraryManagementSystem.model.enums.BookGenre;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityStreamFilterDTO {
+  @Schema(description = "Only events of these books")
+  private List<UUID> bookIds;
+  @Schema(description = "Only events of books with these ISBNs")
+  private List<String> isbns;
+  @Schema(description = "Only events of books in this genre")
+  private BookGenre genre;
+  @Schema(description = "Collapse bursts for the same book into its latest state, sent once per coalescing window")
+  private boolean coalesce;
+}
@@ -0,0 +1,31 @@
+package com.ilhanozkan.libraryManagementSystem.model.dto.request;
+
+import com.ilhanozkan.libraryManagementSystem.model.enums.BorrowingStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BorrowingFilterDTO {
+  @Schema(description = "Only borrowings in this status; OVERDUE means not returned and past the due date")
+  private BorrowingStatus status;
+  @Schema(description = "Only borrowings of this user")
+  private UUID userId;
+  @Schema(description = "Only borrowings of this book")
+  private UUID bookId;
+  @Schema(description = "Borrowed at or after this time (ISO date-time)")
+  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+  private LocalDateTime borrowedFrom;
+  @Schema(description = "Borrowed before this time (ISO date-time)")
+  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+  private LocalDateTime borrowedTo;
+}
@@ -3,10 +3,12 @@ package com.ilhanozkan.libraryManagementSystem.model.dto.request;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.util.UUID;
 
 @AllArgsConstructor
+@NoArgsConstructor
 @Data
 public class BorrowingRequestDTO {
   @Schema(description = "ID of the book to borrow")
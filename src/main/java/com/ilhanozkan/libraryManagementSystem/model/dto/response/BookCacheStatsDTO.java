@@ -0,0 +1,17 @@
+package com.ilhanozkan.libraryManagementSystem.model.dto.response;
+
+public record BookCacheStatsDTO(
+    // Book lookups by id answered from the books region, and the ones that went to the database
+    long hits,
+    long misses,
+    long puts,
+    // ISBN to id resolutions answered from the books-by-isbn region
+    long naturalIdHits,
+    long naturalIdMisses,
+    // Entries dropped because an inventory update changed the book
+    long evictions,
+    // Entries rewritten or removed by book updates and deletes
+    long updates,
+    long deletes
+) {
+}
@@ -0,0 +1,15 @@
+package com.ilhanozkan.libraryManagementSystem.model.dto.response;
+
+import java.util.List;
+
+public record BookImportResultDTO(
+    long rows,
+    long inserted,
+    long updated,
+    long rejected,
+    // First rejections only, each prefixed with its line number
+    List<String> errors,
+    long elapsedMillis,
+    long rowsPerSecond
+) {
+}
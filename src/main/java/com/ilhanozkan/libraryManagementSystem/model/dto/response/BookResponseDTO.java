@@ -1,7 +1,9 @@
 package com.ilhanozkan.libraryManagementSystem.model.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.ilhanozkan.libraryManagementSystem.model.enums.BookGenre;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 public record BookResponseDTO(
@@ -13,6 +15,9 @@ public record BookResponseDTO(
     Integer numberOfPages,
     Integer quantity,
     Integer availableQuantity,
-    BookGenre genre
+    BookGenre genre,
+    // Sent as the ETag and Last-Modified headers rather than in the body
+    @JsonIgnore Long version,
+    @JsonIgnore LocalDateTime updatedAt
 ) {
 }
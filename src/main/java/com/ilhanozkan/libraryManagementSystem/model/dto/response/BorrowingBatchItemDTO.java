@@ -0,0 +1,19 @@
+package com.ilhanozkan.libraryManagementSystem.model.dto.response;
+
+/**
+ * Outcome of one entry of a bulk borrowing request, reported at the position it was sent in
+ */
+public record BorrowingBatchItemDTO(
+    int index,
+    boolean success,
+    BorrowingResponseDTO borrowing,
+    String error
+) {
+    public static BorrowingBatchItemDTO succeeded(int index, BorrowingResponseDTO borrowing) {
+        return new BorrowingBatchItemDTO(index, true, borrowing, null);
+    }
+
+    public static BorrowingBatchItemDTO failed(int index, String error) {
+        return new BorrowingBatchItemDTO(index, false, null, error);
+    }
+}
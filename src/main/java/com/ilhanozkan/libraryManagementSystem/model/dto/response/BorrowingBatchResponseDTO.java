@@ -0,0 +1,14 @@
+package com.ilhanozkan.libraryManagementSystem.model.dto.response;
+
+import java.util.List;
+
+public record BorrowingBatchResponseDTO(
+    int succeeded,
+    int failed,
+    List<BorrowingBatchItemDTO> results
+) {
+    public static BorrowingBatchResponseDTO of(List<BorrowingBatchItemDTO> results) {
+        int succeeded = (int) results.stream().filter(BorrowingBatchItemDTO::success).count();
+        return new BorrowingBatchResponseDTO(succeeded, results.size() - succeeded, results);
+    }
+}
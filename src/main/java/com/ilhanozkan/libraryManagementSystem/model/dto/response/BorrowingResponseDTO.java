@@ -1,5 +1,9 @@
 package com.ilhanozkan.libraryManagementSystem.model.dto.response;
 
+import com.ilhanozkan.libraryManagementSystem.model.enums.BookGenre;
+import com.ilhanozkan.libraryManagementSystem.model.enums.UserRole;
+import com.ilhanozkan.libraryManagementSystem.model.enums.UserStatus;
+
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -27,4 +31,35 @@ public record BorrowingResponseDTO(
              book != null ? book.name() : null, 
              user != null ? user.name() + " " + user.surname() : null);
     }
+
+    // Flat column list for JPQL constructor projections, which cannot build the nested records themselves
+    public BorrowingResponseDTO(
+        UUID id,
+        LocalDateTime borrowDate,
+        LocalDateTime dueDate,
+        LocalDateTime returnDate,
+        Boolean returned,
+        UUID bookId,
+        String bookName,
+        String isbn,
+        String author,
+        String publisher,
+        Integer numberOfPages,
+        Integer quantity,
+        Integer availableQuantity,
+        BookGenre genre,
+        UUID userId,
+        String username,
+        String email,
+        String name,
+        String surname,
+        UserRole role,
+        UserStatus status
+    ) {
+        this(id,
+             new BookResponseDTO(bookId, bookName, isbn, author, publisher, numberOfPages, quantity, availableQuantity, genre,
+                                 null, null),
+             new UserResponseDTO(userId, username, email, name, surname, role, status),
+             borrowDate, dueDate, returnDate, returned);
+    }
 }
@@ -0,0 +1,10 @@
+package com.ilhanozkan.libraryManagementSystem.model.dto.response;
+
+import java.time.Instant;
+
+public record CatalogVersionDTO(
+    // Weak ETag of the catalog; changes with every committed change to any book
+    String eTag,
+    Instant lastModified
+) {
+}
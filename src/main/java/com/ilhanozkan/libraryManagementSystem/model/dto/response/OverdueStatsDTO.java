@@ -0,0 +1,12 @@
+package com.ilhanozkan.libraryManagementSystem.model.dto.response;
+
+import java.time.LocalDateTime;
+
+public record OverdueStatsDTO(
+    long totalBorrowings,
+    long activeBorrowings,
+    long overdueBorrowings,
+    // Borrowings due before this instant and not yet returned count as overdue
+    LocalDateTime overdueBefore
+) {
+}
@@ -1,5 +1,6 @@
 package com.ilhanozkan.libraryManagementSystem.model.dto.response;
 
+import com.ilhanozkan.libraryManagementSystem.util.KeysetCursor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -7,6 +8,7 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.domain.Page;
 
 import java.util.List;
+import java.util.function.Function;
 
 @Data
 @Builder
@@ -19,6 +21,8 @@ public class PagedResponse<T> {
   private long totalElements;
   private int totalPages;
   private boolean last;
+  // Set on cursor pages only; those skip the count query, so their totals are reported as -1
+  private String nextCursor;
 
   public static <T> PagedResponse<T> from(Page<T> page) {
     return PagedResponse.<T>builder()
@@ -30,4 +34,28 @@ public class PagedResponse<T> {
         .last(page.isLast())
         .build();
   }
-}
\ No newline at end of file
+
+  /**
+   * Builds a cursor page from rows fetched with a limit of size + 1; the extra row only signals that more rows exist
+   *
+   * @param rows Rows after the requested cursor, at most size + 1
+   * @param size Requested page size
+   * @param toContent Maps the page rows to response objects
+   * @param cursorOf Cursor pointing at a row
+   * @return Page with the cursor of its last row when another page follows
+   */
+  public static <E, T> PagedResponse<T> fromKeyset(List<E> rows, int size,
+                                                   Function<List<E>, List<T>> toContent,
+                                                   Function<E, KeysetCursor> cursorOf) {
+    boolean hasNext = rows.size() > size;
+    List<E> pageRows = hasNext ? rows.subList(0, size) : rows;
+    return PagedResponse.<T>builder()
+        .content(toContent.apply(pageRows))
+        .size(size)
+        .totalElements(-1)
+        .totalPages(-1)
+        .last(!hasNext)
+        .nextCursor(hasNext ? cursorOf.apply(pageRows.get(pageRows.size() - 1)).encode() : null)
+        .build();
+  }
+}
@@ -0,0 +1,18 @@
+package com.ilhanozkan.libraryManagementSystem.model.dto.response;
+
+import com.ilhanozkan.libraryManagementSystem.model.enums.ReportFormat;
+import com.ilhanozkan.libraryManagementSystem.model.enums.ReportJobStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record ReportJobDTO(
+    UUID id,
+    ReportFormat format,
+    ReportJobStatus status,
+    LocalDateTime createdAt,
+    LocalDateTime completedAt,
+    Long sizeBytes,
+    String error
+) {
+}
@@ -0,0 +1,50 @@
+package com.ilhanozkan.libraryManagementSystem.model.entity;
+
+import com.ilhanozkan.libraryManagementSystem.model.enums.BookGenre;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Log of book availability changes; the stream offset is what stream clients resume from.
+ * Entries older than the retention period are pruned.
+ */
+@Entity
+@Table(name = "availability_events")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AvailabilityEvent {
+  // Taken at insert, so it says nothing about commit order
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "availability_events_seq")
+  @SequenceGenerator(name = "availability_events_seq", sequenceName = "availability_events_seq", allocationSize = 1)
+  private Long seq;
+
+  // Assigned after commit, in commit order; null until then
+  private Long streamOffset;
+
+  @Column(nullable = false)
+  private UUID bookId;
+
+  @Column(nullable = false)
+  private String bookName;
+
+  private String isbn;
+
+  private BookGenre genre;
+
+  @Column(nullable = false)
+  private Integer totalQuantity;
+
+  @Column(nullable = false)
+  private Integer availableQuantity;
+
+  @Column(nullable = false)
+  private Long timestamp;
+}
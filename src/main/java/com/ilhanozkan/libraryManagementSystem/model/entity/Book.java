@@ -1,29 +1,46 @@
 package com.ilhanozkan.libraryManagementSystem.model.entity;
 
 import com.ilhanozkan.libraryManagementSystem.model.enums.BookGenre;
+import com.ilhanozkan.libraryManagementSystem.util.UuidV7;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "books")
+@Table(name = "books", indexes = {
+    @Index(name = "idx_books_name_id", columnList = "name, id"),
+    @Index(name = "uk_books_isbn", columnList = "isbn", unique = true)
+})
+// Served from the second-level cache, which is per instance: entity updates and deletes rewrite or drop the local
+// entry and inventory updates evict it (BookRepositoryCustomImpl). Entries expire after seconds (application.conf),
+// which bounds how long another instance can show old counters; writes never trust them, since inventory
+// changes are conditional updates and entity updates fail on the version the inventory updates bump
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "books")
+@NaturalIdCache(region = "books-by-isbn")
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
 public class Book {
   @Id
-  @GeneratedValue(strategy = GenerationType.UUID)
+  @TimeOrderedUuid
   private UUID id;
 
   @Column(nullable = false)
   private String name;
 
+  @NaturalId(mutable = true)
   @Column(nullable = false)
   // Validation for ISBN-13 format
   @jakarta.validation.constraints.Pattern(
@@ -52,10 +69,19 @@ public class Book {
   @Column(nullable = false)
   private BookGenre genre;
 
+  // Optimistic lock for full-entity updates; inventory counters are adjusted with conditional updates
+  @Version
+  @Column(nullable = false, columnDefinition = "bigint default 0")
+  private Long version;
+
+  // Sent as Last-Modified; inventory updates set it along with the version
+  @Column(nullable = false)
+  private LocalDateTime updatedAt;
+
   @PrePersist
   public void onCreate() {
     if (this.id == null)
-      this.id = UUID.randomUUID();
+      this.id = UuidV7.generate();
 
     if (quantity == null)
       quantity = 0;
@@ -65,10 +91,14 @@ public class Book {
       
     if (availableQuantity == null)
       availableQuantity = quantity;
+
+    if (updatedAt == null)
+      updatedAt = LocalDateTime.now();
   }
 
   @PreUpdate
   public void onUpdate() {
+    updatedAt = LocalDateTime.now();
     if (availableQuantity == null)
       availableQuantity = quantity;
     if (availableQuantity > quantity)
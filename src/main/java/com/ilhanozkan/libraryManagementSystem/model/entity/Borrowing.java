@@ -1,5 +1,6 @@
 package com.ilhanozkan.libraryManagementSystem.model.entity;
 
+import com.ilhanozkan.libraryManagementSystem.util.UuidV7;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -12,14 +13,18 @@ import java.time.LocalTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "borrowings")
+@Table(name = "borrowings", indexes = {
+    @Index(name = "idx_borrowings_borrow_date_id", columnList = "borrowDate, id"),
+    @Index(name = "idx_borrowings_user_borrow_date", columnList = "user_id, borrowDate DESC, id"),
+    @Index(name = "idx_borrowings_book_id", columnList = "book_id")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
 public class Borrowing {
   @Id
-  @GeneratedValue(strategy = GenerationType.UUID)
+  @TimeOrderedUuid
   private UUID id;
 
   @ManyToOne
@@ -52,7 +57,7 @@ public class Borrowing {
   @PrePersist
   public void onCreate() {
     if (this.id == null)
-      this.id = UUID.randomUUID();
+      this.id = UuidV7.generate();
 
     if (borrowDate == null)
       borrowDate = LocalDateTime.now();
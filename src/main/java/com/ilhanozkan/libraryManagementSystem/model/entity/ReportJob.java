@@ -0,0 +1,51 @@
+package com.ilhanozkan.libraryManagementSystem.model.entity;
+
+import com.ilhanozkan.libraryManagementSystem.model.enums.ReportFormat;
+import com.ilhanozkan.libraryManagementSystem.model.enums.ReportJobStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Overdue report render, queued by one instance and visible to all of them
+ */
+@Entity
+@Table(name = "report_jobs")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReportJob {
+  public static final int MAX_ERROR_LENGTH = 1000;
+
+  @Id
+  @TimeOrderedUuid
+  private UUID id;
+
+  @Column(nullable = false)
+  private ReportFormat format;
+
+  @Column(nullable = false)
+  private ReportJobStatus status;
+
+  @Column(nullable = false)
+  private LocalDateTime createdAt;
+
+  @Column
+  private LocalDateTime completedAt;
+
+  @Column
+  private Long sizeBytes;
+
+  @Column(length = MAX_ERROR_LENGTH)
+  private String error;
+
+  // Relative to the report directory
+  @Column
+  private String fileName;
+}
@@ -0,0 +1,27 @@
+package com.ilhanozkan.libraryManagementSystem.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Latest revocation of a user's tokens; tokens of the user issued up to revokedAt are no longer accepted
+ */
+@Entity
+@Table(name = "token_revocations")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TokenRevocation {
+  @Id
+  private UUID userId;
+
+  // Epoch milliseconds
+  @Column(nullable = false)
+  private Long revokedAt;
+}
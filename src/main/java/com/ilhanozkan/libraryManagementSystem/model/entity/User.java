@@ -2,6 +2,7 @@ package com.ilhanozkan.libraryManagementSystem.model.entity;
 
 import com.ilhanozkan.libraryManagementSystem.model.enums.UserRole;
 import com.ilhanozkan.libraryManagementSystem.model.enums.UserStatus;
+import com.ilhanozkan.libraryManagementSystem.util.UuidV7;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import lombok.AllArgsConstructor;
@@ -19,7 +20,7 @@ import java.util.UUID;
 @Builder
 public class User {
   @Id
-  @GeneratedValue(strategy = GenerationType.UUID)
+  @TimeOrderedUuid
   private UUID id;
 
   @Column(nullable = false, unique = true)
@@ -47,7 +48,7 @@ public class User {
   @PrePersist
   public void onCreate() {
     if (this.id == null)
-      this.id = UUID.randomUUID();
+      this.id = UuidV7.generate();
 
     if (this.status == null)
       this.status = UserStatus.ACTIVE;
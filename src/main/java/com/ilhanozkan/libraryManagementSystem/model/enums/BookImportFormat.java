@@ -0,0 +1,19 @@
+package com.ilhanozkan.libraryManagementSystem.model.enums;
+
+public enum BookImportFormat {
+  // Header row naming the columns, then one book per row
+  CSV,
+  // One JSON book object per line
+  JSONL;
+
+  public static BookImportFormat fromContentType(String contentType) {
+    if (contentType != null && (contentType.contains("ndjson") || contentType.contains("jsonl")))
+      return JSONL;
+    return CSV;
+  }
+
+  public static BookImportFormat fromFileName(String fileName) {
+    String lower = fileName.toLowerCase();
+    return lower.endsWith(".jsonl") || lower.endsWith(".ndjson") ? JSONL : CSV;
+  }
+}
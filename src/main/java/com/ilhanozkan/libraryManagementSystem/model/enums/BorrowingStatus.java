@@ -0,0 +1,7 @@
+package com.ilhanozkan.libraryManagementSystem.model.enums;
+
+public enum BorrowingStatus {
+  ACTIVE,
+  RETURNED,
+  OVERDUE
+}
@@ -0,0 +1,22 @@
+package com.ilhanozkan.libraryManagementSystem.model.enums;
+
+public enum ReportFormat {
+  TEXT("text/plain;charset=UTF-8", ".txt"),
+  PDF("application/pdf", ".pdf");
+
+  private final String contentType;
+  private final String extension;
+
+  ReportFormat(String contentType, String extension) {
+    this.contentType = contentType;
+    this.extension = extension;
+  }
+
+  public String getContentType() {
+    return contentType;
+  }
+
+  public String getExtension() {
+    return extension;
+  }
+}
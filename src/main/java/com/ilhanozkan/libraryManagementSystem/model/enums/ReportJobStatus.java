@@ -0,0 +1,8 @@
+package com.ilhanozkan.libraryManagementSystem.model.enums;
+
+public enum ReportJobStatus {
+  QUEUED,
+  RUNNING,
+  COMPLETED,
+  FAILED
+}
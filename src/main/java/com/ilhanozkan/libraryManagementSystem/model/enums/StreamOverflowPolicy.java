@@ -0,0 +1,13 @@
+package com.ilhanozkan.libraryManagementSystem.model.enums;
+
+/**
+ * What a slow stream subscriber loses once its buffer is full
+ */
+public enum StreamOverflowPolicy {
+  // Keep the buffered events and discard the new one
+  DROP_LATEST,
+  // Discard the oldest buffered event to make room
+  DROP_OLDEST,
+  // Keep only the newest event per book; other books are dropped oldest first only when the buffer still overflows
+  COALESCE
+}
@@ -0,0 +1,24 @@
+package com.ilhanozkan.libraryManagementSystem.repository;
+
+import com.ilhanozkan.libraryManagementSystem.model.entity.AvailabilityEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface AvailabilityEventRepository extends JpaRepository<AvailabilityEvent, Long>, AvailabilityEventRepositoryCustom {
+  // Replay reads the log in offset order, one batch past the last offset at a time; events without one are not committed yet
+  List<AvailabilityEvent> findByStreamOffsetGreaterThanOrderByStreamOffset(long streamOffset, Limit limit);
+
+  // Committed events whose offset was never assigned, e.g. because the instance that wrote them stopped right after commit
+  List<AvailabilityEvent> findByStreamOffsetIsNullAndTimestampLessThanOrderBySeq(long timestamp, Limit limit);
+
+  @Transactional
+  @Modifying
+  @Query("DELETE FROM AvailabilityEvent e WHERE e.timestamp < :timestamp")
+  int deleteOlderThan(@Param("timestamp") long timestamp);
+}
@@ -0,0 +1,18 @@
+package com.ilhanozkan.libraryManagementSystem.repository;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Hands out stream offsets once events have committed. Sequence numbers are taken at insert, and a transaction
+ * holding a lower one can commit after one holding a higher one; offsets are taken after commit instead, under the
+ * lock of a single counter row that is only released when they commit, so they become visible in offset order.
+ */
+public interface AvailabilityEventRepositoryCustom {
+  /**
+   * Gives the events that have no offset yet the next offsets, in sequence order
+   * @param seqs Sequence numbers of committed events
+   * @return Offset of each event that is still in the log, including ones that already had one
+   */
+  Map<Long, Long> assignOffsets(Collection<Long> seqs);
+}
@@ -0,0 +1,53 @@
+package com.ilhanozkan.libraryManagementSystem.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class AvailabilityEventRepositoryCustomImpl implements AvailabilityEventRepositoryCustom {
+  private final EntityManager entityManager;
+
+  @Transactional
+  @SuppressWarnings("unchecked")
+  public Map<Long, Long> assignOffsets(Collection<Long> seqs) {
+    Map<Long, Long> offsets = new HashMap<>();
+    if (seqs.isEmpty())
+      return offsets;
+
+    // Held until commit, so whoever assigns next only starts once these offsets are visible
+    long lastOffset = ((Number) entityManager
+        .createNativeQuery("SELECT last_offset FROM availability_event_offsets WHERE id = 1 FOR UPDATE")
+        .getSingleResult()).longValue();
+
+    List<Object[]> rows = entityManager
+        .createNativeQuery("SELECT seq, stream_offset FROM availability_events WHERE seq IN (:seqs) ORDER BY seq")
+        .setParameter("seqs", seqs)
+        .getResultList();
+    long assigned = lastOffset;
+    for (Object[] row : rows) {
+      long seq = ((Number) row[0]).longValue();
+      if (row[1] != null) {
+        offsets.put(seq, ((Number) row[1]).longValue());
+        continue;
+      }
+      assigned++;
+      entityManager.createNativeQuery("UPDATE availability_events SET stream_offset = :offset WHERE seq = :seq")
+          .setParameter("offset", assigned)
+          .setParameter("seq", seq)
+          .executeUpdate();
+      offsets.put(seq, assigned);
+    }
+
+    if (assigned != lastOffset)
+      entityManager.createNativeQuery("UPDATE availability_event_offsets SET last_offset = :offset WHERE id = 1")
+          .setParameter("offset", assigned)
+          .executeUpdate();
+    return offsets;
+  }
+}
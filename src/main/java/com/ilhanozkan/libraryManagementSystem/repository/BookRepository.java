@@ -1,15 +1,17 @@
 package com.ilhanozkan.libraryManagementSystem.repository;
 
 import com.ilhanozkan.libraryManagementSystem.model.entity.Book;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
-public interface BookRepository extends JpaRepository<Book, UUID> {
+public interface BookRepository extends JpaRepository<Book, UUID>, BookRepositoryCustom {
   @Query(value = "SELECT * FROM books b WHERE " +
          "(:title IS NULL OR b.name ILIKE CONCAT('%', :title, '%')) AND " +
          "(:author IS NULL OR b.author ILIKE CONCAT('%', :author, '%')) AND " +
@@ -20,6 +22,50 @@ public interface BookRepository extends JpaRepository<Book, UUID> {
                          @Param("author") String author,
                          @Param("isbn") String isbn,
                          @Param("genre") String genre, Pageable pageable);
+
+  @Query(value = "SELECT COUNT(*) FROM books b WHERE " +
+         "(:title IS NULL OR b.name ILIKE CONCAT('%', :title, '%')) AND " +
+         "(:author IS NULL OR b.author ILIKE CONCAT('%', :author, '%')) AND " +
+         "(:isbn IS NULL OR b.isbn ILIKE CONCAT('%', :isbn, '%')) AND " +
+         "(:genre IS NULL OR CAST(b.genre AS INTEGER) = CAST(:genre AS INTEGER))",
+         nativeQuery = true)
+  long countSearchBooks(@Param("title") String title,
+                        @Param("author") String author,
+                        @Param("isbn") String isbn,
+                        @Param("genre") String genre);
   
+  // PostgreSQL only: title uses the search_vector GIN index, author and ISBN use pg_trgm indexes
+  @Query(value = "SELECT * FROM books b WHERE " +
+         "(CAST(:titleQuery AS text) IS NULL OR b.search_vector @@ to_tsquery('simple', :titleQuery)) AND " +
+         "(CAST(:author AS text) IS NULL OR b.author ILIKE CONCAT('%', :author, '%')) AND " +
+         "(CAST(:isbn AS text) IS NULL OR b.isbn ILIKE CONCAT('%', :isbn, '%')) AND " +
+         "(CAST(:genre AS text) IS NULL OR b.genre = CAST(:genre AS INTEGER)) " +
+         "ORDER BY ts_rank(b.search_vector, to_tsquery('simple', COALESCE(:titleQuery, ''))) DESC, b.name",
+         nativeQuery = true)
+  List<Book> fullTextSearchBooks(@Param("titleQuery") String titleQuery,
+                                 @Param("author") String author,
+                                 @Param("isbn") String isbn,
+                                 @Param("genre") String genre, Pageable pageable);
+
+  @Query(value = "SELECT COUNT(*) FROM books b WHERE " +
+         "(CAST(:titleQuery AS text) IS NULL OR b.search_vector @@ to_tsquery('simple', :titleQuery)) AND " +
+         "(CAST(:author AS text) IS NULL OR b.author ILIKE CONCAT('%', :author, '%')) AND " +
+         "(CAST(:isbn AS text) IS NULL OR b.isbn ILIKE CONCAT('%', :isbn, '%')) AND " +
+         "(CAST(:genre AS text) IS NULL OR b.genre = CAST(:genre AS INTEGER))",
+         nativeQuery = true)
+  long countFullTextSearchBooks(@Param("titleQuery") String titleQuery,
+                                @Param("author") String author,
+                                @Param("isbn") String isbn,
+                                @Param("genre") String genre);
+
   Book findByIsbn(String isbn);
+
+  List<Book> findByIsbnIn(Collection<String> isbns);
+
+  // Keyset pages seek past the last (name, id) on idx_books_name_id instead of skipping rows
+  @Query("SELECT b FROM Book b ORDER BY b.name, b.id")
+  List<Book> findFirstByKeyset(Limit limit);
+
+  @Query("SELECT b FROM Book b WHERE (b.name, b.id) > (:name, :id) ORDER BY b.name, b.id")
+  List<Book> findAfterByKeyset(@Param("name") String name, @Param("id") UUID id, Limit limit);
 }
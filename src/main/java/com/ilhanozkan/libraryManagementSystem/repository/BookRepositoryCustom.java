@@ -0,0 +1,54 @@
+package com.ilhanozkan.libraryManagementSystem.repository;
+
+import com.ilhanozkan.libraryManagementSystem.model.entity.Book;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Book queries that have to work with the second-level cache: inventory counters are adjusted with
+ * conditional updates that drop only the cached entry of the book they touch, and ISBN lookups go
+ * through the natural-id cache.
+ */
+public interface BookRepositoryCustom {
+  // Atomically takes one copy off the shelf; returns 0 when the book is missing or no copy is left
+  int reserveCopy(UUID id);
+
+  // Atomically puts one copy back; returns 0 when the book is missing or every copy is already on the shelf
+  int releaseCopy(UUID id);
+
+  // Set-based form of reserveCopy for bulk checkouts: takes count copies at once or none at all
+  int reserveCopies(UUID id, int count);
+
+  // Set-based form of releaseCopy for bulk returns; never puts more copies on the shelf than the book has
+  int releaseCopies(UUID id, int count);
+
+  /**
+   * Loads a book by ISBN, resolving the id from the natural-id cache and the book from the entity cache
+   * @param isbn ISBN-13 of the book
+   * @return The book, or empty when no book has the ISBN
+   */
+  Optional<Book> findByNaturalId(String isbn);
+
+  /**
+   * Number of cached books this instance dropped because an inventory update changed their row; updates
+   * of books that were not cached are not counted
+   * @return Evictions since startup
+   */
+  long countCacheEvictions();
+
+  /**
+   * Moves the catalog version on, in a transaction of its own so its row is locked only for this update
+   */
+  void advanceCatalogVersion();
+
+  /**
+   * Version of the whole catalog as every instance sees it
+   * @return The version and when it last moved
+   */
+  CatalogStamp findCatalogStamp();
+
+  // changedAt is in epoch milliseconds
+  record CatalogStamp(long version, long changedAt) {
+  }
+}
@@ -0,0 +1,119 @@
+package com.ilhanozkan.libraryManagementSystem.repository;
+
+import com.ilhanozkan.libraryManagementSystem.model.entity.Book;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+@RequiredArgsConstructor
+public class BookRepositoryCustomImpl implements BookRepositoryCustom {
+  // Declared so Hibernate does not treat the inventory updates as touching every cached table; the one book
+  // they change is evicted by evictCachedBook instead of clearing the whole books region on each checkout
+  private static final String INVENTORY_QUERY_SPACE = "book_inventory";
+
+  private final EntityManager entityManager;
+  private final AtomicLong evictions = new AtomicLong();
+
+  @Transactional
+  public int reserveCopy(UUID id) {
+    return updateInventory(id, "UPDATE books SET available_quantity = available_quantity - 1, version = version + 1, " +
+                               "updated_at = :now WHERE id = :id AND available_quantity > 0", null);
+  }
+
+  @Transactional
+  public int releaseCopy(UUID id) {
+    return updateInventory(id, "UPDATE books SET available_quantity = available_quantity + 1, version = version + 1, " +
+                               "updated_at = :now WHERE id = :id AND available_quantity < quantity", null);
+  }
+
+  @Transactional
+  public int reserveCopies(UUID id, int count) {
+    return updateInventory(id, "UPDATE books SET available_quantity = available_quantity - :count, version = version + 1, " +
+                               "updated_at = :now WHERE id = :id AND available_quantity >= :count", count);
+  }
+
+  @Transactional
+  public int releaseCopies(UUID id, int count) {
+    return updateInventory(id, "UPDATE books SET available_quantity = LEAST(available_quantity + :count, quantity), " +
+                               "version = version + 1, updated_at = :now WHERE id = :id AND available_quantity < quantity", count);
+  }
+
+  @Transactional(readOnly = true)
+  public Optional<Book> findByNaturalId(String isbn) {
+    return entityManager.unwrap(Session.class).bySimpleNaturalId(Book.class).loadOptional(isbn);
+  }
+
+  public long countCacheEvictions() {
+    return evictions.get();
+  }
+
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public void advanceCatalogVersion() {
+    // Never moves Last-Modified backwards when instance clocks disagree
+    entityManager.createNativeQuery("UPDATE book_catalog_version SET version = version + 1, " +
+                                    "changed_at = GREATEST(changed_at, :now) WHERE id = 1")
+        .setParameter("now", System.currentTimeMillis())
+        .executeUpdate();
+  }
+
+  @Transactional(readOnly = true)
+  public CatalogStamp findCatalogStamp() {
+    Object[] row = (Object[]) entityManager
+        .createNativeQuery("SELECT version, changed_at FROM book_catalog_version WHERE id = 1")
+        .getSingleResult();
+    return new CatalogStamp(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+  }
+
+  private int updateInventory(UUID id, String sql, Integer count) {
+    // Pending changes go out first and the persistence context is cleared after, as with a bulk JPQL update
+    entityManager.flush();
+    evictCachedBook(id);
+
+    NativeQuery<?> update = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class)
+        .addSynchronizedQuerySpace(INVENTORY_QUERY_SPACE)
+        .setParameter("id", id)
+        .setParameter("now", LocalDateTime.now());
+    if (count != null)
+      update.setParameter("count", count);
+    int updated = update.executeUpdate();
+
+    entityManager.clear();
+    return updated;
+  }
+
+  /**
+   * Drops the cached entry of a book now and again when the transaction ends, so a load that ran in between
+   * cannot leave the old counters behind on this instance. Other instances are not told: their entry lives
+   * until the books region expires it, which is why that region keeps entries for seconds only.
+   */
+  private void evictCachedBook(UUID id) {
+    Cache cache = entityManager.getEntityManagerFactory().getCache();
+    evict(cache, id);
+    if (TransactionSynchronizationManager.isSynchronizationActive())
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          evict(cache, id);
+        }
+      });
+  }
+
+  // Counts only entries that were actually cached, not every inventory update
+  private void evict(Cache cache, UUID id) {
+    if (!cache.contains(Book.class, id))
+      return;
+    cache.evict(Book.class, id);
+    evictions.incrementAndGet();
+  }
+}
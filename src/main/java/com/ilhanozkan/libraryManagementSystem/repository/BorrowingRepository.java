@@ -1,20 +1,68 @@
 package com.ilhanozkan.libraryManagementSystem.repository;
 
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.BorrowingResponseDTO;
 import com.ilhanozkan.libraryManagementSystem.model.entity.Borrowing;
 import com.ilhanozkan.libraryManagementSystem.model.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+public interface BorrowingRepository extends JpaRepository<Borrowing, UUID>, BorrowingRepositoryCustom {
+  int EXPORT_FETCH_SIZE = 1000;
+
+  // Reads only the columns BorrowingResponseDTO needs, joining book and user in the same statement
+  String VIEW =
+      "SELECT new com.ilhanozkan.libraryManagementSystem.model.dto.response.BorrowingResponseDTO(" +
+      "b.id, b.borrowDate, b.dueDate, b.returnDate, b.returned, " +
+      "bk.id, bk.name, bk.isbn, bk.author, bk.publisher, bk.numberOfPages, bk.quantity, bk.availableQuantity, bk.genre, " +
+      "u.id, u.username, u.email, u.name, u.surname, u.role, u.status) " +
+      "FROM Borrowing b JOIN b.book bk JOIN b.user u ";
 
-public interface BorrowingRepository extends JpaRepository<Borrowing, UUID> {
   List<Borrowing> findByUserAndReturnedFalse(User user);
   List<Borrowing> findByUser(User user);
 
+  // Loads a batch of borrowings with their book and user in one statement
+  @Query("SELECT b FROM Borrowing b JOIN FETCH b.book JOIN FETCH b.user WHERE b.id IN :ids")
+  List<Borrowing> findAllWithBookAndUserByIdIn(@Param("ids") Collection<UUID> ids);
+
   // Find all borrowings that are not returned and are overdue
   @Query(
       value = "SELECT b FROM Borrowing b WHERE b.returned = false AND b.dueDate < CURRENT_DATE"
   )
   List<Borrowing> findOverdueBooks();
+
+  // A user's borrowings, optionally only those with the given returned flag, newest first
+  @Query(VIEW + "WHERE u.id = :userId AND (:returned IS NULL OR b.returned = :returned) " +
+         "ORDER BY b.borrowDate DESC, b.id")
+  List<BorrowingResponseDTO> findViewsByUserId(@Param("userId") UUID userId, @Param("returned") Boolean returned);
+
+  @Query(VIEW + "WHERE b.returned = false AND b.dueDate < CURRENT_DATE ORDER BY b.dueDate, b.id")
+  List<BorrowingResponseDTO> findOverdueViews();
+
+  // Forward-only cursor over the borrowings overdue before the cutoff, in report order
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+  @Query(VIEW + "WHERE b.returned = false AND b.dueDate < :dueBefore ORDER BY b.dueDate, b.id")
+  Stream<BorrowingResponseDTO> streamOverdueViews(@Param("dueBefore") LocalDateTime dueBefore);
+
+  @Query(VIEW + "WHERE b.id IN :ids ORDER BY b.dueDate, b.id")
+  List<BorrowingResponseDTO> findViewsByIdIn(@Param("ids") Collection<UUID> ids);
+
+  long countByReturnedFalse();
+
+  // Unreturned borrowings due before the cutoff, read off idx_borrowings_overdue
+  @Query("SELECT b.id FROM Borrowing b WHERE b.returned = false AND b.dueDate < :to")
+  List<UUID> findOverdueIds(@Param("to") LocalDateTime to);
+
+  // Unreturned borrowings whose due date falls in [from, to), the slice a sweep adds to the overdue set
+  @Query("SELECT b.id FROM Borrowing b WHERE b.returned = false AND b.dueDate >= :from AND b.dueDate < :to")
+  List<UUID> findOverdueIdsDueBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
@@ -0,0 +1,42 @@
+package com.ilhanozkan.libraryManagementSystem.repository;
+
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.BorrowingResponseDTO;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Borrowing listings with optional filters. The statement is assembled from the filters actually given, so each
+ * combination gets a plan of its own that can use the matching index instead of a generic catch-all plan.
+ * Every filter is optional; a null one is left out of the WHERE clause.
+ */
+public interface BorrowingRepositoryCustom {
+  /**
+   * Keyset page of borrowings in (borrowDate, id) order, seeking past (afterBorrowDate, afterId) on
+   * idx_borrowings_borrow_date_id instead of skipping rows
+   * @param returned Only returned or only unreturned borrowings
+   * @param dueBefore Only borrowings due before this time
+   * @param userId Only borrowings of this user
+   * @param bookId Only borrowings of this book
+   * @param borrowedFrom Only borrowings made at or after this time
+   * @param borrowedTo Only borrowings made before this time
+   * @param afterBorrowDate Borrow date of the last row of the previous page; null for the first page
+   * @param afterId ID of the last row of the previous page
+   * @param limit Maximum number of rows
+   * @return The page of borrowings
+   */
+  List<BorrowingResponseDTO> findPage(Boolean returned, LocalDateTime dueBefore, UUID userId, UUID bookId,
+                                      LocalDateTime borrowedFrom, LocalDateTime borrowedTo,
+                                      LocalDateTime afterBorrowDate, UUID afterId, Limit limit);
+
+  /**
+   * Forward-only JDBC cursor over the matching borrowings in (borrowDate, id) order, for exports; rows are
+   * fetched in chunks of EXPORT_FETCH_SIZE and never held as a whole. Must be consumed inside a transaction
+   * @return Stream of borrowings, to be closed by the caller
+   */
+  Stream<BorrowingResponseDTO> streamForExport(Boolean returned, LocalDateTime dueBefore, UUID userId, UUID bookId,
+                                               LocalDateTime borrowedFrom, LocalDateTime borrowedTo);
+}
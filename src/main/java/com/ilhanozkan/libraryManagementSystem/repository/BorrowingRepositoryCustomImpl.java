@@ -0,0 +1,77 @@
+package com.ilhanozkan.libraryManagementSystem.repository;
+
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.BorrowingResponseDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class BorrowingRepositoryCustomImpl implements BorrowingRepositoryCustom {
+  private static final String ORDER = "ORDER BY b.borrowDate, b.id";
+
+  private final EntityManager entityManager;
+
+  @Transactional(readOnly = true)
+  public List<BorrowingResponseDTO> findPage(Boolean returned, LocalDateTime dueBefore, UUID userId, UUID bookId,
+                                             LocalDateTime borrowedFrom, LocalDateTime borrowedTo,
+                                             LocalDateTime afterBorrowDate, UUID afterId, Limit limit) {
+    Filter filter = new Filter(returned, dueBefore, userId, bookId, borrowedFrom, borrowedTo);
+    if (afterBorrowDate != null) {
+      // JPQL rather than Criteria: the row-value comparison is what lets the seek run as one index range scan
+      filter.add("(b.borrowDate, b.id) > (:afterBorrowDate, :afterId)", "afterBorrowDate", afterBorrowDate);
+      filter.parameters.put("afterId", afterId);
+    }
+
+    TypedQuery<BorrowingResponseDTO> query = filter.createQuery();
+    if (limit.isLimited())
+      query.setMaxResults(limit.max());
+    return query.getResultList();
+  }
+
+  public Stream<BorrowingResponseDTO> streamForExport(Boolean returned, LocalDateTime dueBefore, UUID userId, UUID bookId,
+                                                     LocalDateTime borrowedFrom, LocalDateTime borrowedTo) {
+    return new Filter(returned, dueBefore, userId, bookId, borrowedFrom, borrowedTo).createQuery()
+        .setHint(HibernateHints.HINT_FETCH_SIZE, BorrowingRepository.EXPORT_FETCH_SIZE)
+        .getResultStream();
+  }
+
+  // WHERE clause and parameters for the filters that were given
+  private class Filter {
+    private final StringBuilder where = new StringBuilder();
+    private final Map<String, Object> parameters = new LinkedHashMap<>();
+
+    private Filter(Boolean returned, LocalDateTime dueBefore, UUID userId, UUID bookId,
+                   LocalDateTime borrowedFrom, LocalDateTime borrowedTo) {
+      add("b.returned = :returned", "returned", returned);
+      add("b.dueDate < :dueBefore", "dueBefore", dueBefore);
+      add("u.id = :userId", "userId", userId);
+      add("bk.id = :bookId", "bookId", bookId);
+      add("b.borrowDate >= :borrowedFrom", "borrowedFrom", borrowedFrom);
+      add("b.borrowDate < :borrowedTo", "borrowedTo", borrowedTo);
+    }
+
+    private void add(String condition, String name, Object value) {
+      if (value == null)
+        return;
+      where.append(where.isEmpty() ? "WHERE " : "AND ").append(condition).append(' ');
+      parameters.put(name, value);
+    }
+
+    private TypedQuery<BorrowingResponseDTO> createQuery() {
+      TypedQuery<BorrowingResponseDTO> query =
+          entityManager.createQuery(BorrowingRepository.VIEW + where + ORDER, BorrowingResponseDTO.class);
+      parameters.forEach(query::setParameter);
+      return query;
+    }
+  }
+}
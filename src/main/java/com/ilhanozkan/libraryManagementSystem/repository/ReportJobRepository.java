@@ -0,0 +1,24 @@
+package com.ilhanozkan.libraryManagementSystem.repository;
+
+import com.ilhanozkan.libraryManagementSystem.model.entity.ReportJob;
+import com.ilhanozkan.libraryManagementSystem.model.enums.ReportFormat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ReportJobRepository extends JpaRepository<ReportJob, UUID> {
+  // Read off idx_report_jobs_format_created_at
+  Optional<ReportJob> findFirstByFormatOrderByCreatedAtDesc(ReportFormat format);
+
+  // Jobs that never finished, e.g. on an instance that went away, expire from their creation
+  @Transactional
+  @Modifying
+  @Query("DELETE FROM ReportJob j WHERE COALESCE(j.completedAt, j.createdAt) < :expiredBefore")
+  int deleteExpired(@Param("expiredBefore") LocalDateTime expiredBefore);
+}
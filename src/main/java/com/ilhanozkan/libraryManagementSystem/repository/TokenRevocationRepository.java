@@ -0,0 +1,21 @@
+package com.ilhanozkan.libraryManagementSystem.repository;
+
+import com.ilhanozkan.libraryManagementSystem.model.entity.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, UUID> {
+  // Revocations made at or after the given time, read off idx_token_revocations_revoked_at
+  List<TokenRevocation> findByRevokedAtGreaterThanEqual(long revokedAt);
+
+  @Transactional
+  @Modifying
+  @Query("DELETE FROM TokenRevocation r WHERE r.revokedAt <= :revokedAt")
+  int deleteRevokedUpTo(@Param("revokedAt") long revokedAt);
+}
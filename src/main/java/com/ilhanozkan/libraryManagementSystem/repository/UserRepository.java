@@ -1,8 +1,12 @@
 package com.ilhanozkan.libraryManagementSystem.repository;
 
 import com.ilhanozkan.libraryManagementSystem.model.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -16,4 +20,11 @@ public interface UserRepository extends JpaRepository<User, UUID> {
   User findByUsername(String username);
 
   Optional<User> findByEmail(String email);
+
+  // Keyset pages seek past the last (username, id) on the unique username index instead of skipping rows
+  @Query("SELECT u FROM User u ORDER BY u.username, u.id")
+  List<User> findFirstByKeyset(Limit limit);
+
+  @Query("SELECT u FROM User u WHERE (u.username, u.id) > (:username, :id) ORDER BY u.username, u.id")
+  List<User> findAfterByKeyset(@Param("username") String username, @Param("id") UUID id, Limit limit);
 }
@@ -1,11 +1,16 @@
 package com.ilhanozkan.libraryManagementSystem.security;
 
+import com.ilhanozkan.libraryManagementSystem.model.entity.User;
+import com.ilhanozkan.libraryManagementSystem.model.entity.UserPrincipal;
+import com.ilhanozkan.libraryManagementSystem.model.enums.UserRole;
+import com.ilhanozkan.libraryManagementSystem.model.enums.UserStatus;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -15,16 +20,25 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.UUID;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
   private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
   private final JwtService jwtService;
   private final UserDetailsService userDetailsService;
+  private final PrincipalCache principalCache;
+  private final TokenRevocationList tokenRevocationList;
+  private final boolean statelessPrincipal;
 
-  public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+  public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService,
+                                 PrincipalCache principalCache, TokenRevocationList tokenRevocationList,
+                                 @Value("${library.security.stateless-principal:false}") boolean statelessPrincipal) {
     this.jwtService = jwtService;
     this.userDetailsService = userDetailsService;
+    this.principalCache = principalCache;
+    this.tokenRevocationList = tokenRevocationList;
+    this.statelessPrincipal = statelessPrincipal;
   }
 
   @Override
@@ -35,12 +49,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
       String token = authorizationHeader.substring(7);
       
       try {
-        String username = jwtService.extractUsername(token);
+        // The only parse and signature check for this request
+        VerifiedToken verified = jwtService.verify(token);
+        String username = verified.username();
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-          UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+          // Tokens issued before user claims existed still go through the user lookup
+          UserDetails userDetails = statelessPrincipal && verified.userId() != null
+              ? principalFromClaims(verified)
+              : principalFromCache(verified);
 
-          if (jwtService.validateToken(token, userDetails)) {
+          if (userDetails != null && jwtService.isValidFor(verified, userDetails)) {
             UsernamePasswordAuthenticationToken authentication =
                 new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
 
@@ -57,4 +76,46 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     }
     chain.doFilter(request, response);
   }
+
+  /**
+   * Returns the cached principal of the token's user. The cache only sees changes made on this instance, so tokens
+   * issued before a revocation, made here or read from another instance, are rejected as in stateless mode
+   * @param verified Verified token
+   * @return Cached or loaded principal, or null when the token is not accepted
+   */
+  private UserDetails principalFromCache(VerifiedToken verified) {
+    UserDetails userDetails = principalCache.get(verified.username(), verified.issuedAt(), userDetailsService::loadUserByUsername);
+    // Tokens from before user claims carry no id, the loaded user still has one
+    UUID userId = verified.userId() != null ? verified.userId()
+        : userDetails instanceof UserPrincipal principal ? principal.getUser().getId() : null;
+    if (tokenRevocationList.isRevoked(userId, verified.issuedAt())) {
+      logger.warn("Rejected revoked token for user: {}", verified.username());
+      return null;
+    }
+    return userDetails;
+  }
+
+  /**
+   * Builds the principal from token claims alone; the user is not loaded, so revoked and inactive users are rejected here
+   * @param verified Verified token carrying user claims
+   * @return Principal holding a detached user with id, username, role and status, or null when the token is not accepted
+   */
+  private UserDetails principalFromClaims(VerifiedToken verified) {
+    if (tokenRevocationList.isRevoked(verified.userId(), verified.issuedAt())) {
+      logger.warn("Rejected revoked token for user: {}", verified.username());
+      return null;
+    }
+    if (verified.roles().isEmpty() || !UserStatus.ACTIVE.name().equals(verified.status())) {
+      logger.warn("Rejected token without an active role for user: {}", verified.username());
+      return null;
+    }
+
+    User user = User.builder()
+        .id(verified.userId())
+        .username(verified.username())
+        .role(UserRole.valueOf(verified.roles().get(0)))
+        .status(UserStatus.ACTIVE)
+        .build();
+    return new UserPrincipal(user);
+  }
 }
@@ -1,8 +1,10 @@
 package com.ilhanozkan.libraryManagementSystem.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import com.ilhanozkan.libraryManagementSystem.model.entity.User;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -12,30 +14,56 @@ import org.springframework.stereotype.Service;
 import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
   private static final Logger logger = LoggerFactory.getLogger(JwtService.class);
-  
-  @Value("${jwt.secret}")
-  private String secretKey;
-  @Value("${jwt.expiration}")
-  private long jwtExpiration;
+  static final String USER_ID_CLAIM = "uid";
+  static final String ROLES_CLAIM = "roles";
+  static final String STATUS_CLAIM = "status";
+
+  private final long jwtExpiration;
+  // Both are immutable and thread-safe, so they are built once instead of per call
+  private final SecretKey secretKey;
+  private final JwtParser parser;
+
+  public JwtService(@Value("${jwt.secret}") String secret, @Value("${jwt.expiration}") long jwtExpiration) {
+    this.jwtExpiration = jwtExpiration;
+    this.secretKey = Keys.hmacShaKeyFor(secret.getBytes());
+    this.parser = Jwts.parser().verifyWith(secretKey).build();
+  }
 
   public SecretKey getSecretKey() {
-    return Keys.hmacShaKeyFor(secretKey.getBytes());
+    return secretKey;
+  }
+
+  /**
+   * Parses a token once, checking its signature and expiry
+   * @param token Compact JWT
+   * @return Claims needed to authenticate the request
+   * @throws io.jsonwebtoken.JwtException When the token is malformed, tampered with or expired
+   */
+  public VerifiedToken verify(String token) {
+    Claims claims = extractAllClaims(token);
+    List<?> roles = claims.get(ROLES_CLAIM, List.class);
+    String userId = claims.get(USER_ID_CLAIM, String.class);
+    return new VerifiedToken(
+        claims.getSubject(),
+        userId == null ? null : UUID.fromString(userId),
+        claims.getIssuedAt(),
+        claims.getExpiration(),
+        roles == null ? List.of() : roles.stream().map(String::valueOf).toList(),
+        claims.get(STATUS_CLAIM, String.class)
+    );
   }
 
   public Claims extractAllClaims(String token) {
     try {
-      return Jwts
-          .parser()
-          .verifyWith(getSecretKey())
-          .build()
-          .parseSignedClaims(token)
-          .getPayload();
+      return parser.parseSignedClaims(token).getPayload();
     } catch (Exception e) {
       logger.error("Error extracting claims from token: {}", e.getMessage(), e);
       throw e;
@@ -66,16 +94,41 @@ public class JwtService {
 
   public boolean validateToken(String token, UserDetails userDetails) {
     try {
-      final String username = extractUsername(token);
-      return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+      return isValidFor(verify(token), userDetails);
     } catch (RuntimeException e) {
       logger.error("Token validation failed: {}", e.getMessage(), e);
       throw new RuntimeException(e);
     }
   }
 
+  /**
+   * Checks a verified token against a user without parsing it again
+   * @param token Token returned by {@link #verify(String)}
+   * @param userDetails User the token should belong to
+   * @return True when the token was issued for the user and has not expired
+   */
+  public boolean isValidFor(VerifiedToken token, UserDetails userDetails) {
+    return userDetails.getUsername().equals(token.username()) && token.expiresAt().after(new Date());
+  }
+
   public String generateToken(String username) {
+    return buildToken(username, new HashMap<>());
+  }
+
+  /**
+   * Issues a token that also carries the user's id, role and status, enough to authorize without loading the user
+   * @param user Authenticated user
+   * @return Signed token
+   */
+  public String generateTokenFor(User user) {
     Map<String, Object> claims = new HashMap<>();
+    claims.put(USER_ID_CLAIM, user.getId().toString());
+    claims.put(ROLES_CLAIM, List.of(user.getRole().name()));
+    claims.put(STATUS_CLAIM, user.getStatus().name());
+    return buildToken(user.getUsername(), claims);
+  }
+
+  private String buildToken(String username, Map<String, Object> claims) {
     return Jwts
         .builder()
         .claims()
@@ -84,7 +137,7 @@ public class JwtService {
         .issuedAt(new Date(System.currentTimeMillis()))
         .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
         .and()
-        .signWith(getSecretKey())
+        .signWith(secretKey)
         .compact();
   }
 }
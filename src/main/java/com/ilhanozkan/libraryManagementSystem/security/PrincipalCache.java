@@ -0,0 +1,93 @@
+package com.ilhanozkan.libraryManagementSystem.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Authenticated principals by username, so a request carrying a valid token does not have to load its user.
+ * Entries expire after a TTL and the cache never grows past its maximum size; user changes evict their entry,
+ * and a token issued after an entry was loaded (a new login) always reloads it. Evictions are local: other instances
+ * reject the user's older tokens through {@link TokenRevocationList} instead of waiting for the TTL.
+ */
+@Component
+public class PrincipalCache {
+  private static final Logger logger = LoggerFactory.getLogger(PrincipalCache.class);
+
+  private final long ttlMillis;
+  private final int maxSize;
+  private final Map<String, CachedPrincipal> principals = new ConcurrentHashMap<>();
+
+  private record CachedPrincipal(UserDetails userDetails, long loadedAt, long expiresAt) {
+  }
+
+  public PrincipalCache(@Value("${library.security.principal-cache.ttl:5m}") Duration ttl,
+                        @Value("${library.security.principal-cache.max-size:10000}") int maxSize) {
+    this.ttlMillis = ttl.toMillis();
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Returns the cached principal of a user, loading and caching it when missing or expired
+   * @param username Username from a verified token
+   * @param issuedAt Issue time of the token, or null when it has none
+   * @param loader Loads the principal from the database
+   * @return Principal of the user
+   */
+  public UserDetails get(String username, Date issuedAt, Function<String, UserDetails> loader) {
+    long now = System.currentTimeMillis();
+    CachedPrincipal cached = principals.get(username);
+    if (cached != null && cached.expiresAt() > now && loadedAfter(cached, issuedAt))
+      return cached.userDetails();
+
+    UserDetails userDetails = loader.apply(username);
+    if (principals.size() >= maxSize) {
+      principals.values().removeIf(entry -> entry.expiresAt() <= now);
+      // Still full of live entries: start over rather than track recency on the hot path
+      if (principals.size() >= maxSize)
+        principals.clear();
+    }
+    principals.put(username, new CachedPrincipal(userDetails, now, now + ttlMillis));
+    return userDetails;
+  }
+
+  /**
+   * Drops the cached principal of a user. Inside a transaction the entry is dropped again after commit,
+   * so a request that reloaded it in the meantime cannot keep the state from before the change.
+   * @param username Username whose principal changed
+   */
+  public void evict(String username) {
+    if (username == null)
+      return;
+
+    principals.remove(username);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          principals.remove(username);
+        }
+      });
+    }
+    logger.debug("Evicted cached principal for user: {}", username);
+  }
+
+  // Issue times have second precision, so only a load after that whole second is known to be newer
+  private static boolean loadedAfter(CachedPrincipal cached, Date issuedAt) {
+    return issuedAt == null || cached.loadedAt() >= issuedAt.getTime() + 1000;
+  }
+
+  int size() {
+    return principals.size();
+  }
+}
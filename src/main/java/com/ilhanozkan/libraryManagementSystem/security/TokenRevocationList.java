@@ -0,0 +1,97 @@
+package com.ilhanozkan.libraryManagementSystem.security;
+
+import com.ilhanozkan.libraryManagementSystem.model.entity.TokenRevocation;
+import com.ilhanozkan.libraryManagementSystem.repository.TokenRevocationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Users whose tokens must stop working before they expire, e.g. after deactivation or a role change.
+ * Stateless principals are never checked against the database, and cached principals only see changes made on
+ * their own instance, so this is what rejects their older tokens.
+ * Revocations are stored in token_revocations and held in memory for the per-request check: they are loaded
+ * before the server takes requests, so they survive a restart, and read again every refresh interval, so a
+ * revocation made on another instance applies here within that interval. An entry only needs to outlive the
+ * tokens issued before it, so it is dropped after one token lifetime.
+ */
+@Component
+public class TokenRevocationList implements SmartInitializingSingleton {
+  private static final Logger logger = LoggerFactory.getLogger(TokenRevocationList.class);
+
+  private final TokenRevocationRepository tokenRevocationRepository;
+  private final long retentionMillis;
+  private final Map<UUID, Long> revokedAt = new ConcurrentHashMap<>();
+
+  public TokenRevocationList(TokenRevocationRepository tokenRevocationRepository,
+                             @Value("${jwt.expiration}") long jwtExpiration) {
+    this.tokenRevocationRepository = tokenRevocationRepository;
+    this.retentionMillis = jwtExpiration;
+  }
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    refresh();
+    logger.info("Loaded {} token revocations", revokedAt.size());
+  }
+
+  /**
+   * Rejects every token of a user issued up to now, on this instance at once and on the others from their next refresh.
+   * A revocation whose transaction rolls back still applies here until it expires, which only costs a new login
+   * @param userId ID of the user whose tokens are revoked
+   */
+  public void revoke(UUID userId) {
+    if (userId == null)
+      return;
+
+    long now = System.currentTimeMillis();
+    tokenRevocationRepository.save(new TokenRevocation(userId, now));
+    revokedAt.merge(userId, now, Math::max);
+    logger.info("Revoked tokens issued so far for user: {}", userId);
+  }
+
+  /**
+   * Checks whether a token was issued before its user was revoked
+   * @param userId User ID claim of the token
+   * @param issuedAt Issue time of the token, or null when it has none
+   * @return True when the token must be rejected
+   */
+  public boolean isRevoked(UUID userId, Date issuedAt) {
+    Long at = userId != null ? revokedAt.get(userId) : null;
+    if (at == null)
+      return false;
+
+    if (at + retentionMillis <= System.currentTimeMillis()) {
+      revokedAt.remove(userId, at);
+      return false;
+    }
+    // Issue times have second precision, so a token from the revoking second counts as older
+    return issuedAt == null || issuedAt.getTime() / 1000 <= at / 1000;
+  }
+
+  /**
+   * Prunes expired revocations and reads every live one again, including those other instances made. The whole
+   * window is read each time, not just rows newer than the last refresh, so a revocation committed late is not missed
+   */
+  @Scheduled(initialDelayString = "${library.security.revocation-refresh:PT10S}",
+             fixedDelayString = "${library.security.revocation-refresh:PT10S}")
+  public void refresh() {
+    long expiredUpTo = System.currentTimeMillis() - retentionMillis;
+    tokenRevocationRepository.deleteRevokedUpTo(expiredUpTo);
+    for (TokenRevocation revocation : tokenRevocationRepository.findByRevokedAtGreaterThanEqual(expiredUpTo + 1))
+      revokedAt.merge(revocation.getUserId(), revocation.getRevokedAt(), Math::max);
+    revokedAt.values().removeIf(at -> at <= expiredUpTo);
+  }
+
+  int size() {
+    return revokedAt.size();
+  }
+}
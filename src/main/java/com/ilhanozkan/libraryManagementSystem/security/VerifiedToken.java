@@ -0,0 +1,17 @@
+package com.ilhanozkan.libraryManagementSystem.security;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Claims of a token whose signature and expiry were checked once by {@link JwtService#verify(String)}
+ * @param username Subject of the token
+ * @param userId Id of the user, or null for tokens issued without user claims
+ * @param issuedAt Issue time, or null for tokens without one
+ * @param expiresAt Expiry time
+ * @param roles Role names carried by the token, empty when it carries none
+ * @param status Account status when the token was issued, or null when it carries none
+ */
+public record VerifiedToken(String username, UUID userId, Date issuedAt, Date expiresAt, List<String> roles, String status) {
+}
@@ -1,44 +1,409 @@
 package com.ilhanozkan.libraryManagementSystem.service;
 
+import com.ilhanozkan.libraryManagementSystem.model.dto.event.AvailabilityStreamStats;
 import com.ilhanozkan.libraryManagementSystem.model.dto.event.BookAvailabilityEvent;
+import com.ilhanozkan.libraryManagementSystem.model.dto.request.AvailabilityStreamFilterDTO;
+import com.ilhanozkan.libraryManagementSystem.model.entity.AvailabilityEvent;
+import com.ilhanozkan.libraryManagementSystem.model.enums.BookGenre;
+import com.ilhanozkan.libraryManagementSystem.model.enums.StreamOverflowPolicy;
+import com.ilhanozkan.libraryManagementSystem.repository.AvailabilityEventRepository;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.BufferOverflowStrategy;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
 import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
 
 @Service
 @Slf4j
 public class BookAvailabilityPublisher {
+    static final int REPLAY_BATCH_SIZE = 500;
+
+    private final AvailabilityEventRepository availabilityEventRepository;
+    private final int bufferSize;
+    private final StreamOverflowPolicy overflowPolicy;
+    private final Duration coalesceWindow;
+    private final Duration sweepInterval;
+    private final Duration retention;
     // Create a many-to-many sink that broadcasts to all subscribers
     private final Sinks.Many<BookAvailabilityEvent> sink;
-    // Create a flux that subscribers can subscribe to
-    private final Flux<BookAvailabilityEvent> flux;
+    // Committed events waiting to be emitted; only the dispatcher thread emits, so the sink never sees concurrent emitters
+    private final Queue<Appended> outbox = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final Scheduler dispatcher;
+    // Key of the events collected by the current transaction
+    private final Object transactionKey = new Object();
+
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    @Autowired
+    public BookAvailabilityPublisher(AvailabilityEventRepository availabilityEventRepository,
+                                     @Value("${library.availability.stream.buffer-size:256}") int bufferSize,
+                                     @Value("${library.availability.stream.overflow-policy:coalesce}") StreamOverflowPolicy overflowPolicy,
+                                     @Value("${library.availability.stream.coalesce-window:1s}") Duration coalesceWindow,
+                                     @Value("${library.availability.log.sweep-interval:PT1M}") Duration sweepInterval,
+                                     @Value("${library.availability.log.retention:P7D}") Duration retention) {
+        this(availabilityEventRepository, bufferSize, overflowPolicy, coalesceWindow, sweepInterval, retention,
+            Schedulers.newSingle("availability-dispatch", true));
+    }
 
-    public BookAvailabilityPublisher() {
-        // Create a sink that allows many subscribers and emits to all of them
-        this.sink = Sinks.many().multicast().onBackpressureBuffer();
-        this.flux = sink.asFlux().cache(100);
-        log.info("BookAvailabilityPublisher initialized");
+    BookAvailabilityPublisher(AvailabilityEventRepository availabilityEventRepository, int bufferSize,
+                              StreamOverflowPolicy overflowPolicy, Duration coalesceWindow, Duration sweepInterval,
+                              Duration retention, Scheduler dispatcher) {
+        this.availabilityEventRepository = availabilityEventRepository;
+        this.dispatcher = dispatcher;
+        this.bufferSize = bufferSize;
+        this.overflowPolicy = overflowPolicy;
+        this.coalesceWindow = coalesceWindow;
+        this.sweepInterval = sweepInterval;
+        this.retention = retention;
+        // Live subscribers only; anything older is replayed from the event log.
+        // Each subscriber buffers on its own side, so the sink itself never holds events back
+        this.sink = Sinks.many().multicast().directBestEffort();
+        log.info("BookAvailabilityPublisher initialized with {} events per subscriber, overflow policy {}", bufferSize, overflowPolicy);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.dispose();
     }
 
     /**
-     * Publishes a book availability event
+     * Appends a book availability event to the event log and publishes it to live subscribers.
+     * Called inside the transaction that changed the book, so the entry is only kept if the change commits,
+     * and subscribers only see it after the commit. Its stream offset is assigned after the commit, on the dispatcher
+     * thread that also emits it, never the caller's.
      * @param event The event to publish
+     * @return The event as logged; its offset is not known until the transaction has committed
      */
-    public void publishEvent(BookAvailabilityEvent event) {
+    public BookAvailabilityEvent publishEvent(BookAvailabilityEvent event) {
         log.debug("Publishing book availability event: {}", event);
-        Sinks.EmitResult result = sink.tryEmitNext(event);
-        if (result.isFailure()) {
-            log.error("Failed to emit event: {}", result);
-            throw new RuntimeException("Failed to emit event: " + result);
+        AvailabilityEvent entry = availabilityEventRepository.save(AvailabilityEvent.builder()
+            .bookId(event.bookId())
+            .bookName(event.bookName())
+            .isbn(event.isbn())
+            .totalQuantity(event.totalQuantity())
+            .availableQuantity(event.availableQuantity())
+            .timestamp(event.timestamp())
+            .genre(event.genre())
+            .build());
+
+        Appended appended = new Appended(entry.getSeq(), event);
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+            eventsOfCurrentTransaction().add(appended);
+        else
+            dispatch(List.of(appended));
+        return event;
+    }
+
+    /**
+     * Events collected by the running transaction; the first call registers the after-completion hand-off
+     */
+    @SuppressWarnings("unchecked")
+    private List<Appended> eventsOfCurrentTransaction() {
+        List<Appended> events = (List<Appended>) TransactionSynchronizationManager.getResource(transactionKey);
+        if (events != null)
+            return events;
+
+        List<Appended> collected = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(transactionKey, collected);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(transactionKey);
+                if (status == STATUS_COMMITTED)
+                    dispatch(collected);
+                else
+                    log.debug("Discarding {} availability events of a rolled back transaction", collected.size());
+            }
+        });
+        return collected;
+    }
+
+    private void dispatch(List<Appended> events) {
+        outbox.addAll(events);
+        if (flushScheduled.compareAndSet(false, true))
+            dispatcher.schedule(this::flush);
+    }
+
+    /**
+     * Gives everything committed since the last flush its offsets, then emits it in offset order in one pass.
+     * Handing an event to a subscriber only enqueues it in that subscriber's own buffer, so a flush never waits
+     * on a client and never throws
+     */
+    private void flush() {
+        flushScheduled.set(false);
+        List<Appended> committed = new ArrayList<>();
+        Appended next;
+        while ((next = outbox.poll()) != null)
+            committed.add(next);
+        if (committed.isEmpty())
+            return;
+
+        Map<Long, Long> offsets;
+        try {
+            offsets = availabilityEventRepository.assignOffsets(committed.stream().map(Appended::seq).toList());
+        } catch (RuntimeException e) {
+            // Still in the log without an offset; the sweep assigns it and emits it late
+            log.error("Failed to assign stream offsets to {} availability events", committed.size(), e);
+            return;
         }
+
+        List<BookAvailabilityEvent> ordered = committed.stream()
+            .filter(appended -> offsets.containsKey(appended.seq()))
+            .map(appended -> appended.event().withSeq(offsets.get(appended.seq())))
+            .sorted(Comparator.comparing(BookAvailabilityEvent::seq))
+            .toList();
+        for (BookAvailabilityEvent event : ordered) {
+            try {
+                Sinks.EmitResult result = sink.tryEmitNext(event);
+                // Nobody listening is fine: the event is in the log for whoever connects later
+                if (result.isFailure() && result != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER)
+                    log.warn("Failed to emit event {}: {}", event.seq(), result);
+            } catch (RuntimeException e) {
+                log.error("Subscriber failed while receiving event {}", event.seq(), e);
+            } finally {
+                // Counted once every subscriber has been handed the event
+                published.incrementAndGet();
+            }
+        }
+        log.debug("Flushed {} availability events", ordered.size());
     }
 
     /**
-     * Returns a flux that emits book availability events
+     * Picks up committed events that never got an offset, e.g. because the instance that wrote them stopped
+     * between commit and flush. Only events older than one interval are taken, so the writer gets to do it first.
+     */
+    @Scheduled(initialDelayString = "${library.availability.log.sweep-interval:PT1M}",
+               fixedDelayString = "${library.availability.log.sweep-interval:PT1M}")
+    public void assignMissedOffsets() {
+        List<Appended> missed = availabilityEventRepository.findByStreamOffsetIsNullAndTimestampLessThanOrderBySeq(
+                System.currentTimeMillis() - sweepInterval.toMillis(), Limit.of(REPLAY_BATCH_SIZE)).stream()
+            .map(entry -> new Appended(entry.getSeq(), toEvent(entry)))
+            .toList();
+        if (missed.isEmpty())
+            return;
+        log.warn("Assigning stream offsets to {} availability events that missed them", missed.size());
+        dispatch(missed);
+    }
+
+    /**
+     * Drops events older than the retention period; subscribers resuming from before that continue at the oldest one left
+     */
+    @Scheduled(fixedDelayString = "${library.availability.log.prune-interval:PT1H}")
+    public void pruneExpiredEvents() {
+        int pruned = availabilityEventRepository.deleteOlderThan(System.currentTimeMillis() - retention.toMillis());
+        if (pruned > 0)
+            log.info("Pruned {} availability events older than {}", pruned, retention);
+    }
+
+    /**
+     * Returns a flux that emits book availability events published from now on
      * @return Flux of book availability events
      */
     public Flux<BookAvailabilityEvent> getEventStream() {
-        return flux;
+        return getEventStream(null, new AvailabilityStreamFilterDTO());
+    }
+
+    /**
+     * Replays the event log from a sequence number, then continues with live events
+     * @param fromSeq First sequence number to replay
+     * @return Flux of book availability events
+     */
+    public Flux<BookAvailabilityEvent> getEventStream(long fromSeq) {
+        return getEventStream(fromSeq, new AvailabilityStreamFilterDTO());
+    }
+
+    /**
+     * Returns the events a subscriber asked for, optionally replaying the event log first.
+     * Filters apply before the subscriber's buffer, so it only ever holds events it will be sent.
+     * @param fromSeq First sequence number to replay, or null for live events only
+     * @param filter Books, ISBNs or genre to keep, and whether to coalesce bursts per book
+     * @return Flux of book availability events
+     */
+    public Flux<BookAvailabilityEvent> getEventStream(Long fromSeq, AvailabilityStreamFilterDTO filter) {
+        Predicate<BookAvailabilityEvent> matches = toPredicate(filter);
+        Duration window = filter.isCoalesce() ? coalesceWindow : null;
+        Flux<BookAvailabilityEvent> live = sink.asFlux().filter(matches);
+        return tracked(fromSeq == null ? bounded(live, window) : replayThenLive(fromSeq, matches, live, window));
+    }
+
+    /**
+     * Live events are buffered while the log is read, so nothing published in between is lost or repeated.
+     * Offsets become visible in order, so a live event at or below the last replayed offset was part of the replay.
+     * The replay is read at the subscriber's pace; only the live part goes through the overflow policy.
+     */
+    private Flux<BookAvailabilityEvent> replayThenLive(long fromSeq, Predicate<BookAvailabilityEvent> matches,
+                                                      Flux<BookAvailabilityEvent> liveEvents, Duration window) {
+        return Flux.defer(() -> {
+            Sinks.Many<BookAvailabilityEvent> pending = Sinks.many().unicast()
+                .onBackpressureBuffer(Queues.<BookAvailabilityEvent>get(bufferSize).get());
+            Disposable live = liveEvents.subscribe(event -> {
+                if (pending.tryEmitNext(event).isFailure())
+                    dropped.incrementAndGet();
+            });
+            AtomicLong replayedUpTo = new AtomicLong(fromSeq - 1);
+
+            Flux<BookAvailabilityEvent> replay = Mono.fromCallable(() -> readAfter(fromSeq - 1))
+                .expand(batch -> batch.size() < REPLAY_BATCH_SIZE
+                    ? Mono.empty()
+                    : Mono.fromCallable(() -> readAfter(batch.get(batch.size() - 1).seq())))
+                .flatMapIterable(batch -> batch)
+                .doOnNext(event -> replayedUpTo.set(event.seq()))
+                .filter(matches)
+                .subscribeOn(Schedulers.boundedElastic());
+
+            return replay
+                .concatWith(bounded(pending.asFlux().filter(event -> event.seq() > replayedUpTo.get()), window))
+                .doFinally(signal -> live.dispose());
+        });
+    }
+
+    public AvailabilityStreamStats getStats() {
+        return new AvailabilityStreamStats(subscribers.get(), published.get(), dropped.get(), coalesced.get());
+    }
+
+    private static Predicate<BookAvailabilityEvent> toPredicate(AvailabilityStreamFilterDTO filter) {
+        Set<UUID> bookIds = filter.getBookIds() == null ? Set.of() : Set.copyOf(filter.getBookIds());
+        Set<String> isbns = filter.getIsbns() == null ? Set.of() : Set.copyOf(filter.getIsbns());
+        BookGenre genre = filter.getGenre();
+        return event -> (bookIds.isEmpty() || bookIds.contains(event.bookId()))
+            && (isbns.isEmpty() || isbns.contains(event.isbn()))
+            && (genre == null || genre == event.genre());
+    }
+
+    /**
+     * Puts a subscriber behind its own bounded buffer, so a slow client only ever loses its own events.
+     * Subscribers that asked for coalescing always get the per-book buffer, flushed once per window.
+     */
+    private Flux<BookAvailabilityEvent> bounded(Flux<BookAvailabilityEvent> source, Duration window) {
+        if (window != null)
+            return coalesceByBook(source, window);
+
+        return switch (overflowPolicy) {
+            case DROP_LATEST -> source.onBackpressureBuffer(bufferSize, event -> dropped.incrementAndGet(), BufferOverflowStrategy.DROP_LATEST);
+            case DROP_OLDEST -> source.onBackpressureBuffer(bufferSize, event -> dropped.incrementAndGet(), BufferOverflowStrategy.DROP_OLDEST);
+            case COALESCE -> coalesceByBook(source, Duration.ZERO);
+        };
+    }
+
+    private Flux<BookAvailabilityEvent> tracked(Flux<BookAvailabilityEvent> stream) {
+        return stream
+            .doOnSubscribe(subscription -> subscribers.incrementAndGet())
+            .doFinally(signal -> subscribers.decrementAndGet());
+    }
+
+    /**
+     * Keeps at most one pending event per book, in arrival order. Each event carries the book's full quantities,
+     * so replacing a pending one with a newer one loses nothing the subscriber still needs.
+     * With a zero window events go out as soon as there is demand; otherwise pending events are flushed once per window.
+     */
+    private Flux<BookAvailabilityEvent> coalesceByBook(Flux<BookAvailabilityEvent> source, Duration window) {
+        boolean windowed = !window.isZero();
+        return Flux.create(downstream -> {
+            LinkedHashMap<UUID, BookAvailabilityEvent> pending = new LinkedHashMap<>();
+            AtomicInteger wip = new AtomicInteger();
+            AtomicBoolean done = new AtomicBoolean();
+
+            Runnable drain = () -> {
+                if (wip.getAndIncrement() != 0)
+                    return;
+                do {
+                    while (downstream.requestedFromDownstream() > 0 && !downstream.isCancelled()) {
+                        BookAvailabilityEvent next;
+                        synchronized (pending) {
+                            Iterator<BookAvailabilityEvent> iterator = pending.values().iterator();
+                            if (!iterator.hasNext())
+                                break;
+                            next = iterator.next();
+                            iterator.remove();
+                        }
+                        downstream.next(next);
+                    }
+                    boolean drained;
+                    synchronized (pending) {
+                        drained = pending.isEmpty();
+                    }
+                    if (drained && done.get())
+                        downstream.complete();
+                } while (wip.decrementAndGet() != 0);
+            };
+
+            Disposable upstream = source.subscribe(event -> {
+                synchronized (pending) {
+                    if (pending.remove(event.bookId()) != null) {
+                        coalesced.incrementAndGet();
+                    } else if (pending.size() >= bufferSize) {
+                        Iterator<UUID> oldest = pending.keySet().iterator();
+                        oldest.next();
+                        oldest.remove();
+                        dropped.incrementAndGet();
+                    }
+                    pending.put(event.bookId(), event);
+                }
+                if (!windowed)
+                    drain.run();
+            }, downstream::error, () -> {
+                done.set(true);
+                drain.run();
+            });
+
+            if (windowed) {
+                Disposable flushes = Schedulers.parallel()
+                    .schedulePeriodically(drain, window.toMillis(), window.toMillis(), TimeUnit.MILLISECONDS);
+                downstream.onDispose(Disposables.composite(upstream, flushes));
+            } else {
+                downstream.onRequest(requested -> drain.run());
+                downstream.onDispose(upstream);
+            }
+        }, FluxSink.OverflowStrategy.ERROR);
+    }
+
+    private List<BookAvailabilityEvent> readAfter(long offset) {
+        return availabilityEventRepository.findByStreamOffsetGreaterThanOrderByStreamOffset(offset, Limit.of(REPLAY_BATCH_SIZE)).stream()
+            .map(entry -> toEvent(entry).withSeq(entry.getStreamOffset()))
+            .toList();
+    }
+
+    private static BookAvailabilityEvent toEvent(AvailabilityEvent entry) {
+        return new BookAvailabilityEvent(entry.getBookId(), entry.getBookName(), entry.getIsbn(),
+            entry.getTotalQuantity(), entry.getAvailableQuantity(), entry.getTimestamp(), entry.getGenre(), null);
+    }
+
+    // A logged event waiting for its offset, keyed by its row
+    private record Appended(long seq, BookAvailabilityEvent event) {
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,17 @@
+package com.ilhanozkan.libraryManagementSystem.service;
+
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.BookImportResultDTO;
+import com.ilhanozkan.libraryManagementSystem.model.enums.BookImportFormat;
+
+import java.io.IOException;
+import java.io.Reader;
+
+public interface BookImportService {
+  /**
+   * Imports books from CSV or JSON lines while the input is read, inserting new ISBNs and updating existing ones
+   * @param reader Source of the catalog
+   * @param format Format of the catalog
+   * @return Row counts, the first rejected rows and the achieved throughput
+   */
+  public BookImportResultDTO importBooks(Reader reader, BookImportFormat format) throws IOException;
+}
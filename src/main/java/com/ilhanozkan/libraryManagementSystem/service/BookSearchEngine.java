@@ -0,0 +1,34 @@
+package com.ilhanozkan.libraryManagementSystem.service;
+
+import com.ilhanozkan.libraryManagementSystem.model.entity.Book;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.UUID;
+
+public interface BookSearchEngine {
+  /**
+   * Finds books matching every non-null criterion
+   * @param title Text to look for in the book name
+   * @param author Text to look for in the author name
+   * @param isbn Partial ISBN
+   * @param genre Genre ordinal as a string
+   * @param pageable Page to return
+   * @return Requested page of matching books with the total number of matches
+   */
+  public Page<Book> search(String title, String author, String isbn, String genre, Pageable pageable);
+
+  /**
+   * Called once a transaction that created a book or updated its details has committed, for engines that keep their own index
+   * @param book The saved book
+   */
+  public default void onBookSaved(Book book) {
+  }
+
+  /**
+   * Called once a transaction that deleted a book has committed, for engines that keep their own index
+   * @param id ID of the deleted book
+   */
+  public default void onBookDeleted(UUID id) {
+  }
+}
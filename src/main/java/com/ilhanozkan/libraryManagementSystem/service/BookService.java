@@ -2,7 +2,9 @@ package com.ilhanozkan.libraryManagementSystem.service;
 
 import com.ilhanozkan.libraryManagementSystem.model.dto.request.BookQuantityUpdateDTO;
 import com.ilhanozkan.libraryManagementSystem.model.dto.request.BookRequestDTO;
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.BookCacheStatsDTO;
 import com.ilhanozkan.libraryManagementSystem.model.dto.response.BookResponseDTO;
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.CatalogVersionDTO;
 import com.ilhanozkan.libraryManagementSystem.model.dto.response.PagedResponse;
 import com.ilhanozkan.libraryManagementSystem.model.entity.Book;
 import org.springframework.data.domain.Pageable;
@@ -12,6 +14,7 @@ import java.util.UUID;
 
 public interface BookService {
   public PagedResponse<BookResponseDTO> getAllBooks(Pageable pageable);
+  public PagedResponse<BookResponseDTO> getBooksByCursor(String cursor, int size);
   public BookResponseDTO getBookById(UUID id);
   public BookResponseDTO getBookByIsbn(String isbn);
   public PagedResponse<BookResponseDTO> searchBooks(String title, String author, String isbn, String genre, Pageable pageable);
@@ -21,4 +24,6 @@ public interface BookService {
   public BookResponseDTO updateBookAvailableQuantity(UUID id, BookQuantityUpdateDTO quantityUpdateDTO);
   public void deleteBook(UUID id);
   public void publishBookAvailabilityEvent(Book book);
+  public BookCacheStatsDTO getCacheStats();
+  public CatalogVersionDTO getCatalogVersion();
 }
@@ -1,17 +1,25 @@
 package com.ilhanozkan.libraryManagementSystem.service;
 
+import com.ilhanozkan.libraryManagementSystem.model.dto.request.BorrowingFilterDTO;
 import com.ilhanozkan.libraryManagementSystem.model.dto.request.BorrowingRequestDTO;
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.BorrowingBatchResponseDTO;
 import com.ilhanozkan.libraryManagementSystem.model.dto.response.BorrowingResponseDTO;
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.PagedResponse;
 import org.springframework.http.ResponseEntity;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
 import java.util.UUID;
 
 public interface BorrowingService {
-  public List<BorrowingResponseDTO> getBorrowings();
+  public PagedResponse<BorrowingResponseDTO> getBorrowings(BorrowingFilterDTO filter, String cursor, int size);
+  public long exportBorrowings(BorrowingFilterDTO filter, Writer writer) throws IOException;
   public List<BorrowingResponseDTO> getBorrowingsByUserId(UUID userId);
   public List<BorrowingResponseDTO> getActiveBorrowingsByUserId(UUID userId);
   public BorrowingResponseDTO createBorrowing(BorrowingRequestDTO borrowingRequestDTO);
+  public BorrowingBatchResponseDTO createBorrowings(List<BorrowingRequestDTO> requests);
   public BorrowingResponseDTO returnBook(UUID id);
+  public BorrowingBatchResponseDTO returnBooks(List<UUID> ids);
   public void deleteBorrowing(UUID id);
 }
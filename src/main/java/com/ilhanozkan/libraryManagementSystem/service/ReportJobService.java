@@ -0,0 +1,26 @@
+package com.ilhanozkan.libraryManagementSystem.service;
+
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.ReportJobDTO;
+import com.ilhanozkan.libraryManagementSystem.model.enums.ReportFormat;
+
+import java.io.InputStream;
+import java.util.UUID;
+
+public interface ReportJobService {
+  /**
+   * Queues an overdue report render, or hands back the job of an identical request that is still
+   * running or finished within the freshness window
+   * @param format Format of the report
+   * @return Job to poll for the report
+   */
+  public ReportJobDTO submitOverdueReport(ReportFormat format);
+
+  public ReportJobDTO getJob(UUID id);
+
+  /**
+   * Opens the rendered report of a completed job. The report may expire while it is read; the stream still reads it to the end
+   * @param id ID of the job
+   * @return Stream of the report, to be closed by the caller
+   */
+  public InputStream openReport(UUID id);
+}
@@ -11,6 +11,7 @@ import java.util.UUID;
 
 public interface UserService {
   public PagedResponse<UserResponseDTO> getUsers(Pageable pageable);
+  public PagedResponse<UserResponseDTO> getUsersByCursor(String cursor, int size);
   public UserResponseDTO getUserById(UUID id);
   public UserResponseDTO createUser(UserRequestDTO userRequestDTO);
   public UserResponseDTO updateUser(UUID id, UserRequestDTO userRequestDTO) throws BadRequestException;
@@ -4,6 +4,7 @@ import com.ilhanozkan.libraryManagementSystem.model.dto.request.auth.LoginReques
 import com.ilhanozkan.libraryManagementSystem.model.dto.request.auth.RegisterRequestDTO;
 import com.ilhanozkan.libraryManagementSystem.model.dto.response.auth.LoginResponseDTO;
 import com.ilhanozkan.libraryManagementSystem.model.entity.User;
+import com.ilhanozkan.libraryManagementSystem.model.entity.UserPrincipal;
 import com.ilhanozkan.libraryManagementSystem.model.enums.UserRole;
 import com.ilhanozkan.libraryManagementSystem.repository.UserRepository;
 import com.ilhanozkan.libraryManagementSystem.security.JwtService;
@@ -80,7 +81,10 @@ public class AuthServiceImpl implements AuthService {
       );
 
       UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-      String token = jwtService.generateToken(userDetails.getUsername());
+      // Tokens carry id, role and status so stateless principals can skip the user lookup
+      String token = userDetails instanceof UserPrincipal userPrincipal
+          ? jwtService.generateTokenFor(userPrincipal.getUser())
+          : jwtService.generateToken(userDetails.getUsername());
       log.info("User '{}' authenticated successfully, token generated", userDetails.getUsername());
 
       String role = userDetails.getAuthorities().stream()
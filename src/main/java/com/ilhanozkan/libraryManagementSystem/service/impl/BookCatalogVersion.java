@@ -0,0 +1,69 @@
+package com.ilhanozkan.libraryManagementSystem.service.impl;
+
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.CatalogVersionDTO;
+import com.ilhanozkan.libraryManagementSystem.repository.BookRepository;
+import com.ilhanozkan.libraryManagementSystem.repository.BookRepositoryCustom.CatalogStamp;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Version of the whole book catalog, moved on by every committed change to a book. List and search responses
+ * are validated against it, so an unchanged catalog answers a conditional GET with one primary key read and
+ * no book rows. It lives in the database, so a change made on one instance invalidates every instance's pages.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookCatalogVersion {
+  private final BookRepository bookRepository;
+
+  public CatalogVersionDTO getCurrent() {
+    CatalogStamp stamp = bookRepository.findCatalogStamp();
+    // Last-Modified only has second precision; the ETag also tells apart changes within the same second
+    return new CatalogVersionDTO(
+        "W/\"" + Long.toString(stamp.version(), 36) + "-" + Long.toString(stamp.changedAt(), 36) + "\"",
+        Instant.ofEpochMilli(stamp.changedAt()).truncatedTo(ChronoUnit.SECONDS));
+  }
+
+  /**
+   * Moves the catalog version on once the transaction commits, once however many books it changed; a rolled
+   * back change leaves it as it is. Moving it after the commit means a page read in between is never
+   * validated by the new version.
+   */
+  public void onBooksChanged() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      advance();
+      return;
+    }
+    if (TransactionSynchronizationManager.hasResource(this))
+      return;
+
+    TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        advance();
+      }
+
+      @Override
+      public void afterCompletion(int status) {
+        TransactionSynchronizationManager.unbindResourceIfPossible(BookCatalogVersion.this);
+      }
+    });
+  }
+
+  private void advance() {
+    // The change itself is committed; failing the request now would only make the client retry it
+    try {
+      bookRepository.advanceCatalogVersion();
+    } catch (RuntimeException e) {
+      log.warn("Could not move the book catalog version on; pages stay valid until the next change", e);
+    }
+  }
+}
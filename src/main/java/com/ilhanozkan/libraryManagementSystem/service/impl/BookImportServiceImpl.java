@@ -0,0 +1,308 @@
+package com.ilhanozkan.libraryManagementSystem.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ilhanozkan.libraryManagementSystem.model.dto.event.BookImportCompletedEvent;
+import com.ilhanozkan.libraryManagementSystem.model.dto.request.BookRequestDTO;
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.BookImportResultDTO;
+import com.ilhanozkan.libraryManagementSystem.model.entity.Book;
+import com.ilhanozkan.libraryManagementSystem.model.enums.BookGenre;
+import com.ilhanozkan.libraryManagementSystem.model.enums.BookImportFormat;
+import com.ilhanozkan.libraryManagementSystem.repository.BookRepository;
+import com.ilhanozkan.libraryManagementSystem.service.BookImportService;
+import com.ilhanozkan.libraryManagementSystem.util.CsvRecordReader;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a catalog into the books table in chunks of {@code library.import.batch-size} rows.
+ * Each chunk is one transaction: one query looks up the chunk's ISBNs, new books go out as one JDBC batch
+ * and changed books as another, then the persistence context is cleared so memory stays flat.
+ * A chunk that races a checkout or return on one of its books is retried, up to {@code MAX_CHUNK_ATTEMPTS} times.
+ * No availability event is published per book; a single {@link BookImportCompletedEvent} follows the import.
+ */
+@Service
+@Slf4j
+public class BookImportServiceImpl implements BookImportService {
+  static final int MAX_REPORTED_ERRORS = 100;
+  static final int MAX_CHUNK_ATTEMPTS = 3;
+  static final List<String> CSV_COLUMNS =
+      List.of("name", "isbn", "author", "publisher", "numberOfPages", "quantity", "genre");
+
+  private final BookRepository bookRepository;
+  private final EntityManager entityManager;
+  private final TransactionTemplate transactionTemplate;
+  private final Validator validator;
+  private final ObjectMapper objectMapper;
+  private final ApplicationEventPublisher eventPublisher;
+  private final BookCatalogVersion catalogVersion;
+  private final int batchSize;
+
+  @Autowired
+  public BookImportServiceImpl(BookRepository bookRepository, EntityManager entityManager,
+                               TransactionTemplate transactionTemplate, Validator validator,
+                               ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher,
+                               BookCatalogVersion catalogVersion,
+                               @Value("${library.import.batch-size:1000}") int batchSize) {
+    this.bookRepository = bookRepository;
+    this.entityManager = entityManager;
+    this.transactionTemplate = transactionTemplate;
+    this.validator = validator;
+    this.objectMapper = objectMapper;
+    this.eventPublisher = eventPublisher;
+    this.catalogVersion = catalogVersion;
+    this.batchSize = batchSize;
+  }
+
+  // Running totals of one import
+  private static class ImportProgress {
+    long rows;
+    long inserted;
+    long updated;
+    long rejected;
+    final List<String> errors = new ArrayList<>();
+
+    void reject(int line, String reason) {
+      rejected++;
+      if (errors.size() < MAX_REPORTED_ERRORS)
+        errors.add("line " + line + ": " + reason);
+    }
+
+    void add(ImportProgress chunk) {
+      inserted += chunk.inserted;
+      updated += chunk.updated;
+      rejected += chunk.rejected;
+      chunk.errors.stream().limit(MAX_REPORTED_ERRORS - errors.size()).forEach(errors::add);
+    }
+  }
+
+  private record ImportRow(int line, BookRequestDTO book) {
+  }
+
+  public BookImportResultDTO importBooks(Reader reader, BookImportFormat format) throws IOException {
+    log.info("Importing books from {} in batches of {}", format, batchSize);
+    long startedAt = System.nanoTime();
+    ImportProgress progress = new ImportProgress();
+    List<ImportRow> chunk = new ArrayList<>(batchSize);
+
+    Consumer<ImportRow> accept = row -> {
+      chunk.add(row);
+      if (chunk.size() == batchSize) {
+        writeChunk(chunk, progress);
+        chunk.clear();
+      }
+    };
+    if (format == BookImportFormat.JSONL)
+      readJsonLines(new BufferedReader(reader), progress, accept);
+    else
+      readCsv(new CsvRecordReader(new BufferedReader(reader)), progress, accept);
+    if (!chunk.isEmpty())
+      writeChunk(chunk, progress);
+
+    long elapsedMillis = Math.max(1, (System.nanoTime() - startedAt) / 1_000_000);
+    long rowsPerSecond = progress.rows * 1000 / elapsedMillis;
+    log.info("Imported {} rows in {} ms ({} rows/s): {} inserted, {} updated, {} rejected",
+             progress.rows, elapsedMillis, rowsPerSecond, progress.inserted, progress.updated, progress.rejected);
+
+    eventPublisher.publishEvent(
+        new BookImportCompletedEvent(progress.inserted, progress.updated, progress.rejected, elapsedMillis));
+    return new BookImportResultDTO(progress.rows, progress.inserted, progress.updated, progress.rejected,
+                                   progress.errors, elapsedMillis, rowsPerSecond);
+  }
+
+  private void readCsv(CsvRecordReader csv, ImportProgress progress, Consumer<ImportRow> accept) throws IOException {
+    List<String> header = csv.next();
+    if (header == null)
+      return;
+
+    Map<String, Integer> columns = new HashMap<>();
+    for (int i = 0; i < header.size(); i++)
+      columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+    List<String> missing = CSV_COLUMNS.stream()
+        .filter(column -> !columns.containsKey(column.toLowerCase(Locale.ROOT)))
+        .toList();
+    if (!missing.isEmpty())
+      throw new IllegalArgumentException("CSV header is missing columns: " + String.join(", ", missing));
+
+    List<String> fields;
+    while ((fields = csv.next()) != null) {
+      // Blank lines carry no book
+      if (fields.size() == 1 && fields.get(0).isBlank())
+        continue;
+
+      progress.rows++;
+      List<String> record = fields;
+      Map<String, String> values = CSV_COLUMNS.stream().collect(Collectors.toMap(
+          column -> column,
+          column -> {
+            int index = columns.get(column.toLowerCase(Locale.ROOT));
+            return index < record.size() ? record.get(index).trim() : "";
+          }));
+      try {
+        BookRequestDTO book = BookRequestDTO.builder()
+            .name(values.get("name"))
+            .isbn(values.get("isbn"))
+            .author(values.get("author"))
+            .publisher(values.get("publisher"))
+            .numberOfPages(parseInteger(values.get("numberOfPages"), "numberOfPages"))
+            .quantity(parseInteger(values.get("quantity"), "quantity"))
+            .genre(parseGenre(values.get("genre")))
+            .build();
+        validate(csv.getRecordLine(), book, progress, accept);
+      } catch (IllegalArgumentException e) {
+        progress.reject(csv.getRecordLine(), e.getMessage());
+      }
+    }
+  }
+
+  private void readJsonLines(BufferedReader lines, ImportProgress progress, Consumer<ImportRow> accept) throws IOException {
+    String line;
+    int lineNumber = 0;
+    while ((line = lines.readLine()) != null) {
+      lineNumber++;
+      if (line.isBlank())
+        continue;
+
+      progress.rows++;
+      try {
+        validate(lineNumber, objectMapper.readValue(line, BookRequestDTO.class), progress, accept);
+      } catch (JsonProcessingException e) {
+        progress.reject(lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+      }
+    }
+  }
+
+  // Same constraints as POST /books, including the ISBN-13 pattern
+  private void validate(int line, BookRequestDTO book, ImportProgress progress, Consumer<ImportRow> accept) {
+    Set<ConstraintViolation<BookRequestDTO>> violations = validator.validate(book);
+    if (violations.isEmpty()) {
+      accept.accept(new ImportRow(line, book));
+      return;
+    }
+
+    progress.reject(line, violations.stream()
+        .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+        .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+        .collect(Collectors.joining("; ")));
+  }
+
+  /**
+   * Writes a chunk, running it again when a checkout or return changed one of its books in the meantime.
+   * A chunk that keeps conflicting is reported row by row and the import goes on with the next one.
+   */
+  private void writeChunk(List<ImportRow> chunk, ImportProgress progress) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        progress.add(transactionTemplate.execute(status -> writeChunk(chunk)));
+        break;
+      } catch (OptimisticLockException | OptimisticLockingFailureException e) {
+        if (attempt == MAX_CHUNK_ATTEMPTS) {
+          log.warn("Chunk of {} rows still conflicts with concurrent changes after {} attempts, rows not imported",
+                   chunk.size(), attempt);
+          chunk.forEach(row -> progress.reject(row.line(), "book changed during the import, row not imported"));
+          break;
+        }
+        log.debug("Chunk of {} rows conflicts with a concurrent change, retrying", chunk.size());
+      }
+    }
+    log.debug("Imported chunk of {} rows, {} inserted and {} updated so far", chunk.size(), progress.inserted, progress.updated);
+  }
+
+  // One attempt at a chunk; counts go to the returned progress so a rolled back attempt leaves no trace
+  private ImportProgress writeChunk(List<ImportRow> chunk) {
+    ImportProgress written = new ImportProgress();
+    entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+
+    Map<String, Book> books = new LinkedHashMap<>();
+    bookRepository.findByIsbnIn(chunk.stream().map(row -> row.book().getIsbn()).collect(Collectors.toSet()))
+        .forEach(book -> books.putIfAbsent(book.getIsbn(), book));
+
+    List<Book> newBooks = new ArrayList<>();
+    for (ImportRow row : chunk) {
+      BookRequestDTO request = row.book();
+      Book book = books.get(request.getIsbn());
+      if (book == null) {
+        book = Book.builder()
+            .isbn(request.getIsbn())
+            .quantity(request.getQuantity())
+            .availableQuantity(request.getQuantity())
+            .build();
+        books.put(request.getIsbn(), book);
+        newBooks.add(book);
+        written.inserted++;
+      } else {
+        // Copies on loan cannot be withdrawn from the catalog
+        int onLoan = book.getQuantity() - book.getAvailableQuantity();
+        if (request.getQuantity() < onLoan) {
+          written.reject(row.line(), "quantity " + request.getQuantity() + " is below the " + onLoan + " copies on loan");
+          continue;
+        }
+        // Copies added or withdrawn change what is on the shelf by the same amount
+        book.setAvailableQuantity(request.getQuantity() - onLoan);
+        book.setQuantity(request.getQuantity());
+        written.updated++;
+      }
+      book.setName(request.getName());
+      book.setAuthor(request.getAuthor());
+      book.setPublisher(request.getPublisher());
+      book.setNumberOfPages(request.getNumberOfPages());
+      book.setGenre(request.getGenre());
+    }
+
+    bookRepository.saveAll(newBooks);
+    entityManager.flush();
+    entityManager.clear();
+    catalogVersion.onBooksChanged();
+    return written;
+  }
+
+  private static Integer parseInteger(String value, String column) {
+    if (value.isEmpty())
+      return null;
+    try {
+      return Integer.valueOf(value);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(column + " must be a whole number");
+    }
+  }
+
+  // Accepts the genre name in any case or its ordinal, like the search endpoint
+  private static BookGenre parseGenre(String value) {
+    if (value.isEmpty())
+      return null;
+    if (value.chars().allMatch(Character::isDigit)) {
+      int ordinal = Integer.parseInt(value);
+      if (ordinal < BookGenre.values().length)
+        return BookGenre.values()[ordinal];
+    }
+    try {
+      return BookGenre.valueOf(value.toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Unknown genre " + value);
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package com.ilhanozkan.libraryManagementSystem.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Total counts for paginated book searches.
+ * In "exact" mode every count runs against the database; in "cached" mode a count is reused for the same
+ * criteria until its TTL expires, so paging through a huge result set pays for the count once.
+ */
+@Component
+@Slf4j
+public class BookSearchCounter {
+  private static final int MAX_ENTRIES = 10_000;
+
+  private final boolean cached;
+  private final long ttlMillis;
+  private final Map<List<Object>, CachedCount> counts = new ConcurrentHashMap<>();
+
+  private record CachedCount(long value, long expiresAt) {
+  }
+
+  public BookSearchCounter(@Value("${library.search.count-mode:exact}") String countMode,
+                           @Value("${library.search.count-ttl:60s}") Duration ttl) {
+    this.cached = "cached".equalsIgnoreCase(countMode);
+    this.ttlMillis = ttl.toMillis();
+    log.info("BookSearchCounter initialized in {} mode", cached ? "cached" : "exact");
+  }
+
+  /**
+   * Returns the number of books matching the criteria
+   * @param exactCount Query producing the exact count
+   * @param criteria Values identifying the search, nulls allowed
+   * @return Exact count, or a cached one no older than the TTL in cached mode
+   */
+  public long count(LongSupplier exactCount, Object... criteria) {
+    if (!cached)
+      return exactCount.getAsLong();
+
+    List<Object> key = Arrays.asList(criteria);
+    long now = System.currentTimeMillis();
+    CachedCount cachedCount = counts.get(key);
+    if (cachedCount != null && cachedCount.expiresAt() > now) {
+      log.debug("Using cached search count {} for {}", cachedCount.value(), key);
+      return cachedCount.value();
+    }
+
+    long value = exactCount.getAsLong();
+    // Keep the cache bounded; it is refilled by the next searches
+    if (counts.size() >= MAX_ENTRIES)
+      counts.clear();
+    counts.put(key, new CachedCount(value, now + ttlMillis));
+    return value;
+  }
+}
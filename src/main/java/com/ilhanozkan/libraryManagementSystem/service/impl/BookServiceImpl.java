@@ -5,21 +5,34 @@ import com.ilhanozkan.libraryManagementSystem.common.exception.book.NotEnoughBoo
 import com.ilhanozkan.libraryManagementSystem.model.dto.event.BookAvailabilityEvent;
 import com.ilhanozkan.libraryManagementSystem.model.dto.request.BookQuantityUpdateDTO;
 import com.ilhanozkan.libraryManagementSystem.model.dto.request.BookRequestDTO;
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.BookCacheStatsDTO;
 import com.ilhanozkan.libraryManagementSystem.model.dto.response.BookResponseDTO;
 import com.ilhanozkan.libraryManagementSystem.model.dto.response.BorrowingResponseDTO;
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.CatalogVersionDTO;
 import com.ilhanozkan.libraryManagementSystem.model.dto.response.PagedResponse;
 import com.ilhanozkan.libraryManagementSystem.model.entity.Book;
 import com.ilhanozkan.libraryManagementSystem.model.enums.BookGenre;
 import com.ilhanozkan.libraryManagementSystem.model.mapper.BookResponseDTOMapper;
 import com.ilhanozkan.libraryManagementSystem.repository.BookRepository;
 import com.ilhanozkan.libraryManagementSystem.service.BookAvailabilityPublisher;
+import com.ilhanozkan.libraryManagementSystem.service.BookSearchEngine;
 import com.ilhanozkan.libraryManagementSystem.service.BookService;
+import com.ilhanozkan.libraryManagementSystem.util.KeysetCursor;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.NaturalIdStatistics;
+import org.hibernate.stat.Statistics;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.UUID;
@@ -30,11 +43,19 @@ public class BookServiceImpl implements BookService {
   private final BookRepository bookRepository;
   private final BookResponseDTOMapper mapper = BookResponseDTOMapper.INSTANCE;
   private final BookAvailabilityPublisher bookAvailabilityPublisher;
+  private final BookSearchEngine bookSearchEngine;
+  private final BookCatalogVersion catalogVersion;
+  private final EntityManagerFactory entityManagerFactory;
 
   @Autowired
-  public BookServiceImpl(BookRepository bookRepository, BookAvailabilityPublisher bookAvailabilityPublisher) {
+  public BookServiceImpl(BookRepository bookRepository, BookAvailabilityPublisher bookAvailabilityPublisher,
+                         BookSearchEngine bookSearchEngine, BookCatalogVersion catalogVersion,
+                         EntityManagerFactory entityManagerFactory) {
     this.bookRepository = bookRepository;
     this.bookAvailabilityPublisher = bookAvailabilityPublisher;
+    this.bookSearchEngine = bookSearchEngine;
+    this.catalogVersion = catalogVersion;
+    this.entityManagerFactory = entityManagerFactory;
     log.info("BookServiceImpl initialized");
   }
 
@@ -45,9 +66,12 @@ public class BookServiceImpl implements BookService {
         book.getName(),
         book.getIsbn(),
         book.getQuantity(),
-        book.getAvailableQuantity()
+        book.getAvailableQuantity(),
+        book.getGenre()
     );
     bookAvailabilityPublisher.publishEvent(event);
+    // Every availability change, including checkouts and returns, comes through here
+    catalogVersion.onBooksChanged();
   }
 
   public PagedResponse<BookResponseDTO> getAllBooks(Pageable pageable) {
@@ -66,6 +90,25 @@ public class BookServiceImpl implements BookService {
         .build();
   }
 
+  /**
+   * Returns the page of books ordered by name that follows the cursor, without counting the catalog
+   *
+   * @param cursor Cursor from the previous page, blank for the first page
+   * @param size Number of books per page
+   * @return Page of books with the cursor of the next page
+   */
+  public PagedResponse<BookResponseDTO> getBooksByCursor(String cursor, int size) {
+    log.debug("Getting books after cursor: {}, size={}", cursor, size);
+    KeysetCursor after = KeysetCursor.decode(cursor);
+    Limit limit = Limit.of(size + 1);
+    List<Book> books = after == null
+        ? bookRepository.findFirstByKeyset(limit)
+        : bookRepository.findAfterByKeyset(after.sortKey(), after.id(), limit);
+
+    return PagedResponse.fromKeyset(books, size, mapper::toBookResponseDTOList,
+        book -> new KeysetCursor(book.getName(), book.getId()));
+  }
+
   // Search books by title, author, ISBN, or genre
   public PagedResponse<BookResponseDTO> searchBooks(String title, String author, String isbn, String genre, Pageable pageable) {
     log.debug("Searching books with parameters - title: {}, author: {}, isbn: {}, genre: {}", title, author, isbn, genre);
@@ -106,15 +149,15 @@ public class BookServiceImpl implements BookService {
       }
     }
     
-    List<Book> books = bookRepository.searchBooks(title, author, isbn, genreValue, pageable);
-    log.debug("Found {} books matching the search criteria", books.size());
+    Page<Book> booksPage = bookSearchEngine.search(title, author, isbn, genreValue, pageable);
+    log.debug("Found {} books matching the search criteria", booksPage.getTotalElements());
     return PagedResponse.<BookResponseDTO>builder()
-        .content(mapper.toBookResponseDTOList(books))
-        .page(pageable.getPageNumber())
-        .size(pageable.getPageSize())
-        .totalElements(books.size())
-        .totalPages((int) Math.ceil((double) books.size() / pageable.getPageSize()))
-        .last(books.size() < pageable.getPageSize())
+        .content(mapper.toBookResponseDTOList(booksPage.getContent()))
+        .page(booksPage.getNumber())
+        .size(booksPage.getSize())
+        .totalElements(booksPage.getTotalElements())
+        .totalPages(booksPage.getTotalPages())
+        .last(booksPage.isLast())
         .build();
   }
 
@@ -135,11 +178,10 @@ public class BookServiceImpl implements BookService {
   
   public BookResponseDTO getBookByIsbn(String isbn) {
     log.debug("Getting book by ISBN: {}", isbn);
-    Book book = bookRepository.findByIsbn(isbn);
-    if (book == null) {
-        log.warn("Book not found with ISBN: {}", isbn);
-        throw new BookNotFoundException("Book with ISBN " + isbn + " not found");
-    }
+    Book book = bookRepository.findByNaturalId(isbn).orElseThrow(() -> {
+      log.warn("Book not found with ISBN: {}", isbn);
+      return new BookNotFoundException("Book with ISBN " + isbn + " not found");
+    });
     log.debug("Found book with ISBN {}: {}", isbn, book.getName());
     return mapper.toBookResponseDTO(book);
   }
@@ -159,6 +201,7 @@ public class BookServiceImpl implements BookService {
 
     Book savedBook = bookRepository.save(newBook);
     log.info("Book created successfully with ID: {}", savedBook.getId());
+    afterCommit(() -> bookSearchEngine.onBookSaved(savedBook));
     
     // Publish event for the new book
     publishBookAvailabilityEvent(savedBook);
@@ -186,6 +229,8 @@ public class BookServiceImpl implements BookService {
 
     Book savedBook = bookRepository.save(updatedBook);
     log.info("Book updated successfully: {}", savedBook.getName());
+    afterCommit(() -> bookSearchEngine.onBookSaved(savedBook));
+    catalogVersion.onBooksChanged();
     
     // Publish event if availability changed
     if (oldQuantity != savedBook.getQuantity() || oldAvailableQuantity != savedBook.getAvailableQuantity())
@@ -266,5 +311,41 @@ public class BookServiceImpl implements BookService {
     log.debug("Found book to delete: {}", book.getName());
     bookRepository.deleteById(id);
     log.info("Book deleted successfully: {}", book.getName());
+    afterCommit(() -> bookSearchEngine.onBookDeleted(id));
+    catalogVersion.onBooksChanged();
+  }
+
+  // Search indexes follow committed changes only, so a rolled back save or delete leaves them as they were
+  private void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+
+  public CatalogVersionDTO getCatalogVersion() {
+    return catalogVersion.getCurrent();
+  }
+
+  /**
+   * Second-level cache counters for books, from the Hibernate statistics
+   * (zero unless hibernate.generate_statistics is on)
+   * @return Hits, misses and puts of the books regions, and how often entries were invalidated
+   */
+  public BookCacheStatsDTO getCacheStats() {
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    CacheRegionStatistics books = statistics.getDomainDataRegionStatistics("books");
+    NaturalIdStatistics byIsbn = statistics.getNaturalIdStatistics(Book.class.getName());
+    EntityStatistics entity = statistics.getEntityStatistics(Book.class.getName());
+    return new BookCacheStatsDTO(books.getHitCount(), books.getMissCount(), books.getPutCount(),
+                                 byIsbn.getCacheHitCount(), byIsbn.getCacheMissCount(),
+                                 bookRepository.countCacheEvictions(), entity.getUpdateCount(), entity.getDeleteCount());
   }
 }
@@ -6,8 +6,13 @@ import com.ilhanozkan.libraryManagementSystem.common.exception.book.BookNotFound
 import com.ilhanozkan.libraryManagementSystem.common.exception.borrowing.BorrowingNotFoundException;
 import com.ilhanozkan.libraryManagementSystem.common.exception.user.UserIsNotActiveException;
 import com.ilhanozkan.libraryManagementSystem.common.exception.user.UserNotFoundException;
+import com.ilhanozkan.libraryManagementSystem.model.dto.request.BorrowingFilterDTO;
 import com.ilhanozkan.libraryManagementSystem.model.dto.request.BorrowingRequestDTO;
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.BorrowingBatchItemDTO;
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.BorrowingBatchResponseDTO;
 import com.ilhanozkan.libraryManagementSystem.model.dto.response.BorrowingResponseDTO;
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.OverdueStatsDTO;
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.PagedResponse;
 import com.ilhanozkan.libraryManagementSystem.model.entity.Book;
 import com.ilhanozkan.libraryManagementSystem.model.entity.Borrowing;
 import com.ilhanozkan.libraryManagementSystem.model.entity.User;
@@ -20,72 +25,129 @@ import com.ilhanozkan.libraryManagementSystem.repository.UserRepository;
 import com.ilhanozkan.libraryManagementSystem.service.BookService;
 import com.ilhanozkan.libraryManagementSystem.service.BorrowingService;
 import com.ilhanozkan.libraryManagementSystem.util.CustomDateTimeFormatter;
+import com.ilhanozkan.libraryManagementSystem.util.KeysetCursor;
+import com.itextpdf.kernel.geom.PageSize;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Cell;
 import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.UnitValue;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class BorrowingServiceImpl implements BorrowingService {
+  static final int MAX_BATCH_SIZE = 500;
+  private static final int PDF_REPORT_FLUSH_ROWS = 100;
+  private static final String[] PDF_REPORT_COLUMNS = {"Book", "Author", "Borrow Date", "Due Date", "User", "Email"};
+
   private final BorrowingRepository borrowingRepository;
   private final BookRepository bookRepository;
   private final UserRepository userRepository;
   private final BookService bookService;
+  private final OverdueTracker overdueTracker;
   private final BorrowingResponseDTOMapper mapper = BorrowingResponseDTOMapper.INSTANCE;
 
-  @Transactional
-  public List<BorrowingResponseDTO> getBorrowings() {
-    log.debug("Fetching all borrowings");
-    try {
-      List<Borrowing> borrowings = borrowingRepository.findAll();
-      log.debug("Retrieved {} borrowings", borrowings.size());
-      return mapper.toBorrowingResponseDTOList(borrowings);
-    } catch (RuntimeException e) {
-      log.error("Error retrieving all borrowings", e);
-      throw new RuntimeException(e.getMessage());
+  /**
+   * Returns the page of borrowings matching the filter, ordered by borrow date, that follows the cursor
+   *
+   * @param filter Optional status, user, book and borrow date range criteria
+   * @param cursor Cursor from the previous page, blank for the first page
+   * @param size Number of borrowings per page
+   * @return Page of borrowings with the cursor of the next page
+   */
+  @Transactional(readOnly = true)
+  public PagedResponse<BorrowingResponseDTO> getBorrowings(BorrowingFilterDTO filter, String cursor, int size) {
+    log.debug("Fetching borrowings with filter: {}, after cursor: {}, size={}", filter, cursor, size);
+    KeysetCursor after = KeysetCursor.decode(cursor);
+    LocalDateTime afterBorrowDate = after != null ? parseCursorDate(after) : null;
+    BorrowingQuery query = BorrowingQuery.of(filter);
+    List<BorrowingResponseDTO> borrowings = borrowingRepository.findPage(
+        query.returned(), query.dueBefore(), filter.getUserId(), filter.getBookId(),
+        filter.getBorrowedFrom(), filter.getBorrowedTo(),
+        afterBorrowDate, after != null ? after.id() : null, Limit.of(size + 1));
+    log.debug("Retrieved {} borrowings", borrowings.size());
+    return PagedResponse.fromKeyset(borrowings, size, Function.identity(),
+        borrowing -> new KeysetCursor(borrowing.borrowDate().toString(), borrowing.id()));
+  }
+
+  /**
+   * Writes every borrowing matching the filter as CSV while it is read from the database cursor.
+   * Rows are projections rather than managed entities, so memory stays flat however many rows match.
+   *
+   * @param filter Optional status, user, book and borrow date range criteria
+   * @param writer Destination of the CSV rows
+   * @return Number of exported borrowings
+   */
+  @Transactional(readOnly = true)
+  public long exportBorrowings(BorrowingFilterDTO filter, Writer writer) throws IOException {
+    log.debug("Exporting borrowings with filter: {}", filter);
+    BorrowingQuery query = BorrowingQuery.of(filter);
+    long exported = 0;
+
+    writer.write("id,bookId,bookName,isbn,userId,username,borrowDate,dueDate,returnDate,returned\n");
+    try (Stream<BorrowingResponseDTO> borrowings = borrowingRepository.streamForExport(
+        query.returned(), query.dueBefore(), filter.getUserId(), filter.getBookId(),
+        filter.getBorrowedFrom(), filter.getBorrowedTo())) {
+      Iterator<BorrowingResponseDTO> iterator = borrowings.iterator();
+      while (iterator.hasNext()) {
+        writer.write(toCsvRow(iterator.next()));
+        if (++exported % BorrowingRepository.EXPORT_FETCH_SIZE == 0)
+          writer.flush();
+      }
     }
+    writer.flush();
+
+    log.debug("Exported {} borrowings", exported);
+    return exported;
   }
 
   @Transactional
   public List<BorrowingResponseDTO> getBorrowingsByUserId(UUID userId) {
     log.debug("Fetching borrowings for user ID: {}", userId);
-    User user = userRepository.findById(userId)
-        .orElseThrow(() -> {
-          log.warn("User not found with ID: {}", userId);
-          return new UserNotFoundException(userId);
-        });
+    requireUserExists(userId);
 
-    List<Borrowing> borrowings = borrowingRepository.findByUser(user);
+    List<BorrowingResponseDTO> borrowings = borrowingRepository.findViewsByUserId(userId, null);
     log.debug("Retrieved {} borrowings for user ID: {}", borrowings.size(), userId);
-    return mapper.toBorrowingResponseDTOList(borrowings);
+    return borrowings;
   }
 
   @Transactional
   public List<BorrowingResponseDTO> getActiveBorrowingsByUserId(UUID userId) {
     log.debug("Fetching active borrowings for user ID: {}", userId);
-    User user = userRepository.findById(userId)
-        .orElseThrow(() -> {
-          log.warn("User not found with ID: {}", userId);
-          return new UserNotFoundException(userId);
-        });
+    requireUserExists(userId);
 
-    List<Borrowing> activeBorrowings = borrowingRepository.findByUserAndReturnedFalse(user);
+    List<BorrowingResponseDTO> activeBorrowings = borrowingRepository.findViewsByUserId(userId, false);
     log.debug("Retrieved {} active borrowings for user ID: {}", activeBorrowings.size(), userId);
-    return mapper.toBorrowingResponseDTOList(activeBorrowings);
+    return activeBorrowings;
   }
 
   @Transactional
@@ -119,9 +181,13 @@ public class BorrowingServiceImpl implements BorrowingService {
         throw new BookNotAvailableException(borrowingRequestDTO.getBookId());
       }
 
-      // Update the available quantity directly
-      book.setAvailableQuantity(book.getAvailableQuantity() - 1);
-      bookRepository.save(book);
+      // Take a copy with a single conditional update so concurrent checkouts can never oversell
+      if (bookRepository.reserveCopy(book.getId()) == 0) {
+        log.warn("Book with ID {} ran out of copies during checkout", borrowingRequestDTO.getBookId());
+        throw new BookNotAvailableException(borrowingRequestDTO.getBookId());
+      }
+
+      applyInventoryChange(book, -1);
 
       Borrowing borrowing = new Borrowing();
       borrowing.setBorrowDate(LocalDateTime.now());
@@ -132,8 +198,9 @@ public class BorrowingServiceImpl implements BorrowingService {
       borrowing.setUpdatedAt(LocalDateTime.now());
 
       Borrowing savedBorrowing = borrowingRepository.save(borrowing);
+      overdueTracker.onBorrowed(1);
 
-      // Stream book availability event after the direct update
+      // Stream book availability event after the conditional update
       bookService.publishBookAvailabilityEvent(book);
 
       log.info("Borrowing created successfully with ID: {}", savedBorrowing.getId());
@@ -168,21 +235,179 @@ public class BorrowingServiceImpl implements BorrowingService {
 
       borrowing.setReturned(true);
       borrowing.setReturnDate(LocalDateTime.now());
-      
-      // Update the book's available quantity directly
-      Book book = borrowing.getBook();
-      book.setAvailableQuantity(book.getAvailableQuantity() + 1);
-      bookRepository.save(book);
 
       Borrowing savedBorrowing = borrowingRepository.save(borrowing);
+      overdueTracker.onReturned(List.of(id));
+
+      // Put the copy back with a single conditional update
+      Book book = releaseCopy(borrowing.getBook());
+      savedBorrowing.setBook(book);
 
       // Stream book availability event
-      bookService.publishBookAvailabilityEvent(borrowing.getBook());
+      bookService.publishBookAvailabilityEvent(book);
 
       log.info("Book returned successfully for borrowing ID: {}", id);
       return mapper.toBorrowingResponseDTO(savedBorrowing);
   }
 
+  /**
+   * Checks out a batch of books in one transaction. Books and users are loaded with one query each,
+   * copies are reserved with one conditional update per distinct book and the borrowings are inserted
+   * in JDBC batches. Entries that cannot be served fail on their own without affecting the others.
+   *
+   * @param requests Book and user of each checkout
+   * @return Per-entry results in request order
+   */
+  @Transactional
+  public BorrowingBatchResponseDTO createBorrowings(List<BorrowingRequestDTO> requests) {
+    log.info("Creating {} borrowings in bulk", requests.size());
+    requireBatchSize(requests.size());
+
+    Map<UUID, Book> books = byId(bookRepository.findAllById(
+        requests.stream().map(BorrowingRequestDTO::getBookId).filter(Objects::nonNull).collect(Collectors.toSet())), Book::getId);
+    Map<UUID, User> users = byId(userRepository.findAllById(
+        requests.stream().map(BorrowingRequestDTO::getUserId).filter(Objects::nonNull).collect(Collectors.toSet())), User::getId);
+
+    // Validate every entry against the loaded state and group the servable ones by book
+    BorrowingBatchItemDTO[] results = new BorrowingBatchItemDTO[requests.size()];
+    Map<UUID, List<Integer>> granted = new LinkedHashMap<>();
+    for (int i = 0; i < requests.size(); i++) {
+      BorrowingRequestDTO request = requests.get(i);
+      Book book = request.getBookId() != null ? books.get(request.getBookId()) : null;
+      User user = request.getUserId() != null ? users.get(request.getUserId()) : null;
+      List<Integer> bookEntries = book != null ? granted.computeIfAbsent(book.getId(), id -> new ArrayList<>()) : null;
+
+      if (book == null)
+        results[i] = BorrowingBatchItemDTO.failed(i, new BookNotFoundException(request.getBookId()).getMessage());
+      else if (user == null)
+        results[i] = BorrowingBatchItemDTO.failed(i, new UserNotFoundException(request.getUserId()).getMessage());
+      else if (user.getStatus() != UserStatus.ACTIVE)
+        results[i] = BorrowingBatchItemDTO.failed(i, new UserIsNotActiveException(user.getId()).getMessage());
+      else if (bookEntries.size() >= book.getAvailableQuantity())
+        results[i] = BorrowingBatchItemDTO.failed(i, new BookNotAvailableException(book.getId()).getMessage());
+      else
+        bookEntries.add(i);
+    }
+
+    // One conditional update per book; if another checkout got there first, reserve copy by copy for as long as they last
+    granted.values().removeIf(List::isEmpty);
+    granted.forEach((bookId, indexes) -> {
+      if (bookRepository.reserveCopies(bookId, indexes.size()) == 1) {
+        applyInventoryChange(books.get(bookId), -indexes.size());
+        return;
+      }
+
+      int reserved = 0;
+      while (reserved < indexes.size() && bookRepository.reserveCopies(bookId, 1) == 1)
+        reserved++;
+      log.warn("Book with ID {} ran out of copies during bulk checkout, {} of {} reserved", bookId, reserved, indexes.size());
+      List<Integer> unserved = indexes.subList(reserved, indexes.size());
+      unserved.forEach(i -> results[i] = BorrowingBatchItemDTO.failed(i, new BookNotAvailableException(bookId).getMessage()));
+      unserved.clear();
+      if (reserved > 0)
+        applyInventoryChange(books.get(bookId), -reserved);
+    });
+    granted.values().removeIf(List::isEmpty);
+
+    List<Book> reservedBooks = granted.keySet().stream().map(books::get).toList();
+    LocalDateTime now = LocalDateTime.now();
+    List<Borrowing> borrowings = new ArrayList<>();
+    List<Integer> borrowingIndexes = new ArrayList<>();
+    granted.forEach((bookId, indexes) -> indexes.forEach(i -> {
+      Borrowing borrowing = new Borrowing();
+      borrowing.setBorrowDate(now);
+      borrowing.setDueDate(now.plusDays(14));
+      borrowing.setBook(books.get(bookId));
+      borrowing.setUser(users.get(requests.get(i).getUserId()));
+      borrowing.setReturned(false);
+      borrowing.setUpdatedAt(now);
+      borrowings.add(borrowing);
+      borrowingIndexes.add(i);
+    }));
+
+    List<Borrowing> savedBorrowings = borrowingRepository.saveAll(borrowings);
+    overdueTracker.onBorrowed(savedBorrowings.size());
+    for (int j = 0; j < savedBorrowings.size(); j++) {
+      int i = borrowingIndexes.get(j);
+      results[i] = BorrowingBatchItemDTO.succeeded(i, mapper.toBorrowingResponseDTO(savedBorrowings.get(j)));
+    }
+
+    // One availability event per book however many copies of it went out
+    reservedBooks.forEach(bookService::publishBookAvailabilityEvent);
+
+    BorrowingBatchResponseDTO response = BorrowingBatchResponseDTO.of(Arrays.asList(results));
+    log.info("Bulk checkout finished: {} succeeded, {} failed", response.succeeded(), response.failed());
+    return response;
+  }
+
+  /**
+   * Returns a batch of borrowed books in one transaction, under the same ownership rules as returnBook.
+   * Borrowings are loaded with their book and user in one query and copies go back to the shelf with
+   * one conditional update per distinct book.
+   *
+   * @param ids IDs of the borrowings to return
+   * @return Per-entry results in request order
+   */
+  @Transactional
+  public BorrowingBatchResponseDTO returnBooks(List<UUID> ids) {
+    log.info("Returning {} borrowings in bulk", ids.size());
+    requireBatchSize(ids.size());
+
+    UserPrincipal userPrincipal = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+    UUID currentUserId = userPrincipal.getUser().getId();
+    boolean librarian = userPrincipal.hasRole("LIBRARIAN");
+
+    Map<UUID, Borrowing> borrowings = byId(borrowingRepository.findAllWithBookAndUserByIdIn(
+        ids.stream().filter(Objects::nonNull).collect(Collectors.toSet())), Borrowing::getId);
+
+    BorrowingBatchItemDTO[] results = new BorrowingBatchItemDTO[ids.size()];
+    Map<UUID, List<Integer>> returned = new LinkedHashMap<>();
+    LocalDateTime now = LocalDateTime.now();
+    for (int i = 0; i < ids.size(); i++) {
+      UUID id = ids.get(i);
+      Borrowing borrowing = id != null ? borrowings.get(id) : null;
+
+      if (borrowing == null)
+        results[i] = BorrowingBatchItemDTO.failed(i, new BorrowingNotFoundException(id).getMessage());
+      else if (!borrowing.getUser().getId().equals(currentUserId) && !librarian)
+        results[i] = BorrowingBatchItemDTO.failed(i, "User is not authorized to return this book");
+      else if (borrowing.getReturned())
+        results[i] = BorrowingBatchItemDTO.failed(i, new BookAlreadyReturnedException(id).getMessage());
+      else {
+        borrowing.setReturned(true);
+        borrowing.setReturnDate(now);
+        returned.computeIfAbsent(borrowing.getBook().getId(), bookId -> new ArrayList<>()).add(i);
+      }
+    }
+
+    // The first conditional update flushes the returned borrowings as one JDBC batch
+    // The book was loaded with its borrowings, one instance per book
+    Map<UUID, Book> books = new LinkedHashMap<>();
+    returned.forEach((bookId, indexes) -> {
+      Book book = borrowings.get(ids.get(indexes.get(0))).getBook();
+      if (bookRepository.releaseCopies(bookId, indexes.size()) == 0)
+        log.warn("All copies of book with ID {} are already available, quantity left unchanged", bookId);
+      else
+        applyInventoryChange(book, indexes.size());
+      books.put(bookId, book);
+    });
+
+    List<UUID> returnedIds = new ArrayList<>();
+    returned.forEach((bookId, indexes) -> indexes.forEach(i -> {
+      Borrowing borrowing = borrowings.get(ids.get(i));
+      returnedIds.add(borrowing.getId());
+      results[i] = BorrowingBatchItemDTO.succeeded(i, mapper.toBorrowingResponseDTO(borrowing));
+    }));
+    overdueTracker.onReturned(returnedIds);
+
+    // One availability event per book however many copies of it came back
+    books.values().forEach(bookService::publishBookAvailabilityEvent);
+
+    BorrowingBatchResponseDTO response = BorrowingBatchResponseDTO.of(Arrays.asList(results));
+    log.info("Bulk return finished: {} succeeded, {} failed", response.succeeded(), response.failed());
+    return response;
+  }
+
   @Transactional
   public void deleteBorrowing(UUID id) {
     log.info("Deleting borrowing with ID: {}", id);
@@ -192,44 +417,161 @@ public class BorrowingServiceImpl implements BorrowingService {
           return new BorrowingNotFoundException(id);
         });
 
+    borrowingRepository.delete(borrowing);
+    overdueTracker.onDeleted(id, !borrowing.getReturned());
+
     if (!borrowing.getReturned()) {
       log.debug("Book was not returned, updating available quantity for book ID: {}", 
                 borrowing.getBook().getId());
-      // Update the book's available quantity directly
-      Book book = borrowing.getBook();
-      book.setAvailableQuantity(book.getAvailableQuantity() + 1);
-      bookRepository.save(book);
+      Book book = releaseCopy(borrowing.getBook());
       
       // Also publish the event
       bookService.publishBookAvailabilityEvent(book);
     }
 
-    borrowingRepository.delete(borrowing);
     log.info("Borrowing deleted successfully: {}", id);
   }
 
-  @Transactional
-  public byte[] getOverdueBooksPDFReport() {
-    log.info("Generating overdue books PDF report");
-    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+  // Status filter expressed as the column predicates the repository queries understand
+  private record BorrowingQuery(Boolean returned, LocalDateTime dueBefore) {
+    static BorrowingQuery of(BorrowingFilterDTO filter) {
+      if (filter.getStatus() == null)
+        return new BorrowingQuery(null, null);
+
+      return switch (filter.getStatus()) {
+        case ACTIVE -> new BorrowingQuery(false, null);
+        case RETURNED -> new BorrowingQuery(true, null);
+        case OVERDUE -> new BorrowingQuery(false, LocalDateTime.now());
+      };
+    }
+  }
 
+  private static String toCsvRow(BorrowingResponseDTO borrowing) {
+    return String.join(",",
+        borrowing.id().toString(),
+        borrowing.book().id().toString(),
+        csvField(borrowing.book().name()),
+        csvField(borrowing.book().isbn()),
+        borrowing.user().id().toString(),
+        csvField(borrowing.user().username()),
+        String.valueOf(borrowing.borrowDate()),
+        String.valueOf(borrowing.dueDate()),
+        borrowing.returnDate() != null ? borrowing.returnDate().toString() : "",
+        String.valueOf(borrowing.returned())) + "\n";
+  }
+
+  private static String csvField(String value) {
+    if (value == null)
+      return "";
+    if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r"))
+      return "\"" + value.replace("\"", "\"\"") + "\"";
+    return value;
+  }
+
+  private void requireUserExists(UUID userId) {
+    if (!userRepository.existsById(userId)) {
+      log.warn("User not found with ID: {}", userId);
+      throw new UserNotFoundException(userId);
+    }
+  }
+
+  private LocalDateTime parseCursorDate(KeysetCursor cursor) {
     try {
-      PdfWriter writer = new PdfWriter(baos);
-      PdfDocument pdf = new PdfDocument(writer);
-      Document document = new Document(pdf);
-
-      document.add(new Paragraph(getOverdueBooksTextReport()));
-      document.close();
-
-      byte[] pdfBytes = baos.toByteArray();
-      log.info("Overdue books PDF report generated successfully, size: {} bytes", pdfBytes.length);
-      return pdfBytes;
-    } catch (Exception e) {
-      log.error("Error generating overdue books PDF report", e);
-      throw new RuntimeException("Failed to generate PDF report: " + e.getMessage());
+      return LocalDateTime.parse(cursor.sortKey());
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid cursor: " + cursor.encode());
     }
   }
 
+  private static void requireBatchSize(int size) {
+    if (size == 0 || size > MAX_BATCH_SIZE)
+      throw new IllegalArgumentException("A batch must contain between 1 and " + MAX_BATCH_SIZE + " entries");
+  }
+
+  private static <T> Map<UUID, T> byId(Iterable<T> entities, Function<T, UUID> idOf) {
+    Map<UUID, T> byId = new HashMap<>();
+    entities.forEach(entity -> byId.put(idOf.apply(entity), entity));
+    return byId;
+  }
+
+  // Increments the available quantity in place and returns the book with the change applied
+  private Book releaseCopy(Book book) {
+    if (bookRepository.releaseCopy(book.getId()) == 0)
+      log.warn("All copies of book with ID {} are already available, quantity left unchanged", book.getId());
+    else
+      applyInventoryChange(book, 1);
+
+    return book;
+  }
+
+  /**
+   * Applies a conditional inventory update that matched its row to the book loaded before it, instead of reading
+   * the row back. The update only matches within the book's bounds, so the result is clamped to them as well;
+   * a change another transaction made after the book was loaded shows up with the next event for the book.
+   */
+  private static void applyInventoryChange(Book book, int delta) {
+    book.setAvailableQuantity(Math.max(0, Math.min(book.getAvailableQuantity() + delta, book.getQuantity())));
+    if (book.getVersion() != null)
+      book.setVersion(book.getVersion() + 1);
+    book.setUpdatedAt(LocalDateTime.now());
+  }
+
+  /**
+   * Borrowing and overdue counters for dashboards, read from the overdue tracker
+   * @return Total, active and overdue borrowing counts
+   */
+  public OverdueStatsDTO getOverdueStats() {
+    return overdueTracker.getStats();
+  }
+
+  /**
+   * Writes the overdue report as a PDF table while the rows are read from a database cursor.
+   * The table is flushed every few rows so finished pages go to the output and leave the heap;
+   * memory stays flat however many borrowings are overdue.
+   *
+   * @param outputStream Destination of the PDF, left open
+   * @return Number of overdue borrowings written
+   */
+  @Transactional(readOnly = true)
+  public long writeOverdueBooksPDFReport(OutputStream outputStream) {
+    log.info("Generating overdue books PDF report");
+    OverdueStatsDTO stats = overdueTracker.getStats();
+    long written = 0;
+
+    PdfWriter writer = new PdfWriter(outputStream);
+    writer.setCloseStream(false);
+    try (Document document = new Document(new PdfDocument(writer), PageSize.A4.rotate());
+         Stream<BorrowingResponseDTO> borrowings = borrowingRepository.streamOverdueViews(stats.overdueBefore())) {
+      document.add(new Paragraph("Overdue Books Report").setBold().setFontSize(16));
+      document.add(new Paragraph("Report Generation Date: " + CustomDateTimeFormatter.formatDateTime(LocalDateTime.now())
+          + "\nTotal Borrowings Count: " + stats.totalBorrowings()
+          + "\nTotal Overdue Books Count: " + stats.overdueBorrowings()));
+
+      // Large table: rows added after it is placed on the document are laid out and written on flush()
+      Table table = new Table(UnitValue.createPercentArray(PDF_REPORT_COLUMNS.length), true).useAllAvailableWidth();
+      for (String column : PDF_REPORT_COLUMNS)
+        table.addHeaderCell(new Cell().add(new Paragraph(column).setBold()));
+      document.add(table);
+
+      Iterator<BorrowingResponseDTO> iterator = borrowings.iterator();
+      while (iterator.hasNext()) {
+        BorrowingResponseDTO borrowing = iterator.next();
+        table.addCell(borrowing.book().name());
+        table.addCell(borrowing.book().author());
+        table.addCell(CustomDateTimeFormatter.formatDateTime(borrowing.borrowDate()));
+        table.addCell(CustomDateTimeFormatter.formatDateTime(borrowing.dueDate()));
+        table.addCell(borrowing.user().name() + " " + borrowing.user().surname());
+        table.addCell(borrowing.user().email());
+        if (++written % PDF_REPORT_FLUSH_ROWS == 0)
+          table.flush();
+      }
+      table.complete();
+    }
+
+    log.info("Overdue books PDF report generated successfully, {} overdue borrowings", written);
+    return written;
+  }
+
   @Transactional
   public String getOverdueBooksTextReport() {
     log.info("Generating overdue books text report");
@@ -238,9 +580,10 @@ public class BorrowingServiceImpl implements BorrowingService {
     report.append("Overdue Books Report\n");
     report.append("Report Generation Date: ").append(CustomDateTimeFormatter.formatDateTime(java.time.LocalDateTime.now())).append("\n\n");
 
-    List<Borrowing> overdueBooks = borrowingRepository.findOverdueBooks();
-    long totalBorrowings = borrowingRepository.count();
-    
+    // Both come from the overdue tracker: no scan of the borrowings table per report
+    List<BorrowingResponseDTO> overdueBooks = overdueTracker.getOverdueBorrowings();
+    long totalBorrowings = overdueTracker.getStats().totalBorrowings();
+
     log.debug("Total borrowings: {}, Overdue books: {}", totalBorrowings, overdueBooks.size());
 
     report.append("Total Borrowings Count: ").append(totalBorrowings).append("\n");
@@ -248,18 +591,18 @@ public class BorrowingServiceImpl implements BorrowingService {
 
     report.append("Overdue Books:\n");
     report.append("-------------------------\n");
-    for (Borrowing borrowing : overdueBooks) {
-      report.append("Book ID: ").append(borrowing.getBook().getId()).append("\n");
-      report.append("Book Name: ").append(borrowing.getBook().getName()).append("\n");
-      report.append("Book Author: ").append(borrowing.getBook().getAuthor()).append("\n");
-      report.append("Borrow Date: ").append(CustomDateTimeFormatter.formatDateTime(borrowing.getBorrowDate())).append("\n");
+    for (BorrowingResponseDTO borrowing : overdueBooks) {
+      report.append("Book ID: ").append(borrowing.book().id()).append("\n");
+      report.append("Book Name: ").append(borrowing.book().name()).append("\n");
+      report.append("Book Author: ").append(borrowing.book().author()).append("\n");
+      report.append("Borrow Date: ").append(CustomDateTimeFormatter.formatDateTime(borrowing.borrowDate())).append("\n");
 
       // Using CustomDateTimeFormatter to format the due date
-      report.append("Due Date: ").append(CustomDateTimeFormatter.formatDateTime(borrowing.getDueDate())).append("\n");
-      report.append("User ID: ").append(borrowing.getUser().getId()).append("\n");
-      report.append("User Name: ").append(borrowing.getUser().getName()).append("\n");
-      report.append("User Surname: ").append(borrowing.getUser().getSurname()).append("\n");
-      report.append("User Email: ").append(borrowing.getUser().getEmail()).append("\n");
+      report.append("Due Date: ").append(CustomDateTimeFormatter.formatDateTime(borrowing.dueDate())).append("\n");
+      report.append("User ID: ").append(borrowing.user().id()).append("\n");
+      report.append("User Name: ").append(borrowing.user().name()).append("\n");
+      report.append("User Surname: ").append(borrowing.user().surname()).append("\n");
+      report.append("User Email: ").append(borrowing.user().email()).append("\n");
       report.append("-------------------------\n");
     }
 
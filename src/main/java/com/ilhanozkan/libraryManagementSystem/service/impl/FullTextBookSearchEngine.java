@@ -0,0 +1,58 @@
+package com.ilhanozkan.libraryManagementSystem.service.impl;
+
+import com.ilhanozkan.libraryManagementSystem.model.entity.Book;
+import com.ilhanozkan.libraryManagementSystem.repository.BookRepository;
+import com.ilhanozkan.libraryManagementSystem.service.BookSearchEngine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// PostgreSQL search backed by the GIN indexes in migration V4__book_search_indexes.sql, results ranked by title relevance
+@Service
+@ConditionalOnProperty(name = "library.search.engine", havingValue = "full-text")
+@RequiredArgsConstructor
+@Slf4j
+public class FullTextBookSearchEngine implements BookSearchEngine {
+  private final BookRepository bookRepository;
+  private final BookSearchCounter bookSearchCounter;
+
+  public Page<Book> search(String title, String author, String isbn, String genre, Pageable pageable) {
+    String titleQuery = toPrefixQuery(title);
+    log.debug("Running full-text search - title query: {}, author: {}, isbn: {}, genre: {}", titleQuery, author, isbn, genre);
+
+    // Title text without a single searchable token can never match the name
+    if (title != null && titleQuery == null)
+      return Page.empty(pageable);
+
+    List<Book> books = bookRepository.fullTextSearchBooks(titleQuery, author, isbn, genre, pageable);
+
+    // The count query is skipped when the page itself reveals the total
+    return PageableExecutionUtils.getPage(books, pageable, () -> bookSearchCounter.count(
+        () -> bookRepository.countFullTextSearchBooks(titleQuery, author, isbn, genre), "full-text", titleQuery, author, isbn, genre));
+  }
+
+  /**
+   * Turns free text into a tsquery that prefix-matches every word against the book name (weight A)
+   * @param text Text entered by the user
+   * @return tsquery string like "harry:*A & pott:*A", or null when no word is left
+   */
+  static String toPrefixQuery(String text) {
+    if (text == null)
+      return null;
+
+    String query = Arrays.stream(text.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+        .filter(token -> !token.isEmpty())
+        .map(token -> token + ":*A")
+        .collect(Collectors.joining(" & "));
+
+    return query.isEmpty() ? null : query;
+  }
+}
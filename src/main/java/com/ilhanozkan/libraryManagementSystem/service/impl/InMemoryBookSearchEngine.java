@@ -0,0 +1,295 @@
+package com.ilhanozkan.libraryManagementSystem.service.impl;
+
+import com.ilhanozkan.libraryManagementSystem.model.dto.event.BookImportCompletedEvent;
+import com.ilhanozkan.libraryManagementSystem.model.entity.Book;
+import com.ilhanozkan.libraryManagementSystem.repository.BookRepository;
+import com.ilhanozkan.libraryManagementSystem.service.BookSearchEngine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Trigram inverted index over book name, author and ISBN held in memory.
+ * Matching ids are resolved without touching the database; only the requested page is fetched, in one query.
+ * A rebuild fills a new index next to the live one and swaps it in, so searches never see a partial index.
+ */
+@Service
+@ConditionalOnProperty(name = "library.search.engine", havingValue = "in-memory")
+@RequiredArgsConstructor
+@Slf4j
+public class InMemoryBookSearchEngine implements BookSearchEngine {
+  private static final int GRAM_SIZE = 3;
+  private static final int REBUILD_BATCH_SIZE = 1000;
+
+  // Rough JVM sizes used for the memory report (compressed oops)
+  private static final int POSTING_ENTRY_BYTES = 40;
+  private static final int TERM_BYTES = 112;
+  private static final int DOCUMENT_BYTES = 176;
+
+  private static final Comparator<IndexedBook> BY_NAME =
+      Comparator.comparing(IndexedBook::name).thenComparing(IndexedBook::id);
+
+  private final BookRepository bookRepository;
+  private final BookSearchCounter bookSearchCounter;
+
+  private final Object writeLock = new Object();
+  // One rebuild at a time; a lock rather than synchronized, so a rebuild reading from JDBC does not pin a carrier thread
+  private final Lock rebuildLock = new ReentrantLock();
+  // Null until the first build has finished; searches go to the database until then
+  private volatile Index index;
+  // Saves and deletes committed while a rebuild reads, replayed onto the new index before it goes live
+  private List<Consumer<Index>> changesDuringRebuild;
+
+  private record IndexedBook(UUID id, String name, String author, String isbn, int genre) {
+  }
+
+  private static final class Index {
+    private final Map<UUID, IndexedBook> documents = new ConcurrentHashMap<>();
+    private final Map<String, Set<UUID>> postings = new ConcurrentHashMap<>();
+
+    private void add(Book book) {
+      IndexedBook doc = new IndexedBook(
+          book.getId(),
+          Objects.requireNonNullElse(normalize(book.getName()), ""),
+          Objects.requireNonNullElse(normalize(book.getAuthor()), ""),
+          Objects.requireNonNullElse(normalize(book.getIsbn()), ""),
+          book.getGenre() != null ? book.getGenre().ordinal() : -1
+      );
+      documents.put(doc.id(), doc);
+      forEachTerm(doc, term -> postings.computeIfAbsent(term, key -> ConcurrentHashMap.newKeySet()).add(doc.id()));
+    }
+
+    private void remove(UUID id) {
+      IndexedBook doc = documents.remove(id);
+      if (doc == null)
+        return;
+
+      forEachTerm(doc, term -> postings.computeIfPresent(term, (key, ids) -> {
+        ids.remove(id);
+        return ids.isEmpty() ? null : ids;
+      }));
+    }
+
+    private void replace(Book book) {
+      remove(book.getId());
+      add(book);
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuildIndex() {
+    log.info("Building in-memory book search index");
+    long startedAt = System.currentTimeMillis();
+
+    Index built = new Index();
+    rebuildLock.lock();
+    try {
+      synchronized (writeLock) {
+        changesDuringRebuild = new ArrayList<>();
+      }
+      try {
+        Page<Book> page = bookRepository.findAll(PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id")));
+        page.forEach(built::add);
+        while (page.hasNext()) {
+          page = bookRepository.findAll(page.nextPageable());
+          page.forEach(built::add);
+        }
+
+        synchronized (writeLock) {
+          changesDuringRebuild.forEach(change -> change.accept(built));
+          index = built;
+        }
+      } finally {
+        synchronized (writeLock) {
+          changesDuringRebuild = null;
+        }
+      }
+    } finally {
+      rebuildLock.unlock();
+    }
+
+    long bytes = estimateMemoryBytes();
+    long bytesPerMillion = built.documents.isEmpty() ? 0 : bytes * 1_000_000 / built.documents.size();
+    log.info("In-memory book search index built in {} ms: {} books, {} terms, ~{} KB now, ~{} MB per million books",
+             System.currentTimeMillis() - startedAt, built.documents.size(), built.postings.size(),
+             bytes / 1024, bytesPerMillion / (1024 * 1024));
+  }
+
+  // A bulk import skips the per-book hooks, so pick its books up in one pass afterwards
+  @EventListener
+  public void onBooksImported(BookImportCompletedEvent event) {
+    if (event.inserted() + event.updated() > 0)
+      rebuildIndex();
+  }
+
+  public Page<Book> search(String title, String author, String isbn, String genre, Pageable pageable) {
+    Index current = index;
+    if (current == null) {
+      log.debug("Search index not built yet, falling back to database search");
+      List<Book> books = bookRepository.searchBooks(title, author, isbn, genre, pageable);
+      return PageableExecutionUtils.getPage(books, pageable, () -> bookSearchCounter.count(
+          () -> bookRepository.countSearchBooks(title, author, isbn, genre), "like", title, author, isbn, genre));
+    }
+
+    Integer genreOrdinal = genre != null ? Integer.valueOf(genre) : null;
+    String titleText = normalize(title);
+    String authorText = normalize(author);
+    String isbnText = normalize(isbn);
+
+    List<Set<UUID>> postingLists = new ArrayList<>();
+    if (!collectPostings(current, 'n', titleText, postingLists)
+        || !collectPostings(current, 'a', authorText, postingLists)
+        || !collectPostings(current, 'i', isbnText, postingLists)
+        || !collectGenrePostings(current, genreOrdinal, postingLists))
+      return Page.empty(pageable);
+
+    // Short queries have no trigram, so their candidates are verified below like every other one
+    List<IndexedBook> matches = intersect(current, postingLists).stream()
+        .filter(doc -> titleText == null || doc.name().contains(titleText))
+        .filter(doc -> authorText == null || doc.author().contains(authorText))
+        .filter(doc -> isbnText == null || doc.isbn().contains(isbnText))
+        .filter(doc -> genreOrdinal == null || doc.genre() == genreOrdinal)
+        .sorted(BY_NAME)
+        .toList();
+    log.debug("In-memory index matched {} books", matches.size());
+
+    int from = (int) Math.min(pageable.getOffset(), matches.size());
+    int to = Math.min(from + pageable.getPageSize(), matches.size());
+    List<UUID> pageIds = matches.subList(from, to).stream().map(IndexedBook::id).toList();
+    if (pageIds.isEmpty())
+      return new PageImpl<>(List.of(), pageable, matches.size());
+
+    // One batch fetch for the page, put back into index order; the total comes from the index for free
+    Map<UUID, Book> booksById = new HashMap<>();
+    bookRepository.findAllById(pageIds).forEach(book -> booksById.put(book.getId(), book));
+    List<Book> books = pageIds.stream().map(booksById::get).filter(Objects::nonNull).toList();
+    return new PageImpl<>(books, pageable, matches.size());
+  }
+
+  @Override
+  public void onBookSaved(Book book) {
+    apply(current -> current.replace(book));
+  }
+
+  @Override
+  public void onBookDeleted(UUID id) {
+    apply(current -> current.remove(id));
+  }
+
+  private void apply(Consumer<Index> change) {
+    synchronized (writeLock) {
+      Index current = index;
+      if (current != null)
+        change.accept(current);
+      if (changesDuringRebuild != null)
+        changesDuringRebuild.add(change);
+    }
+  }
+
+  /**
+   * Approximate heap used by the index, from entry counts and string lengths
+   * @return Estimated size in bytes
+   */
+  long estimateMemoryBytes() {
+    Index current = index;
+    if (current == null)
+      return 0;
+
+    Map<UUID, IndexedBook> documents = current.documents;
+    Map<String, Set<UUID>> postings = current.postings;
+    long postingEntries = postings.values().stream().mapToLong(Set::size).sum();
+    long documentChars = documents.values().stream()
+        .mapToLong(doc -> doc.name().length() + doc.author().length() + doc.isbn().length())
+        .sum();
+    return postingEntries * POSTING_ENTRY_BYTES
+        + (long) postings.size() * TERM_BYTES
+        + (long) documents.size() * DOCUMENT_BYTES
+        + documentChars;
+  }
+
+  private static boolean collectPostings(Index index, char field, String text, List<Set<UUID>> postingLists) {
+    if (text == null)
+      return true;
+
+    for (String gram : grams(text)) {
+      Set<UUID> ids = index.postings.get(field + gram);
+      if (ids == null)
+        return false;
+      postingLists.add(ids);
+    }
+    return true;
+  }
+
+  private static boolean collectGenrePostings(Index index, Integer genreOrdinal, List<Set<UUID>> postingLists) {
+    if (genreOrdinal == null)
+      return true;
+
+    Set<UUID> ids = index.postings.get("g" + genreOrdinal);
+    if (ids == null)
+      return false;
+    postingLists.add(ids);
+    return true;
+  }
+
+  private static Collection<IndexedBook> intersect(Index index, List<Set<UUID>> postingLists) {
+    if (postingLists.isEmpty())
+      return index.documents.values();
+
+    // Walk the shortest list and probe the others
+    postingLists.sort(Comparator.comparingInt(Set::size));
+    List<IndexedBook> result = new ArrayList<>();
+    for (UUID id : postingLists.get(0)) {
+      boolean inAll = true;
+      for (int i = 1; i < postingLists.size() && inAll; i++)
+        inAll = postingLists.get(i).contains(id);
+
+      IndexedBook doc = index.documents.get(id);
+      if (inAll && doc != null)
+        result.add(doc);
+    }
+    return result;
+  }
+
+  private static void forEachTerm(IndexedBook doc, Consumer<String> action) {
+    grams(doc.name()).forEach(gram -> action.accept('n' + gram));
+    grams(doc.author()).forEach(gram -> action.accept('a' + gram));
+    grams(doc.isbn()).forEach(gram -> action.accept('i' + gram));
+    if (doc.genre() >= 0)
+      action.accept("g" + doc.genre());
+  }
+
+  private static Set<String> grams(String text) {
+    Set<String> grams = new LinkedHashSet<>();
+    for (int i = 0; i + GRAM_SIZE <= text.length(); i++)
+      grams.add(text.substring(i, i + GRAM_SIZE));
+    return grams;
+  }
+
+  private static String normalize(String text) {
+    return text == null ? null : text.toLowerCase();
+  }
+}
@@ -0,0 +1,33 @@
+package com.ilhanozkan.libraryManagementSystem.service.impl;
+
+import com.ilhanozkan.libraryManagementSystem.model.entity.Book;
+import com.ilhanozkan.libraryManagementSystem.repository.BookRepository;
+import com.ilhanozkan.libraryManagementSystem.service.BookSearchEngine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+// Portable substring search, used on databases without full-text support such as the H2 test database
+@Service
+@ConditionalOnProperty(name = "library.search.engine", havingValue = "like", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class LikeBookSearchEngine implements BookSearchEngine {
+  private final BookRepository bookRepository;
+  private final BookSearchCounter bookSearchCounter;
+
+  public Page<Book> search(String title, String author, String isbn, String genre, Pageable pageable) {
+    log.debug("Running substring search - title: {}, author: {}, isbn: {}, genre: {}", title, author, isbn, genre);
+    List<Book> books = bookRepository.searchBooks(title, author, isbn, genre, pageable);
+
+    // The count query is skipped when the page itself reveals the total
+    return PageableExecutionUtils.getPage(books, pageable, () -> bookSearchCounter.count(
+        () -> bookRepository.countSearchBooks(title, author, isbn, genre), "like", title, author, isbn, genre));
+  }
+}
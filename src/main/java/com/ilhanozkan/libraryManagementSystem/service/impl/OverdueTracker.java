@@ -0,0 +1,240 @@
+package com.ilhanozkan.libraryManagementSystem.service.impl;
+
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.BorrowingResponseDTO;
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.OverdueStatsDTO;
+import com.ilhanozkan.libraryManagementSystem.repository.BorrowingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Overdue borrowings and borrowing counters maintained incrementally, so reports and dashboards read
+ * precomputed state instead of scanning the borrowings table. A borrowing is overdue once its due date is
+ * before the start of the current day; a scheduled sweep advances that watermark and only reads the borrowings
+ * whose due date it crossed. Checkouts, returns and deletions on this instance adjust the state once their
+ * transaction commits; a periodic reconcile against the table picks up those made anywhere else.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OverdueTracker {
+  private static final int REPORT_BATCH_SIZE = 1000;
+
+  private static final Comparator<BorrowingResponseDTO> BY_DUE_DATE =
+      Comparator.comparing(BorrowingResponseDTO::dueDate).thenComparing(BorrowingResponseDTO::id);
+
+  private final BorrowingRepository borrowingRepository;
+
+  private final Set<UUID> overdue = ConcurrentHashMap.newKeySet();
+  // Returns committed while a sweep is reading; taken out again after the sweep has added its ids
+  private final Set<UUID> returnedDuringSweep = ConcurrentHashMap.newKeySet();
+  private final AtomicLong totalBorrowings = new AtomicLong();
+  private final AtomicLong activeBorrowings = new AtomicLong();
+  // A lock rather than synchronized, so a sweep blocked on JDBC does not pin a carrier thread in virtual-thread mode
+  private final Lock sweepLock = new ReentrantLock();
+  private volatile LocalDateTime watermark;
+  private volatile boolean sweeping = false;
+
+  /**
+   * Loads the counters and the current overdue set from the database. Runs at startup and again on every
+   * reconcile, since the hooks only see the checkouts, returns and deletions of this instance.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    LocalDateTime cutoff = currentCutoff();
+    sweepLock.lock();
+    try {
+      beginSweep();
+      try {
+        long total = borrowingRepository.count();
+        long active = borrowingRepository.countByReturnedFalse();
+        Set<UUID> ids = new HashSet<>(borrowingRepository.findOverdueIds(cutoff));
+        if (watermark != null && (total != totalBorrowings.get() || active != activeBorrowings.get()
+                                  || !ids.equals(overdue)))
+          log.info("Overdue tracker corrected from the database: {} -> {} borrowings, {} -> {} active, {} -> {} overdue",
+                   totalBorrowings.get(), total, activeBorrowings.get(), active, overdue.size(), ids.size());
+
+        totalBorrowings.set(total);
+        activeBorrowings.set(active);
+        // Replaced in place without emptying it first, so reports running meanwhile never see an empty set
+        overdue.retainAll(ids);
+        overdue.addAll(ids);
+        watermark = cutoff;
+      } finally {
+        endSweep();
+      }
+    } finally {
+      sweepLock.unlock();
+    }
+    log.debug("Overdue tracker loaded: {} borrowings, {} active, {} overdue before {}",
+              totalBorrowings.get(), activeBorrowings.get(), overdue.size(), cutoff);
+  }
+
+  /**
+   * Brings in what other instances, or writes outside the service, changed since the last rebuild, so the
+   * counters of every instance agree with the table after at most one interval
+   */
+  @Scheduled(initialDelayString = "${library.overdue.reconcile-interval:PT5M}",
+             fixedDelayString = "${library.overdue.reconcile-interval:PT5M}")
+  public void reconcile() {
+    rebuild();
+  }
+
+  @Scheduled(initialDelayString = "${library.overdue.sweep-interval:PT1M}",
+             fixedDelayString = "${library.overdue.sweep-interval:PT1M}")
+  public void sweep() {
+    sweep(currentCutoff());
+  }
+
+  /**
+   * Adds the unreturned borrowings whose due date falls between the watermark and the cutoff
+   * @param cutoff New watermark; borrowings due before it are overdue
+   */
+  void sweep(LocalDateTime cutoff) {
+    sweepLock.lock();
+    try {
+      // Not loaded yet, or the day has not turned since the last sweep
+      if (watermark == null || !cutoff.isAfter(watermark))
+        return;
+
+      beginSweep();
+      try {
+        List<UUID> ids = borrowingRepository.findOverdueIdsDueBetween(watermark, cutoff);
+        overdue.addAll(ids);
+        watermark = cutoff;
+        log.debug("Overdue sweep up to {} added {} borrowings, {} overdue", cutoff, ids.size(), overdue.size());
+      } finally {
+        endSweep();
+      }
+    } finally {
+      sweepLock.unlock();
+    }
+  }
+
+  /**
+   * Counts new borrowings once the checkout commits
+   * @param count Number of borrowings created
+   */
+  public void onBorrowed(int count) {
+    afterCommit(() -> {
+      totalBorrowings.addAndGet(count);
+      activeBorrowings.addAndGet(count);
+    });
+  }
+
+  /**
+   * Takes returned borrowings out of the active count and the overdue set once the return commits
+   * @param ids IDs of the returned borrowings
+   */
+  public void onReturned(Collection<UUID> ids) {
+    List<UUID> returned = List.copyOf(ids);
+    afterCommit(() -> {
+      activeBorrowings.addAndGet(-returned.size());
+      returned.forEach(this::removeOverdue);
+    });
+  }
+
+  /**
+   * Forgets a deleted borrowing once the deletion commits
+   * @param id ID of the deleted borrowing
+   * @param active Whether the borrowing was still out
+   */
+  public void onDeleted(UUID id, boolean active) {
+    afterCommit(() -> {
+      totalBorrowings.decrementAndGet();
+      if (active)
+        activeBorrowings.decrementAndGet();
+      removeOverdue(id);
+    });
+  }
+
+  /**
+   * Reads the overdue borrowings by id, a batch at a time, ordered by due date
+   * @return Overdue borrowings with their book and user
+   */
+  public List<BorrowingResponseDTO> getOverdueBorrowings() {
+    if (watermark == null) {
+      log.debug("Overdue tracker not loaded yet, falling back to a table query");
+      return borrowingRepository.findOverdueViews();
+    }
+
+    List<UUID> ids = List.copyOf(overdue);
+    List<BorrowingResponseDTO> borrowings = new ArrayList<>(ids.size());
+    for (int from = 0; from < ids.size(); from += REPORT_BATCH_SIZE) {
+      List<UUID> batch = ids.subList(from, Math.min(from + REPORT_BATCH_SIZE, ids.size()));
+      borrowingRepository.findViewsByIdIn(batch).stream()
+          .filter(borrowing -> !borrowing.returned())
+          .forEach(borrowings::add);
+    }
+    if (ids.size() > REPORT_BATCH_SIZE)
+      borrowings.sort(BY_DUE_DATE);
+    return borrowings;
+  }
+
+  public OverdueStatsDTO getStats() {
+    if (watermark == null)
+      return new OverdueStatsDTO(borrowingRepository.count(), borrowingRepository.countByReturnedFalse(),
+                                 borrowingRepository.findOverdueIds(currentCutoff()).size(), currentCutoff());
+
+    return new OverdueStatsDTO(totalBorrowings.get(), activeBorrowings.get(), overdue.size(), watermark);
+  }
+
+  private void removeOverdue(UUID id) {
+    overdue.remove(id);
+    if (sweeping) {
+      returnedDuringSweep.add(id);
+      // The sweep finished in between and may not have seen the id; its ids are already in
+      if (!sweeping)
+        overdue.remove(id);
+    }
+  }
+
+  private void beginSweep() {
+    returnedDuringSweep.clear();
+    sweeping = true;
+  }
+
+  private void endSweep() {
+    sweeping = false;
+    overdue.removeAll(returnedDuringSweep);
+    returnedDuringSweep.clear();
+  }
+
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+
+  // Same boundary as CURRENT_DATE in the overdue queries
+  private static LocalDateTime currentCutoff() {
+    return LocalDate.now().atStartOfDay();
+  }
+}
@@ -0,0 +1,216 @@
+package com.ilhanozkan.libraryManagementSystem.service.impl;
+
+import com.ilhanozkan.libraryManagementSystem.common.exception.report.ReportJobNotFoundException;
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.ReportJobDTO;
+import com.ilhanozkan.libraryManagementSystem.model.entity.ReportJob;
+import com.ilhanozkan.libraryManagementSystem.model.enums.ReportFormat;
+import com.ilhanozkan.libraryManagementSystem.model.enums.ReportJobStatus;
+import com.ilhanozkan.libraryManagementSystem.repository.ReportJobRepository;
+import com.ilhanozkan.libraryManagementSystem.service.ReportJobService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Renders overdue reports on a small worker pool into a file store. Requests for the same format
+ * share one job while it runs and for the freshness window after it completes, so a burst of librarians
+ * opening the dashboard costs one render. Jobs are kept in report_jobs and the files in a directory every
+ * instance mounts, so any instance can answer a poll or a download; two instances taking the same request
+ * at once may each render it. Finished reports are deleted once the retention period passes.
+ */
+@Service
+@Slf4j
+public class ReportJobServiceImpl implements ReportJobService {
+  private final BorrowingServiceImpl borrowingService;
+  private final ReportJobRepository reportJobRepository;
+  private final Path directory;
+  private final Duration freshness;
+  private final Duration retention;
+  private final ExecutorService workers;
+  // Makes identical requests on this instance share a job; ReentrantLock so waiting virtual threads are not pinned
+  private final Lock submitLock = new ReentrantLock();
+
+  public ReportJobServiceImpl(BorrowingServiceImpl borrowingService, ReportJobRepository reportJobRepository,
+                              @Value("${library.reports.directory:${java.io.tmpdir}/library-reports}") Path directory,
+                              @Value("${library.reports.workers:2}") int workers,
+                              @Value("${library.reports.freshness:5m}") Duration freshness,
+                              @Value("${library.reports.retention:1h}") Duration retention) {
+    this.borrowingService = borrowingService;
+    this.reportJobRepository = reportJobRepository;
+    this.directory = directory;
+    this.freshness = freshness;
+    this.retention = retention;
+    this.workers = Executors.newFixedThreadPool(workers, Thread.ofPlatform().name("report-worker-", 0).factory());
+    try {
+      Files.createDirectories(directory);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot create report directory " + directory, e);
+    }
+  }
+
+  public ReportJobDTO submitOverdueReport(ReportFormat format) {
+    submitLock.lock();
+    try {
+      ReportJob current = reportJobRepository.findFirstByFormatOrderByCreatedAtDesc(format).orElse(null);
+      if (isReusable(current)) {
+        log.debug("Reusing {} report job {} ({})", format, current.getId(), current.getStatus());
+        return toDTO(current);
+      }
+
+      ReportJob created = reportJobRepository.save(ReportJob.builder()
+          .format(format)
+          .status(ReportJobStatus.QUEUED)
+          .createdAt(LocalDateTime.now())
+          .build());
+      ReportJobDTO queued = toDTO(created);
+      workers.execute(() -> render(created));
+      log.info("Queued {} overdue report job {}", format, created.getId());
+      return queued;
+    } finally {
+      submitLock.unlock();
+    }
+  }
+
+  public ReportJobDTO getJob(UUID id) {
+    return toDTO(findJob(id));
+  }
+
+  public InputStream openReport(UUID id) {
+    ReportJob job = findJob(id);
+    if (job.getStatus() != ReportJobStatus.COMPLETED)
+      throw new IllegalStateException("Report job " + id + " is " + job.getStatus());
+
+    try {
+      return Files.newInputStream(directory.resolve(job.getFileName()));
+    } catch (NoSuchFileException e) {
+      // Expired and deleted since the job was read
+      throw new ReportJobNotFoundException(id);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot open report of job " + id, e);
+    }
+  }
+
+  /**
+   * Forgets jobs past the retention period and deletes report files as old. Files go by age rather than by job,
+   * which also clears those of jobs already forgotten and of renders cut off by a shutdown. A download holds its
+   * file open from before the response is written, and an open file is only gone once closed (where deleting it
+   * fails instead, the next run deletes it), so downloads in flight always finish.
+   */
+  @Scheduled(fixedDelayString = "${library.reports.cleanup-interval:PT5M}")
+  public void evictExpired() {
+    int evicted = reportJobRepository.deleteExpired(LocalDateTime.now().minus(retention));
+    Instant filesBefore = Instant.now().minus(retention);
+    try (Stream<Path> files = Files.list(directory)) {
+      files.filter(file -> modifiedBefore(file, filesBefore)).forEach(ReportJobServiceImpl::deleteQuietly);
+    } catch (IOException e) {
+      log.warn("Could not list report directory {}", directory, e);
+    }
+    log.debug("Evicted {} expired report jobs", evicted);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    workers.shutdownNow();
+  }
+
+  private boolean isReusable(ReportJob job) {
+    if (job == null)
+      return false;
+
+    LocalDateTime now = LocalDateTime.now();
+    return switch (job.getStatus()) {
+      // A job left unfinished by an instance that went away stops being handed out after the same window
+      case QUEUED, RUNNING -> job.getCreatedAt().plus(freshness).isAfter(now);
+      case COMPLETED -> job.getCompletedAt().plus(freshness).isAfter(now);
+      case FAILED -> false;
+    };
+  }
+
+  private void render(ReportJob job) {
+    job.setStatus(ReportJobStatus.RUNNING);
+    reportJobRepository.save(job);
+    long startedAt = System.currentTimeMillis();
+    String fileName = job.getId() + job.getFormat().getExtension();
+    Path file = directory.resolve(fileName);
+    Path partial = directory.resolve(fileName + ".part");
+
+    try {
+      // Written aside and moved into place, so a download never sees half a report
+      try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partial))) {
+        switch (job.getFormat()) {
+          case TEXT -> out.write(borrowingService.getOverdueBooksTextReport().getBytes(StandardCharsets.UTF_8));
+          case PDF -> borrowingService.writeOverdueBooksPDFReport(out);
+        }
+      }
+      Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+      job.setFileName(fileName);
+      job.setSizeBytes(Files.size(file));
+      job.setCompletedAt(LocalDateTime.now());
+      job.setStatus(ReportJobStatus.COMPLETED);
+      reportJobRepository.save(job);
+      log.info("Rendered {} overdue report job {} in {} ms, {} bytes",
+               job.getFormat(), job.getId(), System.currentTimeMillis() - startedAt, job.getSizeBytes());
+    } catch (Exception e) {
+      log.error("Failed to render {} overdue report job {}", job.getFormat(), job.getId(), e);
+      deleteQuietly(partial);
+      String error = e.getMessage();
+      job.setError(error != null && error.length() > ReportJob.MAX_ERROR_LENGTH
+                   ? error.substring(0, ReportJob.MAX_ERROR_LENGTH) : error);
+      job.setCompletedAt(LocalDateTime.now());
+      job.setStatus(ReportJobStatus.FAILED);
+      reportJobRepository.save(job);
+    }
+  }
+
+  private ReportJob findJob(UUID id) {
+    return reportJobRepository.findById(id).orElseThrow(() -> new ReportJobNotFoundException(id));
+  }
+
+  private static ReportJobDTO toDTO(ReportJob job) {
+    return new ReportJobDTO(job.getId(), job.getFormat(), job.getStatus(), job.getCreatedAt(), job.getCompletedAt(),
+                            job.getSizeBytes(), job.getError());
+  }
+
+  private static boolean modifiedBefore(Path file, Instant instant) {
+    try {
+      return Files.getLastModifiedTime(file).toInstant().isBefore(instant);
+    } catch (IOException e) {
+      // Deleted in the meantime
+      return false;
+    }
+  }
+
+  private static void deleteQuietly(Path file) {
+    if (file == null)
+      return;
+
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      log.warn("Could not delete report file {}", file, e);
+    }
+  }
+}
@@ -5,14 +5,19 @@ import com.ilhanozkan.libraryManagementSystem.model.dto.request.UserRequestDTO;
 import com.ilhanozkan.libraryManagementSystem.model.dto.response.PagedResponse;
 import com.ilhanozkan.libraryManagementSystem.model.dto.response.UserResponseDTO;
 import com.ilhanozkan.libraryManagementSystem.model.entity.User;
+import com.ilhanozkan.libraryManagementSystem.model.enums.UserRole;
 import com.ilhanozkan.libraryManagementSystem.model.enums.UserStatus;
 import com.ilhanozkan.libraryManagementSystem.common.exception.ResourceNotFoundException;
 import com.ilhanozkan.libraryManagementSystem.model.mapper.UserResponseDTOMapper;
 import com.ilhanozkan.libraryManagementSystem.repository.UserRepository;
+import com.ilhanozkan.libraryManagementSystem.security.PrincipalCache;
+import com.ilhanozkan.libraryManagementSystem.security.TokenRevocationList;
 import com.ilhanozkan.libraryManagementSystem.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.coyote.BadRequestException;
+import com.ilhanozkan.libraryManagementSystem.util.KeysetCursor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -29,6 +34,8 @@ import java.util.UUID;
 public class UserServiceImpl implements UserService {
   private final UserRepository userRepository;
   private final PasswordEncoder passwordEncoder;
+  private final PrincipalCache principalCache;
+  private final TokenRevocationList tokenRevocationList;
   private final UserResponseDTOMapper mapper = UserResponseDTOMapper.INSTANCE;
 
   public PagedResponse<UserResponseDTO> getUsers(Pageable pageable) {
@@ -47,6 +54,25 @@ public class UserServiceImpl implements UserService {
         .build();
   }
 
+  /**
+   * Returns the page of users ordered by username that follows the cursor, without counting all users
+   *
+   * @param cursor Cursor from the previous page, blank for the first page
+   * @param size Number of users per page
+   * @return Page of users with the cursor of the next page
+   */
+  public PagedResponse<UserResponseDTO> getUsersByCursor(String cursor, int size) {
+    log.debug("Fetching users after cursor: {}, size={}", cursor, size);
+    KeysetCursor after = KeysetCursor.decode(cursor);
+    Limit limit = Limit.of(size + 1);
+    List<User> users = after == null
+        ? userRepository.findFirstByKeyset(limit)
+        : userRepository.findAfterByKeyset(after.sortKey(), after.id(), limit);
+
+    return PagedResponse.fromKeyset(users, size, mapper::toUserResponseDTOList,
+        user -> new KeysetCursor(user.getUsername(), user.getId()));
+  }
+
   public UserResponseDTO getUserById(UUID id) {
     log.debug("Getting user by ID: {}", id);
     User user = userRepository.findById(id)
@@ -65,12 +91,12 @@ public class UserServiceImpl implements UserService {
     // Validate the email format
     if (email == null || email.trim().isEmpty()) {
       log.warn("Email validation failed: email is required");
-      throw new RuntimeException("Email is required");
+      throw new IllegalArgumentException("Email is required");
     }
 
     if (!email.matches("^[A-Za-z0-9+_.-]+@(.+)$")) {
       log.warn("Email validation failed: invalid email format: {}", email);
-      throw new RuntimeException("Email is not valid");
+      throw new IllegalArgumentException("Email is not valid");
     }
 
     Optional<User> user = userRepository.findByEmail(email);
@@ -88,33 +114,33 @@ public class UserServiceImpl implements UserService {
     
     if (userRequestDTO.password() == null || userRequestDTO.password().isEmpty()) {
       log.warn("User creation failed: password is required");
-      throw new RuntimeException("Password is required");
+      throw new IllegalArgumentException("Password is required");
     }
 
     if (userRequestDTO.email() == null || userRequestDTO.email().trim().isEmpty()) {
       log.warn("User creation failed: email is required");
-      throw new RuntimeException("Email is required");
+      throw new IllegalArgumentException("Email is required");
     }
 
     // Check if the email is valid
     if (!userRequestDTO.email().matches("^[A-Za-z0-9+_.-]+@(.+)$")) {
       log.warn("User creation failed: invalid email format: {}", userRequestDTO.email());
-      throw new RuntimeException("Email is not valid");
+      throw new IllegalArgumentException("Email is not valid");
     }
 
     if (userRequestDTO.password().length() < 8) {
       log.warn("User creation failed: password too short");
-      throw new RuntimeException("Password length should be at least 8 characters");
+      throw new IllegalArgumentException("Password length should be at least 8 characters");
     }
 
     if (userRepository.existsByUsername(userRequestDTO.username())) {
       log.warn("User creation failed: username '{}' already exists", userRequestDTO.username());
-      throw new RuntimeException("Username already exists");
+      throw new IllegalArgumentException("Username already exists");
     }
 
     if (userRepository.existsByEmail(userRequestDTO.email())) {
       log.warn("User creation failed: email '{}' already exists", userRequestDTO.email());
-      throw new RuntimeException("Email already exists");
+      throw new IllegalArgumentException("Email already exists");
     }
 
     log.debug("Encoding password for new user");
@@ -142,6 +168,11 @@ public class UserServiceImpl implements UserService {
           log.warn("User not found with ID: {}", id);
           return new UserNotFoundException(id);
         });
+    // Role, status and password all live in the cached principal; a rename must drop the old name too
+    principalCache.evict(user.getUsername());
+    String previousUsername = user.getUsername();
+    UserRole previousRole = user.getRole();
+    UserStatus previousStatus = user.getStatus();
 
     // Check username uniqueness
     if (userRequestDTO.username() != null && !userRequestDTO.username().equals(user.getUsername())) {
@@ -195,6 +226,11 @@ public class UserServiceImpl implements UserService {
     }
 
     User updatedUser = userRepository.save(user);
+    principalCache.evict(updatedUser.getUsername());
+    // Tokens carrying the old name, role or status must not authorize stateless requests any more
+    if (!previousUsername.equals(updatedUser.getUsername()) || previousRole != updatedUser.getRole()
+        || previousStatus != updatedUser.getStatus())
+      tokenRevocationList.revoke(updatedUser.getId());
     log.info("User updated successfully: {}", updatedUser.getUsername());
     return mapper.toUserResponseDTO(updatedUser);
   }
@@ -210,6 +246,8 @@ public class UserServiceImpl implements UserService {
     
     log.debug("Found user to delete: {}", user.getUsername());
     userRepository.delete(user);
+    principalCache.evict(user.getUsername());
+    tokenRevocationList.revoke(user.getId());
     log.info("User deleted successfully: {}", user.getUsername());
   }
 
@@ -225,6 +263,8 @@ public class UserServiceImpl implements UserService {
     log.debug("Changing user status from {} to {}", user.getStatus(), UserStatus.INACTIVE);
     user.setStatus(UserStatus.INACTIVE);
     User deactivatedUser = userRepository.save(user);
+    principalCache.evict(user.getUsername());
+    tokenRevocationList.revoke(user.getId());
     log.info("User deactivated successfully: {}", user.getUsername());
     return mapper.toUserResponseDTO(deactivatedUser);
   }
@@ -0,0 +1,91 @@
+package com.ilhanozkan.libraryManagementSystem.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 style CSV one record at a time, so input of any size is parsed in constant memory.
+ * Quoted fields may contain commas, doubled quotes and line breaks.
+ */
+public class CsvRecordReader {
+  private final Reader reader;
+  private int line = 1;
+  private int recordLine = 1;
+  private int pushedBack = -1;
+
+  public CsvRecordReader(Reader reader) {
+    this.reader = reader;
+  }
+
+  /**
+   * Reads the next record
+   *
+   * @return Fields of the record, or null at the end of the input
+   */
+  public List<String> next() throws IOException {
+    int c = read();
+    if (c == -1)
+      return null;
+
+    recordLine = line;
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    while (true) {
+      if (quoted) {
+        if (c == -1)
+          throw new IOException("Unterminated quoted field starting on line " + recordLine);
+        if (c == '"') {
+          int following = read();
+          if (following == '"') {
+            field.append('"');
+          } else {
+            quoted = false;
+            c = following;
+            continue;
+          }
+        } else {
+          field.append((char) c);
+        }
+      } else if (c == '"' && field.isEmpty()) {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else if (c == '\r' || c == '\n' || c == -1) {
+        if (c == '\r') {
+          int following = read();
+          if (following != '\n')
+            pushedBack = following;
+        }
+        fields.add(field.toString());
+        return fields;
+      } else {
+        field.append((char) c);
+      }
+      c = read();
+    }
+  }
+
+  /**
+   * @return Line on which the record last returned by {@link #next()} starts
+   */
+  public int getRecordLine() {
+    return recordLine;
+  }
+
+  private int read() throws IOException {
+    int c;
+    if (pushedBack != -1) {
+      c = pushedBack;
+      pushedBack = -1;
+    } else {
+      c = reader.read();
+    }
+    if (c == '\n')
+      line++;
+    return c;
+  }
+}
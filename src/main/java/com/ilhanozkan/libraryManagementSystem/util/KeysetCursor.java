@@ -0,0 +1,43 @@
+package com.ilhanozkan.libraryManagementSystem.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the last row of a keyset page: its sort key plus the id that breaks ties.
+ * Clients only ever see the encoded form and hand it back unchanged.
+ */
+public record KeysetCursor(String sortKey, UUID id) {
+  private static final char SEPARATOR = '|';
+
+  /**
+   * Encodes the cursor as an opaque URL-safe token
+   *
+   * @return The encoded cursor
+   */
+  public String encode() {
+    String raw = id.toString() + SEPARATOR + sortKey;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Decodes a token produced by {@link #encode()}
+   *
+   * @param cursor The encoded cursor, blank for the first page
+   * @return The decoded cursor, or null when the first page is requested
+   */
+  public static KeysetCursor decode(String cursor) {
+    if (cursor == null || cursor.isBlank())
+      return null;
+
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      // The id has a fixed format, so the sort key may contain anything including the separator
+      int separator = raw.indexOf(SEPARATOR);
+      return new KeysetCursor(raw.substring(separator + 1), UUID.fromString(raw.substring(0, separator)));
+    } catch (IllegalArgumentException | StringIndexOutOfBoundsException e) {
+      throw new IllegalArgumentException("Invalid cursor: " + cursor);
+    }
+  }
+}
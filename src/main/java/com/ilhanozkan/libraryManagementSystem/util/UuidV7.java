@@ -0,0 +1,40 @@
+package com.ilhanozkan.libraryManagementSystem.util;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUIDs as specified by RFC 9562 version 7: 48 bits of Unix milliseconds, a 12 bit
+ * counter and 62 random bits. New keys land at the right edge of a B-tree index instead of on a
+ * random page, so inserts stop splitting pages all over the primary key.
+ */
+public final class UuidV7 {
+  // Milliseconds shifted left by 12 plus the counter, so ids from this JVM are strictly increasing
+  private static final AtomicLong lastTimeAndCounter = new AtomicLong();
+
+  private UuidV7() {
+  }
+
+  /**
+   * Generates a version 7 UUID later than every other one generated by this JVM
+   *
+   * @return The new UUID
+   */
+  public static UUID generate() {
+    long now = System.currentTimeMillis() << 12;
+    long timeAndCounter = lastTimeAndCounter.updateAndGet(last -> Math.max(now, last + 1));
+
+    long mostSignificant = (timeAndCounter >>> 12) << 16 | 0x7000L | (timeAndCounter & 0xFFFL);
+    long leastSignificant = ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+    return new UUID(mostSignificant, leastSignificant);
+  }
+
+  /**
+   * @param uuid A version 7 UUID
+   * @return Unix milliseconds at which it was generated
+   */
+  public static long timestampMillis(UUID uuid) {
+    return uuid.getMostSignificantBits() >>> 16;
+  }
+}
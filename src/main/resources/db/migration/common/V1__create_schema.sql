@@ -0,0 +1,74 @@
+-- Tables, keys and the indexes every supported database can build.
+-- IF NOT EXISTS lets a database that Hibernate created earlier with ddl-auto adopt this history:
+-- it is baselined at version 0 and this script only adds what is missing.
+-- Foreign keys come in V2, once their indexes exist, so H2 does not add an index of its own for each.
+
+CREATE TABLE IF NOT EXISTS users (
+    id       UUID         NOT NULL,
+    username VARCHAR(255) NOT NULL,
+    email    VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    name     VARCHAR(255) NOT NULL,
+    surname  VARCHAR(255) NOT NULL,
+    role     SMALLINT     NOT NULL,
+    status   SMALLINT     NOT NULL,
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS books (
+    id                 UUID         NOT NULL,
+    name               VARCHAR(255) NOT NULL,
+    isbn               VARCHAR(255) NOT NULL,
+    author             VARCHAR(255) NOT NULL,
+    publisher          VARCHAR(255) NOT NULL,
+    number_of_pages    INTEGER      NOT NULL CHECK (number_of_pages >= 0),
+    quantity           INTEGER      NOT NULL CHECK (quantity >= 0),
+    available_quantity INTEGER      NOT NULL CHECK (available_quantity >= 0),
+    genre              SMALLINT     NOT NULL,
+    version            BIGINT       DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_books PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS borrowings (
+    id          UUID         NOT NULL,
+    book_id     UUID         NOT NULL,
+    user_id     UUID         NOT NULL,
+    borrow_date TIMESTAMP(6) NOT NULL,
+    due_date    TIMESTAMP(6) NOT NULL,
+    return_date TIMESTAMP(6),
+    returned    BOOLEAN      NOT NULL,
+    updated_at  TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_borrowings PRIMARY KEY (id)
+);
+
+CREATE SEQUENCE IF NOT EXISTS availability_events_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS availability_events (
+    seq                BIGINT       NOT NULL,
+    book_id            UUID         NOT NULL,
+    book_name          VARCHAR(255) NOT NULL,
+    isbn               VARCHAR(255),
+    genre              SMALLINT,
+    total_quantity     INTEGER      NOT NULL,
+    available_quantity INTEGER      NOT NULL,
+    timestamp          BIGINT       NOT NULL,
+    CONSTRAINT pk_availability_events PRIMARY KEY (seq)
+);
+
+-- Keyset pages of the catalog by name
+CREATE INDEX IF NOT EXISTS idx_books_name_id ON books (name, id);
+
+-- Lookups and upserts by ISBN; one book per ISBN
+CREATE UNIQUE INDEX IF NOT EXISTS uk_books_isbn ON books (isbn);
+DROP INDEX IF EXISTS idx_books_isbn;
+
+-- Keyset pages of all borrowings by borrow date
+CREATE INDEX IF NOT EXISTS idx_borrowings_borrow_date_id ON borrowings (borrow_date, id);
+
+-- A user's borrowings, newest first, optionally only the active ones
+CREATE INDEX IF NOT EXISTS idx_borrowings_user_borrow_date ON borrowings (user_id, borrow_date DESC, id);
+
+-- Borrowings of a book, and the foreign key check when a book is deleted
+CREATE INDEX IF NOT EXISTS idx_borrowings_book_id ON borrowings (book_id);
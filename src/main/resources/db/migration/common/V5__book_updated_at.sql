@@ -0,0 +1,4 @@
+-- Last change of each book, sent as Last-Modified by the book endpoints.
+-- Existing rows (and rows written without it) take the migration time.
+
+ALTER TABLE books ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6) DEFAULT LOCALTIMESTAMP NOT NULL;
@@ -0,0 +1,10 @@
+-- Users whose tokens issued up to revoked_at (epoch milliseconds) are rejected in stateless principal mode.
+-- Shared by every instance and kept across restarts; rows older than one token lifetime are pruned.
+
+CREATE TABLE IF NOT EXISTS token_revocations (
+    user_id    UUID   NOT NULL,
+    revoked_at BIGINT NOT NULL,
+    CONSTRAINT pk_token_revocations PRIMARY KEY (user_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_token_revocations_revoked_at ON token_revocations (revoked_at);
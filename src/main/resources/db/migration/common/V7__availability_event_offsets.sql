@@ -0,0 +1,21 @@
+-- Stream offsets are handed out after commit, in commit order, so a reader that has seen an offset has seen every
+-- offset below it. seq stays the row id: it is taken at insert, and inserts can commit out of seq order.
+
+ALTER TABLE availability_events ADD COLUMN IF NOT EXISTS stream_offset BIGINT;
+
+UPDATE availability_events SET stream_offset = seq WHERE stream_offset IS NULL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_availability_events_stream_offset ON availability_events (stream_offset);
+
+-- Retention prunes by event time
+CREATE INDEX IF NOT EXISTS idx_availability_events_timestamp ON availability_events (timestamp);
+
+-- Single row holding the last offset handed out; offsets are assigned under its row lock
+CREATE TABLE IF NOT EXISTS availability_event_offsets (
+    id          SMALLINT NOT NULL,
+    last_offset BIGINT   NOT NULL,
+    CONSTRAINT pk_availability_event_offsets PRIMARY KEY (id)
+);
+
+INSERT INTO availability_event_offsets (id, last_offset)
+SELECT 1, COALESCE(MAX(seq), 0) FROM availability_events;
@@ -0,0 +1,12 @@
+-- Version of the whole book catalog, the validator of list and search pages on every instance.
+-- Moved on after each committed change to a book, in a transaction of its own, so writers only hold its
+-- row lock for that one update. changed_at is epoch milliseconds and is sent as Last-Modified.
+
+CREATE TABLE IF NOT EXISTS book_catalog_version (
+    id         SMALLINT NOT NULL,
+    version    BIGINT   NOT NULL,
+    changed_at BIGINT   NOT NULL,
+    CONSTRAINT pk_book_catalog_version PRIMARY KEY (id)
+);
+
+INSERT INTO book_catalog_version (id, version, changed_at) VALUES (1, 0, 0);
@@ -0,0 +1,18 @@
+-- Overdue report jobs, shared by every instance so a job queued on one can be polled and downloaded through any.
+-- The rendered reports are files in library.reports.directory, which every instance mounts; file_name is relative
+-- to it. Jobs past the retention period are pruned together with their files.
+
+CREATE TABLE IF NOT EXISTS report_jobs (
+    id           UUID          NOT NULL,
+    format       SMALLINT      NOT NULL,
+    status       SMALLINT      NOT NULL,
+    created_at   TIMESTAMP(6)  NOT NULL,
+    completed_at TIMESTAMP(6),
+    size_bytes   BIGINT,
+    error        VARCHAR(1000),
+    file_name    VARCHAR(255),
+    CONSTRAINT pk_report_jobs PRIMARY KEY (id)
+);
+
+-- Identical requests look up the latest job of their format
+CREATE INDEX IF NOT EXISTS idx_report_jobs_format_created_at ON report_jobs (format, created_at);
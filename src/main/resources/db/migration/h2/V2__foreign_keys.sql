@@ -0,0 +1,3 @@
+-- Added after V1 so H2 backs each key with the existing book_id and user_id indexes
+ALTER TABLE borrowings ADD CONSTRAINT IF NOT EXISTS fk_borrowings_book FOREIGN KEY (book_id) REFERENCES books (id);
+ALTER TABLE borrowings ADD CONSTRAINT IF NOT EXISTS fk_borrowings_user FOREIGN KEY (user_id) REFERENCES users (id);
@@ -0,0 +1,3 @@
+-- H2 has no partial indexes, so the returned flag leads the overdue index instead
+
+CREATE INDEX IF NOT EXISTS idx_borrowings_overdue ON borrowings (returned, due_date, id);
@@ -0,0 +1,13 @@
+-- A database Hibernate created already has these keys under generated names, so add them only where missing
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE contype = 'f' AND conrelid = 'borrowings'::regclass AND confrelid = 'books'::regclass) THEN
+        ALTER TABLE borrowings ADD CONSTRAINT fk_borrowings_book FOREIGN KEY (book_id) REFERENCES books (id);
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE contype = 'f' AND conrelid = 'borrowings'::regclass AND confrelid = 'users'::regclass) THEN
+        ALTER TABLE borrowings ADD CONSTRAINT fk_borrowings_user FOREIGN KEY (user_id) REFERENCES users (id);
+    END IF;
+END
+$$;
@@ -0,0 +1,7 @@
+-- Partial indexes over the borrowings still out, a small and hot slice of the table.
+
+-- Overdue report and the OVERDUE filter: returned = false AND due_date < now, ordered by due date
+CREATE INDEX IF NOT EXISTS idx_borrowings_overdue ON borrowings (due_date, id) WHERE returned = false;
+
+-- A user's active borrowings
+CREATE INDEX IF NOT EXISTS idx_borrowings_user_active ON borrowings (user_id, borrow_date DESC, id) WHERE returned = false;
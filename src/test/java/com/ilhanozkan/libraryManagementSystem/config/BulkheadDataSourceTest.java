@@ -0,0 +1,100 @@
+package com.ilhanozkan.libraryManagementSystem.config;
+
+import com.ilhanozkan.libraryManagementSystem.common.exception.ConnectionBulkheadFullException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class BulkheadDataSourceTest {
+
+    private DataSource pool;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        pool = mock(DataSource.class);
+        given(pool.getConnection()).willAnswer(invocation -> mock(Connection.class));
+    }
+
+    @Test
+    public void shouldRejectWhenNoConnectionIsFreeWithinTheWaitLimit() throws SQLException {
+        // Arrange
+        BulkheadDataSource bulkhead = new BulkheadDataSource(pool, 1, 10, Duration.ofMillis(50));
+        bulkhead.getConnection();
+
+        // Act & Assert
+        assertThatThrownBy(bulkhead::getConnection).isInstanceOf(ConnectionBulkheadFullException.class);
+        assertThat(bulkhead.getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldRejectImmediatelyWhenTooManyCallersAreWaiting() throws Exception {
+        // Arrange: one caller holds the only connection and another waits for it
+        BulkheadDataSource bulkhead = new BulkheadDataSource(pool, 1, 1, Duration.ofSeconds(5));
+        Connection held = bulkhead.getConnection();
+        CompletableFuture<Connection> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return bulkhead.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (bulkhead.getWaiting() == 0)
+            Thread.onSpinWait();
+
+        // Act
+        long startedAt = System.nanoTime();
+        assertThatThrownBy(bulkhead::getConnection).isInstanceOf(ConnectionBulkheadFullException.class);
+        long rejectedAfter = System.nanoTime() - startedAt;
+        held.close();
+
+        // Assert: turned away without waiting, while the queued caller still gets the connection
+        assertThat(TimeUnit.NANOSECONDS.toMillis(rejectedAfter)).isLessThan(1000);
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isNotNull();
+    }
+
+    @Test
+    public void shouldReturnThePermitOnceWhenTheConnectionIsClosed() throws SQLException {
+        // Arrange
+        BulkheadDataSource bulkhead = new BulkheadDataSource(pool, 1, 0, Duration.ZERO);
+        Connection connection = bulkhead.getConnection();
+        Connection target = ((ConnectionProxy) connection).getTargetConnection();
+
+        // Act: closing twice must not hand out a second permit
+        connection.close();
+        connection.close();
+        Connection next = bulkhead.getConnection();
+
+        // Assert
+        assertThat(connection.isClosed()).isTrue();
+        verify(target, times(1)).close();
+        assertThatThrownBy(bulkhead::getConnection).isInstanceOf(ConnectionBulkheadFullException.class);
+        next.close();
+    }
+
+    @Test
+    public void shouldReturnThePermitWhenThePoolFails() throws SQLException {
+        // Arrange
+        given(pool.getConnection()).willThrow(new SQLException("pool exhausted")).willAnswer(invocation -> mock(Connection.class));
+        BulkheadDataSource bulkhead = new BulkheadDataSource(pool, 1, 0, Duration.ZERO);
+
+        // Act
+        assertThatThrownBy(bulkhead::getConnection).hasMessage("pool exhausted");
+
+        // Assert
+        assertThat(bulkhead.getConnection()).isNotNull();
+    }
+}
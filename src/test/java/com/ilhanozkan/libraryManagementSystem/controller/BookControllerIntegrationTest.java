@@ -1,6 +1,10 @@
 package com.ilhanozkan.libraryManagementSystem.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.jayway.jsonpath.JsonPath;
 import com.ilhanozkan.libraryManagementSystem.model.dto.request.BookRequestDTO;
 import com.ilhanozkan.libraryManagementSystem.model.entity.Book;
 import com.ilhanozkan.libraryManagementSystem.model.entity.User;
@@ -20,12 +24,16 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -121,6 +129,44 @@ public class BookControllerIntegrationTest {
                 .andDo(print());
     }
 
+    @Test
+    public void shouldWalkBooksByCursor() throws Exception {
+        // Given
+        bookRepository.save(Book.builder()
+                .name("Another Book")
+                .isbn("9781234567891")
+                .author("Test Author")
+                .publisher("Test Publisher")
+                .numberOfPages(100)
+                .quantity(1)
+                .availableQuantity(1)
+                .genre(BookGenre.SCIENCE_FICTION)
+                .build());
+
+        // When
+        String firstPage = mockMvc.perform(get("/books")
+                        .param("cursor", "")
+                        .param("size", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name", is("Another Book")))
+                .andExpect(jsonPath("$.last", is(false)))
+                .andReturn().getResponse().getContentAsString();
+        String nextCursor = JsonPath.read(firstPage, "$.nextCursor");
+
+        ResultActions response = mockMvc.perform(get("/books")
+                .param("cursor", nextCursor)
+                .param("size", "1")
+                .contentType(MediaType.APPLICATION_JSON));
+
+        // Then
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].name", is("Test Book")))
+                .andExpect(jsonPath("$.last", is(true)))
+                .andDo(print());
+    }
+
     @Test
     public void shouldGetBookById() throws Exception {
         // When
@@ -285,4 +331,133 @@ public class BookControllerIntegrationTest {
                 .andExpect(jsonPath("$.content[0].name", is("Test Book")))
                 .andDo(print());
     }
-} 
\ No newline at end of file
+
+    @Test
+    public void shouldAnswerConditionalGetOfBookWithNotModifiedUntilItChanges() throws Exception {
+        // Given
+        String eTag = mockMvc.perform(get("/books/{id}", testBook.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // When
+        ResultActions unchanged = mockMvc.perform(get("/books/{id}", testBook.getId())
+                .header("If-None-Match", eTag));
+        mockMvc.perform(put("/books/{id}/available-quantity", testBook.getId())
+                .header("Authorization", "Bearer " + librarianToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"availableQuantity\": 7}"))
+                .andExpect(status().isOk());
+        ResultActions changed = mockMvc.perform(get("/books/{id}", testBook.getId())
+                .header("If-None-Match", eTag));
+
+        // Then
+        assertThat(eTag).startsWith("W/");
+        unchanged.andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(header().stringValues("Vary", hasItem("Accept")))
+                .andExpect(content().string(""));
+        changed.andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableQuantity", is(7)))
+                .andExpect(header().string("ETag", not(eTag)));
+    }
+
+    @Test
+    public void shouldValidateCatalogPagesAgainstCatalogVersion() throws Exception {
+        // Given
+        MvcResult first = mockMvc.perform(get("/books"))
+                .andExpect(status().isOk())
+                .andReturn();
+        String eTag = first.getResponse().getHeader("ETag");
+        String lastModified = first.getResponse().getHeader("Last-Modified");
+
+        // When
+        ResultActions byETag = mockMvc.perform(get("/books").header("If-None-Match", eTag));
+        ResultActions byDate = mockMvc.perform(get("/books").header("If-Modified-Since", lastModified));
+        mockMvc.perform(delete("/books/{id}", testBook.getId())
+                .header("Authorization", "Bearer " + librarianToken))
+                .andExpect(status().isOk());
+        ResultActions afterDelete = mockMvc.perform(get("/books").header("If-None-Match", eTag));
+
+        // Then
+        byETag.andExpect(status().isNotModified());
+        byDate.andExpect(status().isNotModified());
+        afterDelete.andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(0)));
+    }
+
+    @Test
+    public void shouldRevalidateCatalogPagesChangedOnAnotherInstance() throws Exception {
+        // Given
+        String eTag = mockMvc.perform(get("/books"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // When: another instance commits a change and moves the shared catalog version on
+        bookRepository.advanceCatalogVersion();
+        ResultActions response = mockMvc.perform(get("/books").header("If-None-Match", eTag));
+
+        // Then
+        response.andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(eTag)));
+    }
+
+    @Test
+    public void shouldLetClientsKeepValidatedResponsesButRevalidateThem() throws Exception {
+        for (String path : new String[]{"/books", "/books/" + testBook.getId(), "/books/isbn/" + testBook.getIsbn(),
+                "/enums/book-genres"}) {
+            // Given
+            String eTag = mockMvc.perform(get(path).header("Authorization", "Bearer " + patronToken))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Cache-Control", "no-cache"))
+                    .andReturn().getResponse().getHeader("ETag");
+
+            // When
+            ResultActions revalidation = mockMvc.perform(get(path)
+                    .header("Authorization", "Bearer " + patronToken)
+                    .header("If-None-Match", eTag));
+
+            // Then
+            revalidation.andExpect(status().isNotModified())
+                    .andExpect(header().string("Cache-Control", "no-cache"))
+                    .andExpect(header().doesNotExist("Pragma"));
+        }
+    }
+
+    @Test
+    public void shouldAnswerConditionalGetOfGenresWithNotModified() throws Exception {
+        // Given
+        String eTag = mockMvc.perform(get("/enums/book-genres").header("Authorization", "Bearer " + patronToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // When
+        ResultActions response = mockMvc.perform(get("/enums/book-genres")
+                .header("Authorization", "Bearer " + patronToken)
+                .header("If-None-Match", eTag));
+
+        // Then
+        response.andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void shouldEncodeBookPagesAsCborOrSmileWhenAccepted() throws Exception {
+        // When
+        byte[] cbor = mockMvc.perform(get("/books").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andExpect(header().stringValues("Vary", hasItem("Accept")))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] smile = mockMvc.perform(get("/books").accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then: same document as the JSON response
+        JsonNode fromCbor = new CBORMapper().readTree(cbor);
+        JsonNode fromSmile = new SmileMapper().readTree(smile);
+        assertThat(fromCbor.path("content").get(0).path("name").asText()).isEqualTo("Test Book");
+        assertThat(fromCbor.path("totalElements").asLong()).isEqualTo(1);
+        assertThat(fromSmile).isEqualTo(fromCbor);
+    }
+}
@@ -0,0 +1,121 @@
+package com.ilhanozkan.libraryManagementSystem.controller;
+
+import com.ilhanozkan.libraryManagementSystem.model.entity.Book;
+import com.ilhanozkan.libraryManagementSystem.model.entity.User;
+import com.ilhanozkan.libraryManagementSystem.model.enums.BookGenre;
+import com.ilhanozkan.libraryManagementSystem.model.enums.UserRole;
+import com.ilhanozkan.libraryManagementSystem.model.enums.UserStatus;
+import com.ilhanozkan.libraryManagementSystem.repository.BookRepository;
+import com.ilhanozkan.libraryManagementSystem.repository.UserRepository;
+import com.ilhanozkan.libraryManagementSystem.security.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A small bulkhead the test can drain; stateless principals so that authentication itself needs no connection
+ */
+@SpringBootTest(properties = {
+        "library.jdbc.bulkhead.enabled=true",
+        "library.jdbc.bulkhead.max-concurrent=" + BorrowingControllerBulkheadTest.PERMITS,
+        "library.jdbc.bulkhead.max-waiting=10",
+        "library.jdbc.bulkhead.max-wait=200ms",
+        "library.security.stateless-principal=true"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class BorrowingControllerBulkheadTest {
+
+    static final int PERMITS = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private User patron;
+    private Book book;
+    private String patronToken;
+
+    @BeforeEach
+    void setUp() {
+        patron = userRepository.save(User.builder()
+                .username("bulkhead-patron")
+                .email("bulkhead-patron@test.com")
+                .password("password")
+                .name("Bulkhead")
+                .surname("Patron")
+                .role(UserRole.PATRON)
+                .status(UserStatus.ACTIVE)
+                .build());
+        book = bookRepository.save(Book.builder()
+                .name("Bulkhead Book")
+                .isbn("9790000000077")
+                .author("Bulkhead Author")
+                .publisher("Bulkhead Publisher")
+                .numberOfPages(100)
+                .quantity(2)
+                .availableQuantity(2)
+                .genre(BookGenre.CLASSIC)
+                .build());
+        patronToken = jwtService.generateTokenFor(patron);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteById(book.getId());
+        userRepository.deleteById(patron.getId());
+    }
+
+    @Test
+    public void shouldAnswerServiceUnavailableWhenNoConnectionIsLeft() throws Exception {
+        // Given: every permitted connection is taken
+        List<Connection> held = new ArrayList<>();
+        ResultActions response;
+        try {
+            for (int i = 0; i < PERMITS; i++) {
+                held.add(dataSource.getConnection());
+            }
+
+            // When
+            response = mockMvc.perform(post("/borrowings")
+                    .header("Authorization", "Bearer " + patronToken)
+                    .param("bookId", book.getId().toString()));
+        } finally {
+            for (Connection connection : held) {
+                connection.close();
+            }
+        }
+
+        // Then: overload, not a bad request
+        response.andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+        assertThat(bookRepository.findById(book.getId()).orElseThrow().getAvailableQuantity()).isEqualTo(2);
+    }
+}
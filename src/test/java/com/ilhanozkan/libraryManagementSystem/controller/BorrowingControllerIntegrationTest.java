@@ -11,21 +11,31 @@ import com.ilhanozkan.libraryManagementSystem.repository.BookRepository;
 import com.ilhanozkan.libraryManagementSystem.repository.BorrowingRepository;
 import com.ilhanozkan.libraryManagementSystem.repository.UserRepository;
 import com.ilhanozkan.libraryManagementSystem.security.JwtService;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.io.ByteArrayInputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -130,8 +140,73 @@ public class BorrowingControllerIntegrationTest {
 
         // Then
         response.andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].id").exists())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id").exists())
+                .andExpect(jsonPath("$.last", is(true)))
+                .andDo(print());
+    }
+
+    @Test
+    public void shouldFilterBorrowingsByStatus() throws Exception {
+        // When
+        ResultActions active = mockMvc.perform(get("/borrowings")
+                .header("Authorization", "Bearer " + librarianToken)
+                .param("status", "ACTIVE")
+                .param("bookId", testBook.getId().toString())
+                .contentType(MediaType.APPLICATION_JSON));
+        ResultActions returned = mockMvc.perform(get("/borrowings")
+                .header("Authorization", "Bearer " + librarianToken)
+                .param("status", "RETURNED")
+                .contentType(MediaType.APPLICATION_JSON));
+
+        // Then
+        active.andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].returned", is(false)));
+        returned.andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(0)))
+                .andDo(print());
+    }
+
+    @Test
+    public void shouldExportBorrowingsAsCsv() throws Exception {
+        // When
+        MvcResult started = mockMvc.perform(get("/borrowings/export")
+                        .header("Authorization", "Bearer " + librarianToken)
+                        .param("userId", patron.getId().toString()))
+                .andReturn();
+        // The body is written on an async thread; wait for it before dispatching
+        started.getAsyncResult();
+        ResultActions response = mockMvc.perform(asyncDispatch(started));
+
+        // Then
+        response.andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=borrowings.csv"))
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string(startsWith("id,bookId,bookName")))
+                .andExpect(content().string(containsString(testBorrowing.getId() + "," + testBook.getId() + ",Test Book,")));
+    }
+
+    @Test
+    public void shouldNotExportBorrowingsWhenPatron() throws Exception {
+        // When
+        ResultActions response = mockMvc.perform(get("/borrowings/export")
+                .header("Authorization", "Bearer " + patronToken));
+
+        // Then
+        response.andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void shouldRejectInvalidBorrowingsCursor() throws Exception {
+        // When
+        ResultActions response = mockMvc.perform(get("/borrowings")
+                .header("Authorization", "Bearer " + librarianToken)
+                .param("cursor", "not-a-cursor")
+                .contentType(MediaType.APPLICATION_JSON));
+
+        // Then
+        response.andExpect(status().isBadRequest())
                 .andDo(print());
     }
 
@@ -260,6 +335,33 @@ public class BorrowingControllerIntegrationTest {
         assertThat(updatedBook.getAvailableQuantity()).isEqualTo(11); // Expecting 10 + 1 = 11
     }
 
+    @Test
+    public void shouldNotReturnAnotherUsersBorrowing() throws Exception {
+        // Given
+        User otherPatron = userRepository.save(User.builder()
+                .username("otherpatron")
+                .email("otherpatron@test.com")
+                .password("password")
+                .name("Other")
+                .surname("Patron")
+                .role(UserRole.PATRON)
+                .status(UserStatus.ACTIVE)
+                .build());
+        String otherPatronToken = jwtService.generateToken(otherPatron.getUsername());
+
+        // When
+        ResultActions response = mockMvc.perform(put("/borrowings/{id}/return", testBorrowing.getId())
+                .header("Authorization", "Bearer " + otherPatronToken)
+                .contentType(MediaType.APPLICATION_JSON));
+
+        // Then
+        response.andExpect(status().isForbidden())
+                .andDo(print());
+
+        assertThat(borrowingRepository.findById(testBorrowing.getId()).orElseThrow().getReturned()).isFalse();
+        assertThat(bookRepository.findById(testBook.getId()).orElseThrow().getAvailableQuantity()).isEqualTo(10);
+    }
+
     @Test
     public void shouldDeleteBorrowingWhenLibrarian() throws Exception {
         // When
@@ -294,6 +396,80 @@ public class BorrowingControllerIntegrationTest {
         assert borrowingRepository.findById(testBorrowing.getId()).isPresent();
     }
 
+    @Test
+    public void shouldStreamOverduePdfReportAsPagedTable() throws Exception {
+        // Given: enough overdue borrowings to span several pages
+        LocalDateTime now = LocalDateTime.now();
+        List<Borrowing> overdue = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            overdue.add(Borrowing.builder()
+                    .book(testBook)
+                    .user(patron)
+                    .borrowDate(now.minusDays(20))
+                    .dueDate(now.minusDays(2).plusMinutes(i))
+                    .returned(false)
+                    .updatedAt(now)
+                    .build());
+        }
+        borrowingRepository.saveAll(overdue);
+
+        // When
+        MvcResult started = mockMvc.perform(get("/borrowings/overdue-pdf-report")
+                        .header("Authorization", "Bearer " + librarianToken))
+                .andReturn();
+        started.getAsyncResult();
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=report.pdf"))
+                .andExpect(content().contentType(MediaType.APPLICATION_PDF))
+                .andReturn();
+
+        // Then
+        try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(result.getResponse().getContentAsByteArray())))) {
+            assertThat(pdf.getNumberOfPages()).isGreaterThan(1);
+            String firstPage = PdfTextExtractor.getTextFromPage(pdf.getFirstPage());
+            String lastPage = PdfTextExtractor.getTextFromPage(pdf.getLastPage());
+            assertThat(firstPage).contains("Overdue Books Report", "Due Date", "Test Book", "patron@test.com");
+            // Header row repeated on every page
+            assertThat(lastPage).contains("Due Date", "Test Book");
+        }
+    }
+
+    @Test
+    public void shouldQueuePollAndDownloadOverdueReportJob() throws Exception {
+        // When
+        MockHttpServletResponse queued = mockMvc.perform(post("/api/v1/borrowings/overdue-report/jobs")
+                        .contextPath("/api/v1")
+                        .header("Authorization", "Bearer " + librarianToken)
+                        .param("format", "TEXT"))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse();
+        String jobId = objectMapper.readTree(queued.getContentAsString()).get("id").asText();
+        // The Location is usable as is, context path included
+        assertThat(queued.getHeader("Location")).isEqualTo("http://localhost/api/v1/borrowings/overdue-report/jobs/" + jobId);
+
+        String jobStatus = "QUEUED";
+        for (int attempt = 0; attempt < 200 && !jobStatus.equals("COMPLETED") && !jobStatus.equals("FAILED"); attempt++) {
+            Thread.sleep(25);
+            String polled = mockMvc.perform(get("/borrowings/overdue-report/jobs/" + jobId)
+                            .header("Authorization", "Bearer " + librarianToken))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            jobStatus = objectMapper.readTree(polled).get("status").asText();
+        }
+
+        // Then
+        assertThat(jobStatus).isEqualTo("COMPLETED");
+        mockMvc.perform(get("/borrowings/overdue-report/jobs/" + jobId + "/file")
+                        .header("Authorization", "Bearer " + librarianToken))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_PLAIN))
+                .andExpect(content().string(startsWith("Overdue Books Report")));
+        mockMvc.perform(get("/borrowings/overdue-report/jobs/" + UUID.randomUUID())
+                        .header("Authorization", "Bearer " + librarianToken))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     public void shouldGenerateOverdueReport() throws Exception {
         // Create an overdue borrowing
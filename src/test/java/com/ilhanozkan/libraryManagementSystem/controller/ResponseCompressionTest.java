@@ -0,0 +1,101 @@
+package com.ilhanozkan.libraryManagementSystem.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ilhanozkan.libraryManagementSystem.model.entity.Book;
+import com.ilhanozkan.libraryManagementSystem.model.enums.BookGenre;
+import com.ilhanozkan.libraryManagementSystem.repository.BookRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compression happens in Tomcat, not in the MVC layer, so these requests go to a running server
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class ResponseCompressionTest {
+
+    private static final int BOOKS = 30;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private final List<Book> books = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < BOOKS; i++) {
+            books.add(bookRepository.save(Book.builder()
+                    .name("Compressed Book " + i)
+                    .isbn(String.format("97930000%05d", i))
+                    .author("Compressed Author")
+                    .publisher("Compressed Publisher")
+                    .numberOfPages(100)
+                    .quantity(3)
+                    .availableQuantity(3)
+                    .genre(BookGenre.CLASSIC)
+                    .build()));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAll(books);
+    }
+
+    @Test
+    public void shouldGzipBookPagesWhenAccepted() throws Exception {
+        // When
+        HttpResponse<InputStream> response = http.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/books?size=" + BOOKS))
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip")
+                .build(), HttpResponse.BodyHandlers.ofInputStream());
+
+        // Then
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        assertThat(response.headers().firstValue("ETag")).hasValueSatisfying(eTag -> assertThat(eTag).startsWith("W/"));
+        assertThat(response.headers().allValues("Vary")).anySatisfy(vary -> assertThat(vary).containsIgnoringCase("accept"));
+        try (InputStream body = new GZIPInputStream(response.body())) {
+            JsonNode page = objectMapper.readTree(body);
+            assertThat(page.path("content").size()).isEqualTo(BOOKS);
+        }
+    }
+
+    @Test
+    public void shouldGzipCborBookPagesWhenAccepted() throws Exception {
+        // When
+        HttpResponse<byte[]> response = http.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/books?size=" + BOOKS))
+                .header("Accept", "application/cbor")
+                .header("Accept-Encoding", "gzip")
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+
+        // Then
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Type")).hasValue("application/cbor");
+        assertThat(response.headers().firstValue("Content-Encoding")).hasValue("gzip");
+    }
+}
@@ -249,4 +249,28 @@ public class UserControllerIntegrationTest {
         response.andExpect(status().isBadRequest())
                 .andDo(print());
     }
-} 
\ No newline at end of file
+
+    @Test
+    public void shouldNotCreateUserWithShortPassword() throws Exception {
+        // Given
+        UserRequestDTO userRequestDTO = new UserRequestDTO(
+            "shortpassword",
+            "short.password@test.com",
+            "short",
+            "Short",
+            "Password",
+            UserRole.PATRON,
+            UserStatus.ACTIVE
+        );
+
+        // When
+        ResultActions response = mockMvc.perform(post("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(userRequestDTO)));
+
+        // Then
+        response.andExpect(status().isBadRequest())
+                .andExpect(content().string("Password length should be at least 8 characters"))
+                .andDo(print());
+    }
+}
@@ -0,0 +1,186 @@
+package com.ilhanozkan.libraryManagementSystem.controller;
+
+import com.ilhanozkan.libraryManagementSystem.LibraryManagementSystemApplication;
+import com.ilhanozkan.libraryManagementSystem.model.entity.Book;
+import com.ilhanozkan.libraryManagementSystem.model.enums.BookGenre;
+import com.ilhanozkan.libraryManagementSystem.repository.BookRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the application once on platform request threads and once on virtual threads, drives a database-backed
+ * search with 5k concurrent clients; requests/sec, p99 and non-200 responses for each mode are in the assertion
+ * descriptions.
+ * Only runs in the load-test profile: mvn -Pload-test test [-Dload.clients=5000 -Dload.duration=PT20S
+ * -Dspring.datasource.url=jdbc:postgresql://...]. Raise the open file limit (ulimit -n) above the client count.
+ */
+@Tag("load")
+public class VirtualThreadLoadTest {
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 5_000);
+    private static final Duration WARMUP = Duration.ofSeconds(10);
+    private static final Duration DURATION = Duration.parse(System.getProperty("load.duration", "PT20S"));
+    private static final int AUTHORS = 50;
+    private static final int BOOKS = 2_000;
+
+    @Test
+    public void shouldCompareThroughputAndTailLatencyOfPlatformAndVirtualThreads() throws Exception {
+        // When
+        LoadResult platform = run(false);
+        LoadResult virtual = run(true);
+
+        // Then
+        for (LoadResult result : List.of(platform, virtual))
+            assertThat(result.succeeded())
+                    .as("%s threads, %d clients: %.0f req/s, p99 %.1f ms, %d non-200",
+                            result.mode(), CLIENTS, result.requestsPerSecond(), result.p99Millis(), result.failed())
+                    .isPositive();
+    }
+
+    private LoadResult run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LibraryManagementSystemApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=warn",
+                        "logging.level.org.hibernate.SQL=warn",
+                        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=warn")
+                .run()) {
+            seedBooks(context.getBean(BookRepository.class));
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            return drive(virtualThreads ? "virtual" : "platform", URI.create("http://localhost:" + port + "/api/v1/books/search"));
+        }
+    }
+
+    private LoadResult drive(String mode, URI search) throws Exception {
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(clients)
+                     .connectTimeout(Duration.ofSeconds(30))
+                     .build()) {
+            long startedAt = System.nanoTime();
+            long measureFrom = startedAt + WARMUP.toNanos();
+            long measureUntil = measureFrom + DURATION.toNanos();
+
+            // Clients join over the first half of the warmup so connection setup is not part of the measurement
+            List<Future<long[]>> results = new ArrayList<>(CLIENTS);
+            for (int i = 0; i < CLIENTS; i++) {
+                long joinAt = startedAt + WARMUP.toNanos() / 2 * i / CLIENTS;
+                results.add(clients.submit(() -> {
+                    Thread.sleep(Duration.ofNanos(Math.max(0, joinAt - System.nanoTime())));
+                    return client(http, search, measureFrom, measureUntil);
+                }));
+            }
+
+            // Each client reports its measured latencies followed by its count of non-200 responses
+            List<long[]> perClient = new ArrayList<>(CLIENTS);
+            for (Future<long[]> result : results)
+                perClient.add(result.get());
+            return LoadResult.of(mode, perClient, DURATION);
+        }
+    }
+
+    private static long[] client(HttpClient http, URI search, long measureFrom, long measureUntil) {
+        long[] latencies = new long[256];
+        int count = 0;
+        long failed = 0;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        long now;
+        while ((now = System.nanoTime()) < measureUntil) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(search + "?author=Load+Author+" + random.nextInt(AUTHORS)))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+            boolean ok;
+            try {
+                ok = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+            } catch (Exception e) {
+                ok = false;
+            }
+            long finished = System.nanoTime();
+            if (now < measureFrom)
+                continue;
+
+            if (!ok) {
+                failed++;
+                continue;
+            }
+            if (count == latencies.length)
+                latencies = Arrays.copyOf(latencies, count * 2);
+            latencies[count++] = finished - now;
+        }
+
+        long[] result = Arrays.copyOf(latencies, count + 1);
+        result[count] = failed;
+        return result;
+    }
+
+    private static void seedBooks(BookRepository bookRepository) {
+        if (bookRepository.findByNaturalId(isbn(0)).isPresent())
+            return;
+
+        List<Book> books = new ArrayList<>(BOOKS);
+        for (int i = 0; i < BOOKS; i++)
+            books.add(Book.builder()
+                    .name("Load Book " + i)
+                    .isbn(isbn(i))
+                    .author("Load Author " + (i % AUTHORS))
+                    .publisher("Load Publisher")
+                    .numberOfPages(100 + i % 400)
+                    .quantity(5)
+                    .availableQuantity(5)
+                    .genre(BookGenre.values()[i % BookGenre.values().length])
+                    .build());
+        bookRepository.saveAll(books);
+    }
+
+    private static String isbn(int i) {
+        return String.format("978%010d", 5_000_000 + i);
+    }
+
+    private record LoadResult(String mode, long succeeded, long failed, double requestsPerSecond, double p99Millis) {
+
+        static LoadResult of(String mode, List<long[]> perClient, Duration duration) {
+            long failed = 0;
+            int total = 0;
+            for (long[] client : perClient) {
+                failed += client[client.length - 1];
+                total += client.length - 1;
+            }
+
+            long[] latencies = new long[total];
+            int offset = 0;
+            for (long[] client : perClient) {
+                System.arraycopy(client, 0, latencies, offset, client.length - 1);
+                offset += client.length - 1;
+            }
+            Arrays.sort(latencies);
+
+            double p99 = total == 0 ? 0 : latencies[(int) Math.min(total - 1, Math.ceil(total * 0.99) - 1)] / 1_000_000.0;
+            double seconds = duration.toNanos() / 1_000_000_000.0;
+            return new LoadResult(mode, total, failed, total / seconds, p99);
+        }
+    }
+}
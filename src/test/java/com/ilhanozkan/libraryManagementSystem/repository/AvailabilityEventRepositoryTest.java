@@ -0,0 +1,90 @@
+package com.ilhanozkan.libraryManagementSystem.repository;
+
+import com.ilhanozkan.libraryManagementSystem.model.entity.AvailabilityEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+public class AvailabilityEventRepositoryTest {
+
+    @Autowired
+    private AvailabilityEventRepository availabilityEventRepository;
+
+    @Test
+    public void shouldReadEventsInOffsetOrderAfterOffset() {
+        // Arrange
+        List<Long> seqs = new ArrayList<>();
+        for (int i = 0; i < 5; i++)
+            seqs.add(append(5 - i));
+        // Committed out of insert order: the later insert gets the lower offsets
+        Map<Long, Long> late = availabilityEventRepository.assignOffsets(seqs.subList(3, 5));
+        Map<Long, Long> early = availabilityEventRepository.assignOffsets(seqs.subList(0, 3));
+
+        // Act
+        List<AvailabilityEvent> events = availabilityEventRepository.findByStreamOffsetGreaterThanOrderByStreamOffset(
+                late.get(seqs.get(4)), Limit.of(2));
+
+        // Assert
+        assertThat(seqs).isSorted().doesNotHaveDuplicates();
+        assertThat(late.get(seqs.get(4))).isEqualTo(late.get(seqs.get(3)) + 1);
+        assertThat(early.get(seqs.get(0))).isEqualTo(late.get(seqs.get(4)) + 1);
+        assertThat(events).extracting(AvailabilityEvent::getSeq).containsExactly(seqs.get(0), seqs.get(1));
+        assertThat(events).extracting(AvailabilityEvent::getAvailableQuantity).containsExactly(5, 4);
+    }
+
+    @Test
+    public void shouldKeepOffsetsAlreadyAssigned() {
+        // Arrange
+        long seq = append(1);
+        Map<Long, Long> first = availabilityEventRepository.assignOffsets(List.of(seq));
+
+        // Act
+        Map<Long, Long> second = availabilityEventRepository.assignOffsets(List.of(seq, append(0)));
+
+        // Assert
+        assertThat(second.get(seq)).isEqualTo(first.get(seq));
+        assertThat(second.values()).doesNotHaveDuplicates().hasSize(2);
+    }
+
+    @Test
+    public void shouldPruneOnlyEventsOlderThanCutoff() {
+        // Arrange
+        long now = System.currentTimeMillis();
+        long old = availabilityEventRepository.save(event(1, now - 10_000)).getSeq();
+        long recent = availabilityEventRepository.save(event(1, now)).getSeq();
+
+        // Act
+        int pruned = availabilityEventRepository.deleteOlderThan(now - 5_000);
+
+        // Assert
+        assertThat(pruned).isPositive();
+        assertThat(availabilityEventRepository.existsById(old)).isFalse();
+        assertThat(availabilityEventRepository.existsById(recent)).isTrue();
+    }
+
+    private long append(int availableQuantity) {
+        return availabilityEventRepository.saveAndFlush(event(availableQuantity, System.currentTimeMillis())).getSeq();
+    }
+
+    private static AvailabilityEvent event(int availableQuantity, long timestamp) {
+        return AvailabilityEvent.builder()
+                .bookId(UUID.randomUUID())
+                .bookName("Book")
+                .isbn("9780000000000")
+                .totalQuantity(5)
+                .availableQuantity(availableQuantity)
+                .timestamp(timestamp)
+                .build();
+    }
+}
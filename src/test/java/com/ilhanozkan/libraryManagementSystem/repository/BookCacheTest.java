@@ -0,0 +1,155 @@
+package com.ilhanozkan.libraryManagementSystem.repository;
+
+import com.ilhanozkan.libraryManagementSystem.model.dto.request.BookRequestDTO;
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.BookCacheStatsDTO;
+import com.ilhanozkan.libraryManagementSystem.model.entity.Book;
+import com.ilhanozkan.libraryManagementSystem.model.enums.BookGenre;
+import com.ilhanozkan.libraryManagementSystem.service.BookService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class BookCacheTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Book popular;
+    private Book other;
+
+    @BeforeEach
+    void setUp() {
+        popular = bookRepository.save(book("Cached Book", "9790000000031", 3));
+        other = bookRepository.save(book("Other Cached Book", "9790000000032", 3));
+        // JPA's evictAll leaves the natural-id region, which the inserts above just filled
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAllById(List.of(popular.getId(), other.getId()));
+    }
+
+    @Test
+    public void shouldServeRepeatedLookupsByIdFromCache() {
+        // Act
+        bookService.getBookById(popular.getId());
+        bookService.getBookById(popular.getId());
+        BookCacheStatsDTO stats = bookService.getCacheStats();
+
+        // Assert
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(stats.misses()).isEqualTo(1);
+        assertThat(stats.hits()).isEqualTo(1);
+        assertThat(stats.puts()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldServeRepeatedLookupsByIsbnFromCache() {
+        // Act
+        bookService.getBookByIsbn(popular.getIsbn());
+        long firstLookupStatements = statistics.getPrepareStatementCount();
+        bookService.getBookByIsbn(popular.getIsbn());
+        BookCacheStatsDTO stats = bookService.getCacheStats();
+
+        // Assert: the second lookup resolves the id and the book without a query
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(firstLookupStatements);
+        assertThat(stats.naturalIdHits()).isEqualTo(1);
+        assertThat(stats.hits()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    public void shouldReadExactAvailabilityAfterCheckoutAndKeepOtherBooksCached() {
+        // Arrange
+        bookService.getBookById(popular.getId());
+        bookService.getBookById(other.getId());
+        long evictionsBefore = bookService.getCacheStats().evictions();
+
+        // Act
+        transactionTemplate.executeWithoutResult(status -> bookRepository.reserveCopy(popular.getId()));
+        int availableAfterCheckout = bookService.getBookById(popular.getId()).availableQuantity();
+        statistics.clear();
+        bookService.getBookById(other.getId());
+        bookService.getBookById(popular.getId());
+
+        // Assert
+        assertThat(availableAfterCheckout).isEqualTo(2);
+        assertThat(bookService.getCacheStats().evictions()).isEqualTo(evictionsBefore + 1);
+        // Only the checked-out book was dropped, and it is cached again once re-read
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    public void shouldNotCountCheckoutsOfUncachedBooksAsEvictions() {
+        // Arrange
+        long evictionsBefore = bookService.getCacheStats().evictions();
+
+        // Act
+        transactionTemplate.executeWithoutResult(status -> bookRepository.reserveCopy(popular.getId()));
+        transactionTemplate.executeWithoutResult(status -> bookRepository.releaseCopy(popular.getId()));
+
+        // Assert
+        assertThat(bookService.getCacheStats().evictions()).isEqualTo(evictionsBefore);
+        assertThat(entityManagerFactory.getCache().contains(Book.class, popular.getId())).isFalse();
+    }
+
+    @Test
+    public void shouldFollowIsbnChangesThroughTheNaturalIdCache() {
+        // Arrange
+        bookService.getBookByIsbn(popular.getIsbn());
+
+        // Act
+        bookService.updateBook(popular.getId(), BookRequestDTO.builder()
+                .name("Renamed Cached Book")
+                .isbn("9790000000033")
+                .author("Cache Author")
+                .publisher("Cache Publisher")
+                .numberOfPages(120)
+                .quantity(3)
+                .genre(BookGenre.CLASSIC)
+                .build());
+
+        // Assert
+        assertThat(bookService.getBookByIsbn("9790000000033").name()).isEqualTo("Renamed Cached Book");
+        assertThat(bookRepository.findByNaturalId("9790000000031")).isEmpty();
+        assertThat(bookService.getCacheStats().updates()).isEqualTo(1);
+    }
+
+    private static Book book(String name, String isbn, int quantity) {
+        return Book.builder()
+                .name(name)
+                .isbn(isbn)
+                .author("Cache Author")
+                .publisher("Cache Publisher")
+                .numberOfPages(120)
+                .quantity(quantity)
+                .availableQuantity(quantity)
+                .genre(BookGenre.CLASSIC)
+                .build();
+    }
+}
@@ -0,0 +1,124 @@
+package com.ilhanozkan.libraryManagementSystem.repository;
+
+import com.ilhanozkan.libraryManagementSystem.model.entity.Book;
+import com.ilhanozkan.libraryManagementSystem.model.enums.BookGenre;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class BookInventoryConcurrencyTest {
+
+    private static final int COPIES = 100;
+    private static final int THREADS = 200;
+    private static final int ATTEMPTS_PER_THREAD = 3;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Book popularBook;
+
+    @BeforeEach
+    void setUp() {
+        popularBook = bookRepository.save(Book.builder()
+                .name("Popular Book")
+                .isbn("9790000000001")
+                .author("Popular Author")
+                .publisher("Popular Publisher")
+                .numberOfPages(100)
+                .quantity(COPIES)
+                .availableQuantity(COPIES)
+                .genre(BookGenre.CLASSIC)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteById(popularBook.getId());
+    }
+
+    @Test
+    public void shouldNeverOversellUnderConcurrentCheckouts() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int attempt = 0; attempt < ATTEMPTS_PER_THREAD; attempt++) {
+                    Integer updated = transactionTemplate.execute(status -> bookRepository.reserveCopy(popularBook.getId()));
+                    if (updated != null && updated == 1)
+                        reserved.incrementAndGet();
+                    else
+                        rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        // Act
+        start.countDown();
+        for (Future<?> future : futures)
+            future.get(60, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // Assert
+        Book book = bookRepository.findById(popularBook.getId()).orElseThrow();
+        assertThat(reserved.get()).isEqualTo(COPIES);
+        assertThat(rejected.get()).isEqualTo(THREADS * ATTEMPTS_PER_THREAD - COPIES);
+        assertThat(book.getAvailableQuantity()).isZero();
+        assertThat(book.getVersion()).isEqualTo((long) COPIES);
+    }
+
+    @Test
+    public void shouldNeverExceedTotalQuantityUnderConcurrentReturns() throws Exception {
+        // Arrange
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < COPIES / 2; i++)
+                bookRepository.reserveCopy(popularBook.getId());
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        AtomicInteger released = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                Integer updated = transactionTemplate.execute(status -> bookRepository.releaseCopy(popularBook.getId()));
+                if (updated != null && updated == 1)
+                    released.incrementAndGet();
+            }));
+        }
+        for (Future<?> future : futures)
+            future.get(60, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // Assert
+        Book book = bookRepository.findById(popularBook.getId()).orElseThrow();
+        assertThat(released.get()).isEqualTo(COPIES / 2);
+        assertThat(book.getAvailableQuantity()).isEqualTo(COPIES);
+    }
+}
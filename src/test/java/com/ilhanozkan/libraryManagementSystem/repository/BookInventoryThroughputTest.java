@@ -0,0 +1,113 @@
+package com.ilhanozkan.libraryManagementSystem.repository;
+
+import com.ilhanozkan.libraryManagementSystem.model.entity.Book;
+import com.ilhanozkan.libraryManagementSystem.model.enums.BookGenre;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checkout throughput of the conditional update alone against the same update followed by reading the book back,
+ * as checkouts did before applying the known change to the loaded book. Timing based, so it only runs in the
+ * load-test profile; BookInventoryConcurrencyTest covers correctness.
+ */
+@Tag("load")
+@SpringBootTest
+@ActiveProfiles("test")
+public class BookInventoryThroughputTest {
+
+    private static final int THREADS = 32;
+    private static final int CHECKOUTS_PER_THREAD = 100;
+    private static final int CHECKOUTS = THREADS * CHECKOUTS_PER_THREAD;
+    // A warm-up and a measured round per variant, never running out of copies
+    private static final int COPIES = 4 * CHECKOUTS;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Book popularBook;
+
+    @BeforeEach
+    void setUp() {
+        popularBook = bookRepository.save(Book.builder()
+                .name("Throughput Book")
+                .isbn("9790000000002")
+                .author("Throughput Author")
+                .publisher("Throughput Publisher")
+                .numberOfPages(100)
+                .quantity(COPIES)
+                .availableQuantity(COPIES)
+                .genre(BookGenre.CLASSIC)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteById(popularBook.getId());
+    }
+
+    @Test
+    public void shouldCheckOutFasterWithoutReadingTheBookBack() throws Exception {
+        // Arrange
+        Consumer<UUID> updateOnly = id -> assertThat(bookRepository.reserveCopy(id)).isEqualTo(1);
+        Consumer<UUID> updateAndReRead = id -> {
+            assertThat(bookRepository.reserveCopy(id)).isEqualTo(1);
+            assertThat(bookRepository.findById(id)).isPresent();
+        };
+        checkoutsPerSecond(updateOnly);
+        checkoutsPerSecond(updateAndReRead);
+
+        // Act
+        double withReRead = checkoutsPerSecond(updateAndReRead);
+        double withoutReRead = checkoutsPerSecond(updateOnly);
+
+        // Assert
+        assertThat(bookRepository.findById(popularBook.getId()).orElseThrow().getAvailableQuantity()).isZero();
+        assertThat(withoutReRead)
+                .as("%d threads, %d checkouts: %.0f/s updating only, %.0f/s updating and reading back",
+                        THREADS, CHECKOUTS, withoutReRead, withReRead)
+                .isGreaterThan(withReRead);
+    }
+
+    private double checkoutsPerSecond(Consumer<UUID> checkout) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int attempt = 0; attempt < CHECKOUTS_PER_THREAD; attempt++)
+                    transactionTemplate.executeWithoutResult(status -> checkout.accept(popularBook.getId()));
+                return null;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures)
+            future.get(120, TimeUnit.SECONDS);
+        long elapsedNanos = System.nanoTime() - startedAt;
+        executor.shutdown();
+        return CHECKOUTS * 1e9 / elapsedNanos;
+    }
+}
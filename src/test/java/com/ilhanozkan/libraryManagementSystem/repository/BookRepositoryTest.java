@@ -134,6 +134,86 @@ public class BookRepositoryTest {
         assertThat(foundByGenre).hasSize(2);
     }
 
+    @Test
+    public void shouldCountSearchMatchesAcrossPages() {
+        // Arrange
+        Pageable firstPage = PageRequest.of(0, 1);
+        for (int i = 0; i < 3; i++) {
+            bookRepository.save(Book.builder()
+                    .name("Fantasy Book " + i)
+                    .isbn("978123456789" + i)
+                    .author("Test Author")
+                    .publisher("Test Publisher")
+                    .numberOfPages(100)
+                    .quantity(1)
+                    .availableQuantity(1)
+                    .genre(BookGenre.FANTASY)
+                    .build());
+        }
+
+        // Act
+        List<Book> page = bookRepository.searchBooks("Fantasy", null, null, null, firstPage);
+        long total = bookRepository.countSearchBooks("Fantasy", null, null, null);
+        long byGenre = bookRepository.countSearchBooks(null, null, null, String.valueOf(BookGenre.FANTASY.ordinal()));
+        long none = bookRepository.countSearchBooks("Nonexistent", null, null, null);
+
+        // Assert
+        assertThat(page).hasSize(1);
+        assertThat(total).isEqualTo(3);
+        assertThat(byGenre).isEqualTo(3);
+        assertThat(none).isZero();
+    }
+
+    @Test
+    public void shouldReserveCopyOnlyWhileAvailable() {
+        // Arrange
+        Book book = Book.builder()
+                .name("Test Book")
+                .isbn("9781234567890")
+                .author("Test Author")
+                .publisher("Test Publisher")
+                .numberOfPages(200)
+                .quantity(1)
+                .availableQuantity(1)
+                .genre(BookGenre.SCIENCE_FICTION)
+                .build();
+        Book savedBook = bookRepository.save(book);
+
+        // Act
+        int firstReservation = bookRepository.reserveCopy(savedBook.getId());
+        int secondReservation = bookRepository.reserveCopy(savedBook.getId());
+
+        // Assert
+        assertThat(firstReservation).isEqualTo(1);
+        assertThat(secondReservation).isZero();
+        assertThat(bookRepository.findById(savedBook.getId()).get().getAvailableQuantity()).isZero();
+    }
+
+    @Test
+    public void shouldReleaseCopyOnlyUpToTotalQuantity() {
+        // Arrange
+        Book book = Book.builder()
+                .name("Test Book")
+                .isbn("9781234567890")
+                .author("Test Author")
+                .publisher("Test Publisher")
+                .numberOfPages(200)
+                .quantity(2)
+                .availableQuantity(1)
+                .genre(BookGenre.SCIENCE_FICTION)
+                .build();
+        Book savedBook = bookRepository.save(book);
+
+        // Act
+        int firstRelease = bookRepository.releaseCopy(savedBook.getId());
+        int secondRelease = bookRepository.releaseCopy(savedBook.getId());
+
+        // Assert
+        assertThat(firstRelease).isEqualTo(1);
+        assertThat(secondRelease).isZero();
+        assertThat(bookRepository.findById(savedBook.getId()).get().getAvailableQuantity()).isEqualTo(2);
+    }
+
     @Test
     public void shouldDeleteBook() {
         // Arrange
@@ -1,20 +1,28 @@
 package com.ilhanozkan.libraryManagementSystem.repository;
 
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.BorrowingResponseDTO;
 import com.ilhanozkan.libraryManagementSystem.model.entity.Book;
 import com.ilhanozkan.libraryManagementSystem.model.entity.Borrowing;
 import com.ilhanozkan.libraryManagementSystem.model.entity.User;
 import com.ilhanozkan.libraryManagementSystem.model.enums.BookGenre;
 import com.ilhanozkan.libraryManagementSystem.model.enums.UserRole;
 import com.ilhanozkan.libraryManagementSystem.model.enums.UserStatus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -31,6 +39,9 @@ public class BorrowingRepositoryTest {
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private User testUser;
     private Book testBook;
 
@@ -235,4 +246,135 @@ public class BorrowingRepositoryTest {
         assertThat(updatedBorrowing.get().getReturned()).isTrue();
         assertThat(updatedBorrowing.get().getReturnDate()).isNotNull();
     }
-} 
\ No newline at end of file
+
+    @Test
+    public void shouldFilterAndSeekBorrowingPages() {
+        // Arrange
+        // Cursors come from rows read back from the database, which keeps microseconds
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        Borrowing overdue = borrowingRepository.save(Borrowing.builder()
+                .book(testBook)
+                .user(testUser)
+                .borrowDate(now.minusDays(20))
+                .dueDate(now.minusDays(6))
+                .returned(false)
+                .updatedAt(now)
+                .build());
+        Borrowing returned = borrowingRepository.save(Borrowing.builder()
+                .book(testBook)
+                .user(testUser)
+                .borrowDate(now.minusDays(10))
+                .dueDate(now.plusDays(4))
+                .returnDate(now.minusDays(1))
+                .returned(true)
+                .updatedAt(now)
+                .build());
+        Borrowing active = borrowingRepository.save(Borrowing.builder()
+                .book(testBook)
+                .user(testUser)
+                .borrowDate(now)
+                .dueDate(now.plusDays(14))
+                .returned(false)
+                .updatedAt(now)
+                .build());
+
+        // Act
+        List<BorrowingResponseDTO> firstPage = borrowingRepository.findPage(
+                null, null, testUser.getId(), testBook.getId(), null, null, null, null, Limit.of(2));
+        List<BorrowingResponseDTO> secondPage = borrowingRepository.findPage(
+                null, null, testUser.getId(), testBook.getId(), null, null,
+                firstPage.get(1).borrowDate(), firstPage.get(1).id(), Limit.of(2));
+        List<BorrowingResponseDTO> notReturned = borrowingRepository.findPage(
+                false, null, null, null, null, null, null, null, Limit.of(10));
+        List<BorrowingResponseDTO> overdueOnly = borrowingRepository.findPage(
+                false, now, null, null, null, null, null, null, Limit.of(10));
+        List<BorrowingResponseDTO> lastWeek = borrowingRepository.findPage(
+                null, null, null, null, now.minusDays(15), now.minusDays(1), null, null, Limit.of(10));
+
+        // Assert
+        assertThat(firstPage).extracting(BorrowingResponseDTO::id).containsExactly(overdue.getId(), returned.getId());
+        assertThat(secondPage).extracting(BorrowingResponseDTO::id).containsExactly(active.getId());
+        assertThat(notReturned).extracting(BorrowingResponseDTO::id).containsExactly(overdue.getId(), active.getId());
+        assertThat(overdueOnly).extracting(BorrowingResponseDTO::id).containsExactly(overdue.getId());
+        assertThat(lastWeek).extracting(BorrowingResponseDTO::id).containsExactly(returned.getId());
+    }
+
+    @Test
+    public void shouldLeaveFiltersThatWereNotGivenOutOfTheQuery() {
+        // Arrange
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        borrowingRepository.findPage(false, null, testUser.getId(), null, null, null, null, null, Limit.of(10));
+
+        // Assert: only the given filters reach the statement, so it can be planned against the matching index
+        List<String> queries = Arrays.asList(statistics.getQueries());
+        assertThat(queries).hasSize(1);
+        assertThat(queries.get(0))
+                .contains("b.returned = :returned", "u.id = :userId")
+                .doesNotContain("IS NULL", ":bookId", ":dueBefore", ":afterBorrowDate");
+    }
+
+    @Test
+    public void shouldStreamBorrowingsForExport() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 3; i++) {
+            borrowingRepository.save(Borrowing.builder()
+                    .book(testBook)
+                    .user(testUser)
+                    .borrowDate(now.minusDays(i))
+                    .dueDate(now.plusDays(14))
+                    .returned(i == 0)
+                    .updatedAt(now)
+                    .build());
+        }
+
+        // Act
+        List<String> bookNames;
+        try (Stream<BorrowingResponseDTO> stream = borrowingRepository.streamForExport(false, null, null, null, null, null)) {
+            bookNames = stream.map(BorrowingResponseDTO::bookName).toList();
+        }
+
+        // Assert
+        assertThat(bookNames).containsExactly("Test Book", "Test Book");
+    }
+
+    @Test
+    public void shouldProjectUserBorrowingsWithBookAndUser() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        borrowingRepository.save(Borrowing.builder()
+                .book(testBook)
+                .user(testUser)
+                .borrowDate(now.minusDays(20))
+                .dueDate(now.minusDays(6))
+                .returned(false)
+                .updatedAt(now)
+                .build());
+        borrowingRepository.save(Borrowing.builder()
+                .book(testBook)
+                .user(testUser)
+                .borrowDate(now.minusDays(3))
+                .dueDate(now.plusDays(11))
+                .returnDate(now.minusDays(1))
+                .returned(true)
+                .updatedAt(now)
+                .build());
+
+        // Act
+        List<BorrowingResponseDTO> all = borrowingRepository.findViewsByUserId(testUser.getId(), null);
+        List<BorrowingResponseDTO> active = borrowingRepository.findViewsByUserId(testUser.getId(), false);
+        List<BorrowingResponseDTO> overdue = borrowingRepository.findOverdueViews();
+
+        // Assert
+        assertThat(all).hasSize(2);
+        assertThat(all.get(0).returned()).isTrue();
+        assertThat(active).hasSize(1);
+        assertThat(active.get(0).book().isbn()).isEqualTo("9781234567890");
+        assertThat(active.get(0).user().email()).isEqualTo("test@example.com");
+        assertThat(active.get(0).userFullName()).isEqualTo("Test User");
+        assertThat(overdue).extracting(BorrowingResponseDTO::id).containsExactly(active.get(0).id());
+    }
+}
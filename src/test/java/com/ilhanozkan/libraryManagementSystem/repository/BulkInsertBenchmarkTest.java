@@ -0,0 +1,119 @@
+package com.ilhanozkan.libraryManagementSystem.repository;
+
+import com.ilhanozkan.libraryManagementSystem.model.entity.Book;
+import com.ilhanozkan.libraryManagementSystem.model.enums.BookGenre;
+import com.ilhanozkan.libraryManagementSystem.util.UuidV7;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Time-ordered keys and JDBC batching on larger inserts; timing based, so it only runs in the load-test profile
+ */
+@Tag("load")
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "logging.level.org.hibernate.SQL=info"})
+@ActiveProfiles("test")
+public class BulkInsertBenchmarkTest {
+
+    private static final int KEYS = 100_000;
+    private static final int KEY_BATCH = 1_000;
+    private static final int BOOKS = 5_000;
+    private static final String PUBLISHER = "Bulk Insert Benchmark Publisher";
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM books WHERE publisher = ?", PUBLISHER);
+    }
+
+    @Test
+    public void shouldAppendTimeOrderedPrimaryKeysAtTheEndOfTheIndex(@TempDir Path directory) {
+        // Arrange: a file database, so the keys go through a real on-disk B-tree
+        JdbcTemplate fileDatabase = new JdbcTemplate(new SingleConnectionDataSource(
+                "jdbc:h2:file:" + directory.resolve("keys") + ";DB_CLOSE_ON_EXIT=FALSE", "sa", "", true));
+
+        // Act
+        fillKeyTable(fileDatabase, "uuid_v7_keys", UuidV7::generate);
+        List<Integer> orderedRows = fileDatabase.queryForList("SELECT row_number FROM uuid_v7_keys ORDER BY id", Integer.class);
+        fileDatabase.execute("SHUTDOWN");
+
+        // Assert: every new key sorts after the previous one, so a B-tree only ever appends to its rightmost leaf
+        assertThat(orderedRows).isSorted().hasSize(KEYS);
+    }
+
+    @Test
+    public void shouldInsertBooksFasterInJdbcBatches() {
+        // Act
+        long unbatchedMillis = insertBooks(1, 0);
+        long batchedMillis = insertBooks(null, BOOKS);
+
+        // Assert
+        assertThat(bookRepository.count()).isGreaterThanOrEqualTo(2L * BOOKS);
+        assertThat(batchedMillis)
+                .as("%d books: one statement per row %d ms, batched %d ms", BOOKS, unbatchedMillis, batchedMillis)
+                .isLessThan(unbatchedMillis);
+    }
+
+    private static void fillKeyTable(JdbcTemplate jdbcTemplate, String table, Supplier<UUID> ids) {
+        jdbcTemplate.execute("CREATE TABLE " + table + " (id UUID PRIMARY KEY, row_number INT)");
+        for (int inserted = 0; inserted < KEYS; inserted += KEY_BATCH) {
+            List<Object[]> rows = new ArrayList<>(KEY_BATCH);
+            for (int i = 0; i < KEY_BATCH; i++)
+                rows.add(new Object[]{ids.get(), inserted + i});
+            jdbcTemplate.batchUpdate("INSERT INTO " + table + " (id, row_number) VALUES (?, ?)", rows);
+        }
+    }
+
+    // A null batch size keeps hibernate.jdbc.batch_size from the configuration; ISBNs are unique, so each run takes its own range
+    private long insertBooks(Integer batchSize, int firstIsbn) {
+        long startedAt = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (batchSize != null)
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            List<Book> books = new ArrayList<>(BOOKS);
+            for (int i = 0; i < BOOKS; i++) {
+                books.add(Book.builder()
+                        .name("Bulk Book " + i)
+                        .isbn(String.format("979%010d", firstIsbn + i))
+                        .author("Bulk Author")
+                        .publisher(PUBLISHER)
+                        .numberOfPages(100)
+                        .quantity(1)
+                        .availableQuantity(1)
+                        .genre(BookGenre.CLASSIC)
+                        .build());
+            }
+            bookRepository.saveAll(books);
+        });
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+    }
+}
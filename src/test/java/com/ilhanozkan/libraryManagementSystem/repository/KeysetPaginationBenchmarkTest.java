@@ -0,0 +1,95 @@
+package com.ilhanozkan.libraryManagementSystem.repository;
+
+import com.ilhanozkan.libraryManagementSystem.model.entity.Book;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Deep keyset pages against deep offset pages on 100k books. Timing based, so it only runs in the load-test profile;
+ * KeysetPaginationTest covers the ordering.
+ */
+@Tag("load")
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class KeysetPaginationBenchmarkTest {
+
+    private static final int PAGE_SIZE = 10;
+    private static final int DEEP_PAGE = 10_000;
+    private static final int BOOKS = (DEEP_PAGE + 1) * PAGE_SIZE;
+    private static final int RUNS = 20;
+    private static final String PUBLISHER = "Keyset Benchmark Publisher";
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seedBooks() {
+        List<Object[]> rows = new ArrayList<>(BOOKS);
+        for (int i = 0; i < BOOKS; i++) {
+            // Three books share each name so the id tiebreaker is exercised
+            rows.add(new Object[]{UUID.randomUUID(), String.format("Keyset Book %06d", i / 3),
+                    String.format("979%010d", i), "Benchmark Author", PUBLISHER});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO books (id, name, isbn, author, publisher, number_of_pages, quantity, " +
+                "available_quantity, genre, version) VALUES (?, ?, ?, ?, ?, 100, 1, 1, 0, 0)", rows);
+    }
+
+    @AfterAll
+    void removeBooks() {
+        jdbcTemplate.update("DELETE FROM books WHERE publisher = ?", PUBLISHER);
+    }
+
+    @Test
+    public void shouldServeDeepPagesInConstantTime() {
+        // Arrange
+        Sort byNameAndId = Sort.by("name", "id");
+        List<Book> pageBefore = bookRepository.findAll(PageRequest.of(DEEP_PAGE - 1, PAGE_SIZE, byNameAndId)).getContent();
+        Book cursor = pageBefore.get(pageBefore.size() - 1);
+
+        // Act
+        long firstKeyset = medianMicros(() -> bookRepository.findFirstByKeyset(Limit.of(PAGE_SIZE)));
+        long deepKeyset = medianMicros(() -> bookRepository.findAfterByKeyset(cursor.getName(), cursor.getId(), Limit.of(PAGE_SIZE)));
+        long firstOffset = medianMicros(() -> bookRepository.findAll(PageRequest.of(0, PAGE_SIZE, byNameAndId)).getContent());
+        long deepOffset = medianMicros(() -> bookRepository.findAll(PageRequest.of(DEEP_PAGE, PAGE_SIZE, byNameAndId)).getContent());
+
+        // Assert
+        assertThat(deepKeyset)
+                .as("page %d: keyset %d us (first page %d us), offset %d us (first page %d us)",
+                        DEEP_PAGE, deepKeyset, firstKeyset, deepOffset, firstOffset)
+                .isLessThan(deepOffset);
+    }
+
+    private static long medianMicros(Supplier<List<Book>> query) {
+        long[] timings = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long startedAt = System.nanoTime();
+            assertThat(query.get()).hasSize(PAGE_SIZE);
+            timings[i] = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startedAt);
+        }
+        Arrays.sort(timings);
+        return timings[RUNS / 2];
+    }
+}
@@ -0,0 +1,92 @@
+package com.ilhanozkan.libraryManagementSystem.repository;
+
+import com.ilhanozkan.libraryManagementSystem.model.entity.Book;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class KeysetPaginationTest {
+
+    private static final int PAGE_SIZE = 10;
+    private static final int DEEP_PAGE = 300;
+    private static final int BOOKS = (DEEP_PAGE + 1) * PAGE_SIZE;
+    private static final String PUBLISHER = "Keyset Test Publisher";
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seedBooks() {
+        List<Object[]> rows = new ArrayList<>(BOOKS);
+        for (int i = 0; i < BOOKS; i++) {
+            // Three books share each name so the id tiebreaker is exercised
+            rows.add(new Object[]{UUID.randomUUID(), String.format("Keyset Book %06d", i / 3),
+                    String.format("979%010d", i), "Benchmark Author", PUBLISHER});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO books (id, name, isbn, author, publisher, number_of_pages, quantity, " +
+                "available_quantity, genre, version) VALUES (?, ?, ?, ?, ?, 100, 1, 1, 0, 0)", rows);
+    }
+
+    @AfterAll
+    void removeBooks() {
+        jdbcTemplate.update("DELETE FROM books WHERE publisher = ?", PUBLISHER);
+    }
+
+    @Test
+    public void shouldVisitEveryBookExactlyOnceInOrder() {
+        // Act
+        Set<UUID> seen = new HashSet<>();
+        List<Book> page = bookRepository.findFirstByKeyset(Limit.of(500));
+        String previousName = "";
+        while (!page.isEmpty()) {
+            for (Book book : page) {
+                assertThat(seen.add(book.getId())).isTrue();
+                assertThat(book.getName()).isGreaterThanOrEqualTo(previousName);
+                previousName = book.getName();
+            }
+            Book last = page.get(page.size() - 1);
+            page = bookRepository.findAfterByKeyset(last.getName(), last.getId(), Limit.of(500));
+        }
+
+        // Assert
+        assertThat(seen).hasSize((int) bookRepository.count());
+    }
+
+    @Test
+    public void shouldReturnTheSameDeepPageAsOffsetPaging() {
+        // Arrange
+        Sort byNameAndId = Sort.by("name", "id");
+        List<Book> pageBefore = bookRepository.findAll(PageRequest.of(DEEP_PAGE - 1, PAGE_SIZE, byNameAndId)).getContent();
+        Book cursor = pageBefore.get(pageBefore.size() - 1);
+
+        // Act
+        List<Book> offsetPage = bookRepository.findAll(PageRequest.of(DEEP_PAGE, PAGE_SIZE, byNameAndId)).getContent();
+        List<Book> keysetPage = bookRepository.findAfterByKeyset(cursor.getName(), cursor.getId(), Limit.of(PAGE_SIZE));
+
+        // Assert
+        assertThat(keysetPage).hasSize(PAGE_SIZE);
+        assertThat(keysetPage).extracting(Book::getId).containsExactlyElementsOf(offsetPage.stream().map(Book::getId).toList());
+    }
+}
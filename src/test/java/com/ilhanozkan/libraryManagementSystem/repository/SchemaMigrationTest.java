@@ -0,0 +1,110 @@
+package com.ilhanozkan.libraryManagementSystem.repository;
+
+import com.ilhanozkan.libraryManagementSystem.model.entity.Book;
+import com.ilhanozkan.libraryManagementSystem.model.enums.BookGenre;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class SchemaMigrationTest {
+
+    private static final String ISBN = "9790000099999";
+    private static final UUID ID = UUID.fromString("01890a5d-ac96-774b-bcce-b302099a8057");
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM books WHERE isbn = ?", ISBN);
+    }
+
+    @Test
+    public void shouldApplyCommonAndVendorMigrations() {
+        // Act
+        MigrationInfo[] applied = flyway.info().applied();
+
+        // Assert
+        assertThat(Arrays.stream(applied).map(info -> info.getVersion().getVersion()))
+                .contains("1", "2", "3", "5", "6", "7", "8", "9");
+        assertThat(flyway.info().pending()).isEmpty();
+    }
+
+    @Test
+    public void shouldServeUserBorrowingsFromAnIndex() {
+        // Act
+        String plan = explain("SELECT id FROM borrowings WHERE user_id = '" + ID + "' AND returned = false " +
+                "ORDER BY borrow_date DESC, id");
+
+        // Assert: H2 backs the user foreign key with an index of its own, on PostgreSQL this is idx_borrowings_user_borrow_date
+        assertThat(plan).contains("user_id = UUID").doesNotContain("tableScan");
+    }
+
+    @Test
+    public void shouldServeOverdueBorrowingsFromOverdueIndex() {
+        // Act
+        String plan = explain("SELECT id FROM borrowings WHERE returned = false AND due_date < CURRENT_DATE " +
+                "ORDER BY due_date, id");
+
+        // Assert
+        assertThat(plan).containsIgnoringCase("idx_borrowings_overdue");
+    }
+
+    @Test
+    public void shouldServeBookLookupsFromIndexes() {
+        // Act
+        String byIsbn = explain("SELECT id FROM books WHERE isbn = '" + ISBN + "'");
+        String byBook = explain("SELECT id FROM borrowings WHERE book_id = '" + ID + "'");
+
+        // Assert
+        assertThat(byIsbn).containsIgnoringCase("uk_books_isbn");
+        assertThat(byBook).containsIgnoringCase("idx_borrowings_book_id");
+    }
+
+    @Test
+    public void shouldRejectDuplicateIsbn() {
+        // Arrange
+        bookRepository.saveAndFlush(book());
+
+        // Act & Assert
+        assertThatThrownBy(() -> bookRepository.saveAndFlush(book()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+
+    private static Book book() {
+        return Book.builder()
+                .name("Migration Book")
+                .isbn(ISBN)
+                .author("Migration Author")
+                .publisher("Migration Publisher")
+                .numberOfPages(100)
+                .quantity(1)
+                .availableQuantity(1)
+                .genre(BookGenre.CLASSIC)
+                .build();
+    }
+}
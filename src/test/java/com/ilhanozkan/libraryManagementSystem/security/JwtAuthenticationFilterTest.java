@@ -0,0 +1,175 @@
+package com.ilhanozkan.libraryManagementSystem.security;
+
+import com.ilhanozkan.libraryManagementSystem.model.entity.TokenRevocation;
+import com.ilhanozkan.libraryManagementSystem.model.entity.UserPrincipal;
+import com.ilhanozkan.libraryManagementSystem.model.enums.UserRole;
+import com.ilhanozkan.libraryManagementSystem.model.enums.UserStatus;
+import com.ilhanozkan.libraryManagementSystem.repository.TokenRevocationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class JwtAuthenticationFilterTest {
+
+    private static final long EXPIRATION = 60_000L;
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private TokenRevocationRepository tokenRevocationRepository;
+
+    private JwtService jwtService;
+    private TokenRevocationList tokenRevocationList;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService("test-secret-key-for-jwt-filter-tests-only-1234567890", EXPIRATION);
+        tokenRevocationList = new TokenRevocationList(tokenRevocationRepository, EXPIRATION);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldLoadUserOnceForRepeatedRequests() throws Exception {
+        // Arrange
+        JwtAuthenticationFilter filter = filter(false);
+        given(userDetailsService.loadUserByUsername("johndoe"))
+                .willReturn(new User("johndoe", "password", new ArrayList<>()));
+        String token = jwtService.generateToken("johndoe");
+        // Issue times have second precision; a load within the issuing second is not trusted for reuse
+        Thread.sleep(1100);
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            SecurityContextHolder.clearContext();
+            filter.doFilter(bearer(token), new MockHttpServletResponse(), new MockFilterChain());
+            assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("johndoe");
+        }
+
+        // Assert
+        verify(userDetailsService, times(1)).loadUserByUsername("johndoe");
+    }
+
+    @Test
+    void shouldNotAuthenticateTamperedToken() throws Exception {
+        // Arrange
+        String token = jwtService.generateToken("johndoe");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        // Act
+        filter(false).doFilter(bearer(tampered), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void shouldAuthenticateFromClaimsWithoutLoadingUser() throws Exception {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+        String token = jwtService.generateTokenFor(user("johndoe", UserStatus.ACTIVE, userId));
+
+        // Act
+        filter(true).doFilter(bearer(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+        assertThat(principal.getUser().getId()).isEqualTo(userId);
+        assertThat(principal.hasRole("LIBRARIAN")).isTrue();
+        assertThat(authentication.getAuthorities()).extracting("authority").containsExactly("ROLE_LIBRARIAN");
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void shouldRejectRevokedOrInactiveStatelessTokens() throws Exception {
+        // Arrange
+        JwtAuthenticationFilter filter = filter(true);
+        com.ilhanozkan.libraryManagementSystem.model.entity.User revokedUser = user("johndoe", UserStatus.ACTIVE);
+        String revokedToken = jwtService.generateTokenFor(revokedUser);
+        tokenRevocationList.revoke(revokedUser.getId());
+        String inactiveToken = jwtService.generateTokenFor(user("janedoe", UserStatus.INACTIVE));
+
+        // Act & Assert
+        filter.doFilter(bearer(revokedToken), new MockHttpServletResponse(), new MockFilterChain());
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+
+        filter.doFilter(bearer(inactiveToken), new MockHttpServletResponse(), new MockFilterChain());
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void shouldRejectCachedPrincipalRevokedOnAnotherInstance() throws Exception {
+        // Arrange
+        JwtAuthenticationFilter filter = filter(false);
+        com.ilhanozkan.libraryManagementSystem.model.entity.User user = user("johndoe", UserStatus.ACTIVE);
+        given(userDetailsService.loadUserByUsername("johndoe")).willReturn(new UserPrincipal(user));
+        String token = jwtService.generateTokenFor(user);
+        // Issue times have second precision; a load within the issuing second is not trusted for reuse
+        Thread.sleep(1100);
+        filter.doFilter(bearer(token), new MockHttpServletResponse(), new MockFilterChain());
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+        SecurityContextHolder.clearContext();
+        given(tokenRevocationRepository.findByRevokedAtGreaterThanEqual(anyLong()))
+                .willReturn(List.of(new TokenRevocation(user.getId(), System.currentTimeMillis())));
+
+        // Act
+        tokenRevocationList.refresh();
+        filter.doFilter(bearer(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verify(userDetailsService, times(1)).loadUserByUsername("johndoe");
+    }
+
+    private JwtAuthenticationFilter filter(boolean statelessPrincipal) {
+        return new JwtAuthenticationFilter(jwtService, userDetailsService,
+                new PrincipalCache(Duration.ofMinutes(5), 100), tokenRevocationList, statelessPrincipal);
+    }
+
+    private static com.ilhanozkan.libraryManagementSystem.model.entity.User user(String username, UserStatus status) {
+        return user(username, status, UUID.randomUUID());
+    }
+
+    private static com.ilhanozkan.libraryManagementSystem.model.entity.User user(String username, UserStatus status, UUID id) {
+        return com.ilhanozkan.libraryManagementSystem.model.entity.User.builder()
+                .id(id)
+                .username(username)
+                .role(UserRole.LIBRARIAN)
+                .status(status)
+                .build();
+    }
+
+    private static MockHttpServletRequest bearer(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/books");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
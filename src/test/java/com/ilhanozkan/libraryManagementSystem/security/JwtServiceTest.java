@@ -1,5 +1,8 @@
 package com.ilhanozkan.libraryManagementSystem.security;
 
+import com.ilhanozkan.libraryManagementSystem.model.enums.UserRole;
+import com.ilhanozkan.libraryManagementSystem.model.enums.UserStatus;
+import io.jsonwebtoken.JwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,6 +13,7 @@ import org.springframework.test.context.ActiveProfiles;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -108,6 +112,52 @@ public class JwtServiceTest {
         assertFalse(isValid);
     }
 
+    @Test
+    void shouldVerifyTokenInOneParse() {
+        // Arrange
+        String token = jwtService.generateToken(username);
+
+        // Act
+        VerifiedToken verified = jwtService.verify(token);
+
+        // Assert
+        assertThat(verified.username()).isEqualTo(username);
+        assertThat(verified.issuedAt()).isNotNull();
+        assertThat(verified.expiresAt()).isAfter(new Date());
+        assertThat(verified.roles()).isEmpty();
+        assertTrue(jwtService.isValidFor(verified, userDetails));
+    }
+
+    @Test
+    void shouldCarryUserClaimsInToken() {
+        // Arrange
+        com.ilhanozkan.libraryManagementSystem.model.entity.User user = com.ilhanozkan.libraryManagementSystem.model.entity.User.builder()
+                .id(UUID.randomUUID())
+                .username(username)
+                .role(UserRole.LIBRARIAN)
+                .status(UserStatus.ACTIVE)
+                .build();
+
+        // Act
+        VerifiedToken verified = jwtService.verify(jwtService.generateTokenFor(user));
+
+        // Assert
+        assertThat(verified.username()).isEqualTo(username);
+        assertThat(verified.userId()).isEqualTo(user.getId());
+        assertThat(verified.roles()).containsExactly("LIBRARIAN");
+        assertThat(verified.status()).isEqualTo("ACTIVE");
+    }
+
+    @Test
+    void shouldRejectTokenSignedWithAnotherKey() {
+        // Arrange
+        JwtService otherService = new JwtService("another-secret-key-that-is-long-enough-for-hs256", 60_000L);
+        String token = otherService.generateToken(username);
+
+        // Act & Assert
+        assertThrows(JwtException.class, () -> jwtService.verify(token));
+    }
+
     @Test
     void shouldExtractAllClaims() {
         // Arrange
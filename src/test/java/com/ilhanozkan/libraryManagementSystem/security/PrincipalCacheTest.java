@@ -0,0 +1,92 @@
+package com.ilhanozkan.libraryManagementSystem.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PrincipalCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<String, UserDetails> loader = username -> {
+        loads.incrementAndGet();
+        return new User(username, "password", new ArrayList<>());
+    };
+
+    @Test
+    void shouldLoadPrincipalOnceWithinTtl() {
+        // Arrange
+        PrincipalCache cache = new PrincipalCache(Duration.ofMinutes(5), 100);
+
+        // Act
+        UserDetails first = cache.get("johndoe", null, loader);
+        UserDetails second = cache.get("johndoe", null, loader);
+
+        // Assert
+        assertThat(second).isSameAs(first);
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReloadExpiredPrincipal() {
+        // Arrange
+        PrincipalCache cache = new PrincipalCache(Duration.ZERO, 100);
+
+        // Act
+        cache.get("johndoe", null, loader);
+        cache.get("johndoe", null, loader);
+
+        // Assert
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldReloadEvictedPrincipal() {
+        // Arrange
+        PrincipalCache cache = new PrincipalCache(Duration.ofMinutes(5), 100);
+        cache.get("johndoe", null, loader);
+
+        // Act
+        cache.evict("johndoe");
+        cache.get("johndoe", null, loader);
+
+        // Assert
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldReloadPrincipalForTokenIssuedAfterLoad() {
+        // Arrange
+        PrincipalCache cache = new PrincipalCache(Duration.ofMinutes(5), 100);
+        Date oldToken = new Date(System.currentTimeMillis() - 60_000);
+        Date newToken = new Date(System.currentTimeMillis());
+
+        // Act
+        cache.get("johndoe", oldToken, loader);
+        cache.get("johndoe", oldToken, loader);
+        cache.get("johndoe", newToken, loader);
+
+        // Assert
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldStayWithinMaximumSize() {
+        // Arrange
+        PrincipalCache cache = new PrincipalCache(Duration.ofMinutes(5), 10);
+
+        // Act
+        for (int i = 0; i < 25; i++)
+            cache.get("user" + i, null, loader);
+
+        // Assert
+        assertThat(cache.size()).isLessThanOrEqualTo(10);
+    }
+}
@@ -0,0 +1,92 @@
+package com.ilhanozkan.libraryManagementSystem.security;
+
+import com.ilhanozkan.libraryManagementSystem.model.entity.TokenRevocation;
+import com.ilhanozkan.libraryManagementSystem.repository.TokenRevocationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenRevocationListTest {
+
+    private static final UUID JOHN = UUID.randomUUID();
+    private static final UUID JANE = UUID.randomUUID();
+
+    @Mock
+    private TokenRevocationRepository tokenRevocationRepository;
+
+    @Test
+    void shouldRevokeTokensIssuedBeforeRevocation() {
+        // Arrange
+        TokenRevocationList revocationList = new TokenRevocationList(tokenRevocationRepository, 60_000L);
+        Date issuedBefore = new Date(System.currentTimeMillis() - 5_000);
+        Date issuedAfter = new Date(System.currentTimeMillis() + 5_000);
+
+        // Act
+        revocationList.revoke(JOHN);
+
+        // Assert
+        assertThat(revocationList.isRevoked(JOHN, issuedBefore)).isTrue();
+        assertThat(revocationList.isRevoked(JOHN, issuedAfter)).isFalse();
+        assertThat(revocationList.isRevoked(JANE, issuedBefore)).isFalse();
+        ArgumentCaptor<TokenRevocation> stored = ArgumentCaptor.forClass(TokenRevocation.class);
+        verify(tokenRevocationRepository).save(stored.capture());
+        assertThat(stored.getValue().getUserId()).isEqualTo(JOHN);
+    }
+
+    @Test
+    void shouldLoadStoredRevocationsAtStartup() {
+        // Arrange: revoked before a restart, or on another instance
+        long revokedAt = System.currentTimeMillis() - 1_000;
+        given(tokenRevocationRepository.findByRevokedAtGreaterThanEqual(anyLong()))
+                .willReturn(List.of(new TokenRevocation(JOHN, revokedAt)));
+        TokenRevocationList revocationList = new TokenRevocationList(tokenRevocationRepository, 60_000L);
+
+        // Act
+        revocationList.afterSingletonsInstantiated();
+
+        // Assert
+        assertThat(revocationList.isRevoked(JOHN, new Date(revokedAt - 5_000))).isTrue();
+        assertThat(revocationList.isRevoked(JANE, new Date(revokedAt - 5_000))).isFalse();
+    }
+
+    @Test
+    void shouldKeepLocalRevocationsNotYetReadBackOnRefresh() {
+        // Arrange
+        given(tokenRevocationRepository.findByRevokedAtGreaterThanEqual(anyLong())).willReturn(List.of());
+        TokenRevocationList revocationList = new TokenRevocationList(tokenRevocationRepository, 60_000L);
+        revocationList.revoke(JOHN);
+
+        // Act
+        revocationList.refresh();
+
+        // Assert
+        assertThat(revocationList.isRevoked(JOHN, new Date(System.currentTimeMillis() - 5_000))).isTrue();
+    }
+
+    @Test
+    void shouldForgetRevocationsAfterTokenLifetime() {
+        // Arrange
+        TokenRevocationList revocationList = new TokenRevocationList(tokenRevocationRepository, 0L);
+
+        // Act
+        revocationList.revoke(JOHN);
+        revocationList.refresh();
+
+        // Assert
+        assertThat(revocationList.isRevoked(JOHN, new Date(0))).isFalse();
+        assertThat(revocationList.size()).isZero();
+        verify(tokenRevocationRepository).deleteRevokedUpTo(anyLong());
+    }
+}
@@ -0,0 +1,115 @@
+package com.ilhanozkan.libraryManagementSystem.service;
+
+import com.ilhanozkan.libraryManagementSystem.model.dto.event.AvailabilityStreamStats;
+import com.ilhanozkan.libraryManagementSystem.model.dto.event.BookAvailabilityEvent;
+import com.ilhanozkan.libraryManagementSystem.model.entity.AvailabilityEvent;
+import com.ilhanozkan.libraryManagementSystem.model.enums.StreamOverflowPolicy;
+import com.ilhanozkan.libraryManagementSystem.repository.AvailabilityEventRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Thousands of stalled subscribers against concurrent publishers; only runs in the load-test profile
+ */
+@Tag("load")
+public class BookAvailabilityPublisherLoadTest {
+
+    private static final int SLOW_SUBSCRIBERS = 5_000;
+    private static final int PUBLISHER_THREADS = 16;
+    private static final int EVENTS_PER_THREAD = 200;
+    private static final int BUFFER_SIZE = 64;
+    private static final int BOOKS = 500;
+
+    @Test
+    public void shouldPublishWithoutBlockingOnThousandsOfSlowSubscribers() throws Exception {
+        // Arrange
+        AtomicLong seq = new AtomicLong();
+        AvailabilityEventRepository repository = mock(AvailabilityEventRepository.class);
+        when(repository.save(any(AvailabilityEvent.class))).thenAnswer(invocation -> {
+            AvailabilityEvent entry = invocation.getArgument(0);
+            entry.setSeq(seq.incrementAndGet());
+            return entry;
+        });
+        // Offsets in sequence order, as a single writer would commit them
+        when(repository.assignOffsets(anyCollection())).thenAnswer(invocation -> invocation.<Collection<Long>>getArgument(0).stream()
+                .collect(Collectors.toMap(Function.identity(), Function.identity())));
+        BookAvailabilityPublisher publisher = new BookAvailabilityPublisher(repository, BUFFER_SIZE, StreamOverflowPolicy.DROP_OLDEST, Duration.ofSeconds(1),
+                Duration.ofMinutes(1), Duration.ofDays(7));
+
+        // Subscribers that take one event and then stop asking for more
+        List<BaseSubscriber<BookAvailabilityEvent>> subscribers = new ArrayList<>();
+        for (int i = 0; i < SLOW_SUBSCRIBERS; i++) {
+            BaseSubscriber<BookAvailabilityEvent> subscriber = new BaseSubscriber<>() {
+                @Override
+                protected void hookOnSubscribe(Subscription subscription) {
+                    request(1);
+                }
+            };
+            publisher.getEventStream().subscribe(subscriber);
+            subscribers.add(subscriber);
+        }
+        List<UUID> books = new ArrayList<>();
+        for (int i = 0; i < BOOKS; i++)
+            books.add(UUID.randomUUID());
+
+        ExecutorService executor = Executors.newFixedThreadPool(PUBLISHER_THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < PUBLISHER_THREADS; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < EVENTS_PER_THREAD; i++) {
+                    UUID bookId = books.get((thread * EVENTS_PER_THREAD + i) % BOOKS);
+                    publisher.publishEvent(BookAvailabilityEvent.create(bookId, "Book", "9780061120084", 10, i % 10));
+                }
+                return null;
+            }));
+        }
+
+        // Act
+        start.countDown();
+        for (Future<?> future : futures)
+            future.get(120, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // Emission happens on the dispatcher thread; wait until it has handed every event to every subscriber
+        int events = PUBLISHER_THREADS * EVENTS_PER_THREAD;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(120);
+        while (publisher.getStats().published() < events && System.nanoTime() < deadline)
+            Thread.sleep(10);
+
+        // Assert
+        AvailabilityStreamStats stats = publisher.getStats();
+        assertThat(stats.published()).isEqualTo(events);
+        assertThat(stats.subscribers()).isEqualTo(SLOW_SUBSCRIBERS);
+        // Each subscriber holds one delivered event plus a full buffer; everything else was dropped, not queued
+        assertThat(stats.dropped()).isEqualTo((long) SLOW_SUBSCRIBERS * (events - 1 - BUFFER_SIZE));
+
+        subscribers.forEach(BaseSubscriber::dispose);
+        assertThat(publisher.getStats().subscribers()).isZero();
+        publisher.shutdown();
+    }
+}
@@ -1,27 +1,84 @@
 package com.ilhanozkan.libraryManagementSystem.service;
 
 import com.ilhanozkan.libraryManagementSystem.model.dto.event.BookAvailabilityEvent;
+import com.ilhanozkan.libraryManagementSystem.model.dto.request.AvailabilityStreamFilterDTO;
+import com.ilhanozkan.libraryManagementSystem.model.entity.AvailabilityEvent;
+import com.ilhanozkan.libraryManagementSystem.model.enums.BookGenre;
+import com.ilhanozkan.libraryManagementSystem.model.enums.StreamOverflowPolicy;
+import com.ilhanozkan.libraryManagementSystem.repository.AvailabilityEventRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
 import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 
 import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.longThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 class BookAvailabilityPublisherTest {
 
     private BookAvailabilityPublisher publisher;
     private BookAvailabilityEvent event1;
     private BookAvailabilityEvent event2;
+    private final List<AvailabilityEvent> eventLog = new CopyOnWriteArrayList<>();
+    private final AtomicLong lastOffset = new AtomicLong();
+    private AvailabilityEventRepository repository;
 
     @BeforeEach
     void setUp() {
-        publisher = new BookAvailabilityPublisher();
+        // In-memory stand-in for the availability_events table
+        repository = mock(AvailabilityEventRepository.class);
+        lenient().when(repository.save(any(AvailabilityEvent.class))).thenAnswer(invocation -> {
+            AvailabilityEvent entry = invocation.getArgument(0);
+            entry.setSeq((long) eventLog.size() + 1);
+            eventLog.add(entry);
+            return entry;
+        });
+        lenient().when(repository.assignOffsets(anyCollection())).thenAnswer(invocation -> {
+            Map<Long, Long> offsets = new HashMap<>();
+            for (Long seq : invocation.<Collection<Long>>getArgument(0)) {
+                AvailabilityEvent entry = eventLog.get(seq.intValue() - 1);
+                if (entry.getStreamOffset() == null)
+                    entry.setStreamOffset(lastOffset.incrementAndGet());
+                offsets.put(seq, entry.getStreamOffset());
+            }
+            return offsets;
+        });
+        lenient().when(repository.findByStreamOffsetGreaterThanOrderByStreamOffset(anyLong(), any(Limit.class))).thenAnswer(invocation -> {
+            long after = invocation.getArgument(0);
+            Limit limit = invocation.getArgument(1);
+            return eventLog.stream()
+                .filter(entry -> entry.getStreamOffset() != null && entry.getStreamOffset() > after)
+                .sorted(Comparator.comparing(AvailabilityEvent::getStreamOffset))
+                .limit(limit.max())
+                .toList();
+        });
+
+        publisher = publisher(StreamOverflowPolicy.COALESCE, 256);
         event1 = new BookAvailabilityEvent(UUID.randomUUID(), "Book 1", "9780061120084", 3, 2, System.currentTimeMillis());
         event2 = new BookAvailabilityEvent(UUID.randomUUID(), "Book 2", "9780451524935", 8, 8, System.currentTimeMillis() );
     }
@@ -35,8 +92,8 @@ class BookAvailabilityPublisherTest {
         StepVerifier.create(eventFlux.take(2))
             .then(() -> publisher.publishEvent(event1))
             .then(() -> publisher.publishEvent(event2))
-            .expectNext(event1)
-            .expectNext(event2)
+            .expectNext(event1.withSeq(1L))
+            .expectNext(event2.withSeq(2L))
             .verifyComplete();
     }
 
@@ -93,14 +150,224 @@ class BookAvailabilityPublisherTest {
     }
 
     @Test
-    void shouldCacheEvents() {
+    void shouldNotReplayEventsToLiveOnlySubscribers() {
         // Publish an event before having any subscribers
         publisher.publishEvent(event1);
-        
-        // Subscribe after the event was published
+
+        // A subscriber without an offset only sees what is published afterwards
+        StepVerifier.create(publisher.getEventStream().take(1))
+            .then(() -> publisher.publishEvent(event2))
+            .expectNext(event2.withSeq(2L))
+            .verifyComplete();
+    }
+
+    @Test
+    void shouldReplayFromSequenceThenTailLiveEvents() {
+        // Arrange: more events than one replay batch, published before anyone subscribed
+        int logged = BookAvailabilityPublisher.REPLAY_BATCH_SIZE + 10;
+        for (int i = 0; i < logged; i++)
+            publisher.publishEvent(event1);
+
+        // Act & Assert: replay from the third event, then receive a live one with no gap or repeat
+        StepVerifier.create(publisher.getEventStream(3).map(BookAvailabilityEvent::seq).take(logged - 1))
+            .expectNextSequence(LongStream.rangeClosed(3, logged).boxed().toList())
+            .then(() -> publisher.publishEvent(event2))
+            .expectNext((long) logged + 1)
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void shouldDropOldestEventsForSlowSubscriber() {
+        // Arrange
+        BookAvailabilityPublisher dropOldest = publisher(StreamOverflowPolicy.DROP_OLDEST, 4);
+
+        // Act & Assert: nothing requested while ten events arrive, then the four newest are delivered
+        StepVerifier.create(dropOldest.getEventStream().map(BookAvailabilityEvent::seq), 0)
+            .then(() -> publishDistinctBooks(dropOldest, 10))
+            .thenRequest(4)
+            .expectNext(7L, 8L, 9L, 10L)
+            .thenCancel()
+            .verify(Duration.ofSeconds(5));
+        assertThat(dropOldest.getStats().dropped()).isEqualTo(6);
+    }
+
+    @Test
+    void shouldDropLatestEventsForSlowSubscriber() {
+        // Arrange
+        BookAvailabilityPublisher dropLatest = publisher(StreamOverflowPolicy.DROP_LATEST, 4);
+
+        // Act & Assert
+        StepVerifier.create(dropLatest.getEventStream().map(BookAvailabilityEvent::seq), 0)
+            .then(() -> publishDistinctBooks(dropLatest, 10))
+            .thenRequest(10)
+            .expectNext(1L, 2L, 3L, 4L)
+            .thenCancel()
+            .verify(Duration.ofSeconds(5));
+        assertThat(dropLatest.getStats().dropped()).isEqualTo(6);
+    }
+
+    @Test
+    void shouldCoalesceEventsOfTheSameBook() {
+        // Act & Assert: ten changes of one book while the subscriber is busy arrive as the newest one
+        StepVerifier.create(publisher.getEventStream(), 0)
+            .then(() -> {
+                for (int i = 0; i < 10; i++)
+                    publisher.publishEvent(event1);
+                publisher.publishEvent(event2);
+            })
+            .thenRequest(2)
+            .expectNext(event1.withSeq(10L), event2.withSeq(11L))
+            .thenCancel()
+            .verify(Duration.ofSeconds(5));
+        assertThat(publisher.getStats().coalesced()).isEqualTo(9);
+        assertThat(publisher.getStats().dropped()).isZero();
+    }
+
+    @Test
+    void shouldOnlySendEventsMatchingFilter() {
+        // Arrange
+        BookAvailabilityEvent epic = BookAvailabilityEvent.create(UUID.randomUUID(), "Epic", "9780618391110", 1, 1, BookGenre.EPIC);
+        BookAvailabilityEvent fantasy = BookAvailabilityEvent.create(UUID.randomUUID(), "Fantasy", "9780547928227", 1, 1, BookGenre.FANTASY);
+        AvailabilityStreamFilterDTO byGenre = AvailabilityStreamFilterDTO.builder().genre(BookGenre.FANTASY).build();
+        AvailabilityStreamFilterDTO byBook = AvailabilityStreamFilterDTO.builder().bookIds(List.of(epic.bookId())).build();
+        AvailabilityStreamFilterDTO byIsbn = AvailabilityStreamFilterDTO.builder().isbns(List.of("9780547928227")).build();
+
+        // Act & Assert
+        StepVerifier.create(publisher.getEventStream(null, byGenre).map(BookAvailabilityEvent::bookName).take(1))
+            .then(() -> {
+                publisher.publishEvent(epic);
+                publisher.publishEvent(fantasy);
+            })
+            .expectNext("Fantasy")
+            .verifyComplete();
+        StepVerifier.create(publisher.getEventStream(1L, byBook).map(BookAvailabilityEvent::seq).take(1))
+            .expectNext(1L)
+            .verifyComplete();
+        StepVerifier.create(publisher.getEventStream(1L, byIsbn).map(BookAvailabilityEvent::seq).take(1))
+            .expectNext(2L)
+            .verifyComplete();
+    }
+
+    @Test
+    void shouldCoalesceBurstsWithinWindow() {
+        // Arrange
+        AvailabilityStreamFilterDTO coalesced = AvailabilityStreamFilterDTO.builder().coalesce(true).build();
+
+        // Act & Assert: a burst for one book arrives as its latest state after the window, not event by event
+        StepVerifier.create(publisher.getEventStream(null, coalesced))
+            .then(() -> {
+                for (int i = 0; i < 20; i++)
+                    publisher.publishEvent(event1);
+                publisher.publishEvent(event2);
+            })
+            .expectNoEvent(Duration.ofMillis(100))
+            .expectNext(event1.withSeq(20L), event2.withSeq(21L))
+            .thenCancel()
+            .verify(Duration.ofSeconds(5));
+        assertThat(publisher.getStats().coalesced()).isEqualTo(19);
+    }
+
+    @Test
+    void shouldNotFailWhenSubscriberThrows() {
+        // Arrange
+        publisher.getEventStream().subscribe(event -> {
+            throw new IllegalStateException("Broken subscriber");
+        }, error -> { });
+
+        // Act
+        publisher.publishEvent(event1);
+
+        // Assert
+        assertThat(eventLog).extracting(AvailabilityEvent::getStreamOffset).containsExactly(1L);
+    }
+
+    @Test
+    void shouldHoldEventsUntilTransactionCompletes() {
+        // Arrange
+        AtomicInteger received = new AtomicInteger();
+        publisher.getEventStream().subscribe(event -> received.incrementAndGet());
+
+        // Act & Assert: a rolled back transaction emits nothing, a committed one emits everything it collected
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            publisher.publishEvent(event1);
+            assertThat(received.get()).isZero();
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(received.get()).isZero();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            publisher.publishEvent(event1);
+            publisher.publishEvent(event2);
+            assertThat(received.get()).isZero();
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(received.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotFailWithoutSubscribers() {
+        // Act
+        BookAvailabilityEvent appended = publisher.publishEvent(event1);
+
+        // Assert
+        assertThat(appended.seq()).isNull();
+        assertThat(eventLog).extracting(AvailabilityEvent::getStreamOffset).containsExactly(1L);
+    }
+
+    @Test
+    void shouldAssignAndEmitEventsThatMissedTheirOffset() {
+        // Arrange: committed by an instance that stopped before its flush
+        AvailabilityEvent orphan = AvailabilityEvent.builder()
+            .seq(1L)
+            .bookId(event1.bookId())
+            .bookName(event1.bookName())
+            .isbn(event1.isbn())
+            .totalQuantity(event1.totalQuantity())
+            .availableQuantity(event1.availableQuantity())
+            .timestamp(System.currentTimeMillis() - Duration.ofMinutes(5).toMillis())
+            .build();
+        eventLog.add(orphan);
+        given(repository.findByStreamOffsetIsNullAndTimestampLessThanOrderBySeq(anyLong(), any(Limit.class)))
+            .willReturn(List.of(orphan));
+
+        // Act & Assert
         StepVerifier.create(publisher.getEventStream().take(1))
-            // Should still receive the cached event
-            .expectNext(event1)
+            .then(publisher::assignMissedOffsets)
+            .assertNext(event -> {
+                assertThat(event.bookId()).isEqualTo(event1.bookId());
+                assertThat(event.seq()).isEqualTo(1L);
+            })
             .verifyComplete();
+        assertThat(orphan.getStreamOffset()).isEqualTo(1L);
+    }
+
+    @Test
+    void shouldPruneEventsOlderThanRetention() {
+        // Act
+        publisher.pruneExpiredEvents();
+
+        // Assert
+        long cutoff = System.currentTimeMillis() - Duration.ofDays(7).toMillis();
+        verify(repository).deleteOlderThan(longThat(timestamp -> Math.abs(timestamp - cutoff) < 5_000));
+    }
+
+    private BookAvailabilityPublisher publisher(StreamOverflowPolicy policy, int bufferSize) {
+        // Flush on the publishing thread so each test sees its events as soon as publishEvent returns
+        return new BookAvailabilityPublisher(repository, bufferSize, policy, Duration.ofMillis(200),
+            Duration.ofMinutes(1), Duration.ofDays(7), Schedulers.immediate());
+    }
+
+    private static void publishDistinctBooks(BookAvailabilityPublisher target, int count) {
+        for (int i = 0; i < count; i++)
+            target.publishEvent(BookAvailabilityEvent.create(UUID.randomUUID(), "Book " + i, "9780061120084", 5, 4));
     }
-}
\ No newline at end of file
+}
@@ -4,7 +4,9 @@ import com.ilhanozkan.libraryManagementSystem.model.dto.request.auth.LoginReques
 import com.ilhanozkan.libraryManagementSystem.model.dto.request.auth.RegisterRequestDTO;
 import com.ilhanozkan.libraryManagementSystem.model.dto.response.auth.LoginResponseDTO;
 import com.ilhanozkan.libraryManagementSystem.model.entity.User;
+import com.ilhanozkan.libraryManagementSystem.model.entity.UserPrincipal;
 import com.ilhanozkan.libraryManagementSystem.model.enums.UserRole;
+import com.ilhanozkan.libraryManagementSystem.model.enums.UserStatus;
 import com.ilhanozkan.libraryManagementSystem.repository.UserRepository;
 import com.ilhanozkan.libraryManagementSystem.security.JwtService;
 import org.apache.coyote.BadRequestException;
@@ -216,6 +218,30 @@ class AuthServiceImplTest {
         verify(jwtService).generateToken("testuser");
     }
 
+    @Test
+    void shouldIssueTokenWithUserClaimsForUserPrincipal() {
+        // Arrange
+        User librarian = User.builder()
+                .id(UUID.randomUUID())
+                .username("librarian")
+                .role(UserRole.LIBRARIAN)
+                .status(UserStatus.ACTIVE)
+                .build();
+        given(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).willReturn(authentication);
+        given(authentication.getPrincipal()).willReturn(new UserPrincipal(librarian));
+        given(jwtService.generateTokenFor(librarian)).willReturn("jwt-token");
+
+        // Act
+        ResponseEntity<?> response = authService.login(loginRequestDTO);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        LoginResponseDTO responseDTO = (LoginResponseDTO) response.getBody();
+        assertThat(responseDTO.getToken()).isEqualTo("jwt-token");
+        assertThat(responseDTO.getRole()).isEqualTo(UserRole.LIBRARIAN);
+        verify(jwtService, never()).generateToken(anyString());
+    }
+
     @Test
     void shouldReturnUnauthorizedWhenLoginFails() {
         // Arrange
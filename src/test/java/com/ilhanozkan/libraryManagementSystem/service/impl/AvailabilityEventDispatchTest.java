@@ -0,0 +1,177 @@
+package com.ilhanozkan.libraryManagementSystem.service.impl;
+
+import com.ilhanozkan.libraryManagementSystem.model.dto.event.BookAvailabilityEvent;
+import com.ilhanozkan.libraryManagementSystem.model.dto.request.AvailabilityStreamFilterDTO;
+import com.ilhanozkan.libraryManagementSystem.model.dto.request.BorrowingRequestDTO;
+import com.ilhanozkan.libraryManagementSystem.model.entity.Book;
+import com.ilhanozkan.libraryManagementSystem.model.entity.User;
+import com.ilhanozkan.libraryManagementSystem.model.enums.BookGenre;
+import com.ilhanozkan.libraryManagementSystem.model.enums.UserRole;
+import com.ilhanozkan.libraryManagementSystem.model.enums.UserStatus;
+import com.ilhanozkan.libraryManagementSystem.repository.AvailabilityEventRepository;
+import com.ilhanozkan.libraryManagementSystem.repository.BookRepository;
+import com.ilhanozkan.libraryManagementSystem.repository.BorrowingRepository;
+import com.ilhanozkan.libraryManagementSystem.repository.UserRepository;
+import com.ilhanozkan.libraryManagementSystem.service.BookAvailabilityPublisher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.Disposable;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class AvailabilityEventDispatchTest {
+
+    @Autowired
+    private BorrowingServiceImpl borrowingService;
+
+    @Autowired
+    private BookAvailabilityPublisher bookAvailabilityPublisher;
+
+    @Autowired
+    private AvailabilityEventRepository availabilityEventRepository;
+
+    @Autowired
+    private BorrowingRepository borrowingRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<BookAvailabilityEvent> received = new CopyOnWriteArrayList<>();
+    private Disposable subscription;
+    private User patron;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        patron = userRepository.save(User.builder()
+                .username("dispatched")
+                .email("dispatched@test.com")
+                .password("password")
+                .name("Dispatched")
+                .surname("Patron")
+                .role(UserRole.PATRON)
+                .status(UserStatus.ACTIVE)
+                .build());
+        book = bookRepository.save(Book.builder()
+                .name("Dispatched Book")
+                .isbn("9790000000002")
+                .author("Dispatched Author")
+                .publisher("Dispatched Publisher")
+                .numberOfPages(100)
+                .quantity(2)
+                .availableQuantity(2)
+                .genre(BookGenre.CLASSIC)
+                .build());
+        subscription = bookAvailabilityPublisher.getEventStream().subscribe(received::add);
+    }
+
+    @AfterEach
+    void tearDown() {
+        subscription.dispose();
+        borrowingRepository.deleteAll();
+        bookRepository.deleteById(book.getId());
+        userRepository.deleteById(patron.getId());
+    }
+
+    @Test
+    public void shouldNeverEmitEventsOfRolledBackBorrowing() throws Exception {
+        // Arrange
+        long loggedBefore = availabilityEventRepository.count();
+
+        // Act
+        transactionTemplate.executeWithoutResult(status -> {
+            borrowingService.createBorrowing(new BorrowingRequestDTO(book.getId(), patron.getId()));
+            status.setRollbackOnly();
+        });
+        Thread.sleep(300);
+
+        // Assert
+        assertThat(received).isEmpty();
+        assertThat(availabilityEventRepository.count()).isEqualTo(loggedBefore);
+        assertThat(bookRepository.findById(book.getId()).orElseThrow().getAvailableQuantity()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldEmitOnlyAfterCommit() throws Exception {
+        // Act
+        transactionTemplate.executeWithoutResult(status -> {
+            borrowingService.createBorrowing(new BorrowingRequestDTO(book.getId(), patron.getId()));
+            borrowingService.createBorrowing(new BorrowingRequestDTO(book.getId(), patron.getId()));
+            // Still inside the transaction: subscribers must not have seen anything yet
+            assertThat(received).isEmpty();
+        });
+
+        // Assert
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (received.size() < 2 && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+        assertThat(received).extracting(BookAvailabilityEvent::availableQuantity).containsExactly(1, 0);
+        assertThat(received).extracting(BookAvailabilityEvent::seq).isSorted().doesNotContainNull();
+    }
+
+    @Test
+    public void shouldReplayEventThatCommitsAfterAHigherSeq() throws Exception {
+        // Arrange: the first event takes the lower seq but its transaction stays open
+        CountDownLatch appended = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> slow = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            bookAvailabilityPublisher.publishEvent(BookAvailabilityEvent.create(book.getId(), book.getName(), book.getIsbn(), 2, 1));
+            appended.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(appended.await(5, TimeUnit.SECONDS)).isTrue();
+        bookAvailabilityPublisher.publishEvent(BookAvailabilityEvent.create(book.getId(), book.getName(), book.getIsbn(), 2, 0));
+        awaitReceived(1);
+
+        // Act: resume from the start, read past the committed event, then let the slow transaction commit
+        List<BookAvailabilityEvent> resumed = new CopyOnWriteArrayList<>();
+        AvailabilityStreamFilterDTO byBook = AvailabilityStreamFilterDTO.builder().bookIds(List.of(book.getId())).build();
+        Disposable replaying = bookAvailabilityPublisher.getEventStream(1L, byBook).subscribe(resumed::add);
+        try {
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (resumed.isEmpty() && System.currentTimeMillis() < deadline)
+                Thread.sleep(10);
+            release.countDown();
+            slow.get(5, TimeUnit.SECONDS);
+            while (resumed.size() < 2 && System.currentTimeMillis() < deadline)
+                Thread.sleep(10);
+        } finally {
+            replaying.dispose();
+        }
+
+        // Assert: the late commit comes after the early one, with a higher offset
+        assertThat(resumed).extracting(BookAvailabilityEvent::availableQuantity).containsExactly(0, 1);
+        assertThat(resumed).extracting(BookAvailabilityEvent::seq).isSorted().doesNotHaveDuplicates();
+        awaitReceived(2);
+        assertThat(received).extracting(BookAvailabilityEvent::availableQuantity).containsExactly(0, 1);
+    }
+
+    private void awaitReceived(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (received.size() < count && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+    }
+}
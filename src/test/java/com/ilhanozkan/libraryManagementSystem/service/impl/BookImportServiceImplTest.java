@@ -0,0 +1,233 @@
+package com.ilhanozkan.libraryManagementSystem.service.impl;
+
+import com.ilhanozkan.libraryManagementSystem.model.dto.event.BookImportCompletedEvent;
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.BookImportResultDTO;
+import com.ilhanozkan.libraryManagementSystem.model.entity.Book;
+import com.ilhanozkan.libraryManagementSystem.model.enums.BookGenre;
+import com.ilhanozkan.libraryManagementSystem.model.enums.BookImportFormat;
+import com.ilhanozkan.libraryManagementSystem.repository.AvailabilityEventRepository;
+import com.ilhanozkan.libraryManagementSystem.repository.BookRepository;
+import com.ilhanozkan.libraryManagementSystem.service.BookImportService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest(properties = {"library.import.batch-size=500", "spring.jpa.show-sql=false", "logging.level.org.hibernate.SQL=info"})
+@ActiveProfiles("test")
+@RecordApplicationEvents
+public class BookImportServiceImplTest {
+
+    private static final int CATALOG_SIZE = 5_000;
+
+    @Autowired
+    private BookImportService bookImportService;
+
+    // Spied so a test can change a book between the import reading and writing it
+    @SpyBean
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private AvailabilityEventRepository availabilityEventRepository;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM books WHERE isbn LIKE '9791%'");
+    }
+
+    @Test
+    public void shouldImportCsvAndReportRejectedRows() throws Exception {
+        // Arrange
+        String csv = """
+                isbn,name,author,publisher,numberOfPages,quantity,genre,ignored
+                9791000000001,"Poems, Collected",Some Poet,Verse House,120,3,poetry,x
+                9791000000002,Plain Title,Someone,House,200,2,2,
+                1234,Bad Isbn,Someone,House,200,2,FANTASY,
+                9791000000003,Bad Genre,Someone,House,200,2,COOKING,
+                9791000000004,,Someone,House,-1,2,FANTASY,
+                """;
+        long eventsBefore = availabilityEventRepository.count();
+
+        // Act
+        BookImportResultDTO result = bookImportService.importBooks(new StringReader(csv), BookImportFormat.CSV);
+
+        // Assert
+        assertThat(result.rows()).isEqualTo(5);
+        assertThat(result.inserted()).isEqualTo(2);
+        assertThat(result.rejected()).isEqualTo(3);
+        assertThat(result.errors()).containsExactly(
+                "line 4: isbn ISBN must be in the format 978XXXXXXXXX or 979XXXXXXXXX",
+                "line 5: Unknown genre COOKING",
+                "line 6: name Book name is required; numberOfPages Number of pages must be at least 0");
+        Book poems = bookRepository.findByIsbn("9791000000001");
+        assertThat(poems.getName()).isEqualTo("Poems, Collected");
+        assertThat(poems.getGenre()).isEqualTo(BookGenre.POETRY);
+        assertThat(poems.getAvailableQuantity()).isEqualTo(3);
+        assertThat(bookRepository.findByIsbn("9791000000002").getGenre()).isEqualTo(BookGenre.values()[2]);
+        // One summary event instead of an availability event per book
+        assertThat(availabilityEventRepository.count()).isEqualTo(eventsBefore);
+        assertThat(applicationEvents.stream(BookImportCompletedEvent.class))
+                .containsExactly(new BookImportCompletedEvent(2, 0, 3, result.elapsedMillis()));
+    }
+
+    @Test
+    public void shouldUpsertJsonLinesByIsbn() throws Exception {
+        // Arrange
+        bookImportService.importBooks(new StringReader(
+                "{\"isbn\":\"9791000000010\",\"name\":\"First\",\"author\":\"A\",\"publisher\":\"P\",\"numberOfPages\":10,\"quantity\":5,\"genre\":\"FANTASY\"}\n"),
+                BookImportFormat.JSONL);
+        Book existing = bookRepository.findByIsbn("9791000000010");
+        existing.setAvailableQuantity(2);
+        bookRepository.save(existing);
+
+        // Act: three more copies arrive and the title is corrected; the second row is new; the third is broken
+        BookImportResultDTO result = bookImportService.importBooks(new StringReader("""
+                {"isbn":"9791000000010","name":"First, Revised","author":"A","publisher":"P","numberOfPages":10,"quantity":8,"genre":"FANTASY"}
+
+                {"isbn":"9791000000011","name":"Second","author":"B","publisher":"P","numberOfPages":20,"quantity":1,"genre":"HISTORY"}
+                {"isbn":
+                """), BookImportFormat.JSONL);
+
+        // Assert
+        assertThat(result.updated()).isEqualTo(1);
+        assertThat(result.inserted()).isEqualTo(1);
+        assertThat(result.rejected()).isEqualTo(1);
+        assertThat(result.errors().get(0)).startsWith("line 4: Invalid JSON");
+        Book updated = bookRepository.findByIsbn("9791000000010");
+        assertThat(updated.getId()).isEqualTo(existing.getId());
+        assertThat(updated.getName()).isEqualTo("First, Revised");
+        assertThat(updated.getQuantity()).isEqualTo(8);
+        assertThat(updated.getAvailableQuantity()).isEqualTo(5);
+    }
+
+    @Test
+    public void shouldRejectRowsWithdrawingCopiesOnLoan() throws Exception {
+        // Arrange: three of five copies are on loan
+        Book existing = importBook("9791000000030", 5);
+        existing.setAvailableQuantity(2);
+        bookRepository.save(existing);
+
+        // Act
+        BookImportResultDTO result = bookImportService.importBooks(new StringReader(jsonLine("9791000000030", 2)), BookImportFormat.JSONL);
+
+        // Assert
+        assertThat(result.updated()).isZero();
+        assertThat(result.rejected()).isEqualTo(1);
+        assertThat(result.errors()).containsExactly("line 1: quantity 2 is below the 3 copies on loan");
+        Book unchanged = bookRepository.findByIsbn("9791000000030");
+        assertThat(unchanged.getQuantity()).isEqualTo(5);
+        assertThat(unchanged.getAvailableQuantity()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldRetryChunkThatRacedACheckout() throws Exception {
+        // Arrange
+        Book existing = importBook("9791000000031", 5);
+        checkOutWhileImportingChunks(existing, 1);
+
+        // Act
+        BookImportResultDTO result = bookImportService.importBooks(new StringReader(jsonLine("9791000000031", 8)), BookImportFormat.JSONL);
+
+        // Assert: the retry sees the copy on loan
+        assertThat(result.updated()).isEqualTo(1);
+        assertThat(result.rejected()).isZero();
+        Book updated = bookRepository.findByIsbn("9791000000031");
+        assertThat(updated.getQuantity()).isEqualTo(8);
+        assertThat(updated.getAvailableQuantity()).isEqualTo(7);
+    }
+
+    @Test
+    public void shouldReportChunkThatKeepsRacingCheckoutsAndGoOn() throws Exception {
+        // Arrange
+        Book existing = importBook("9791000000032", 5);
+        checkOutWhileImportingChunks(existing, BookImportServiceImpl.MAX_CHUNK_ATTEMPTS);
+
+        // Act
+        BookImportResultDTO result = bookImportService.importBooks(new StringReader(jsonLine("9791000000032", 8)), BookImportFormat.JSONL);
+
+        // Assert
+        assertThat(result.updated()).isZero();
+        assertThat(result.rejected()).isEqualTo(1);
+        assertThat(result.errors()).containsExactly("line 1: book changed during the import, row not imported");
+        Book unchanged = bookRepository.findByIsbn("9791000000032");
+        assertThat(unchanged.getQuantity()).isEqualTo(5);
+        assertThat(unchanged.getAvailableQuantity()).isEqualTo(5 - BookImportServiceImpl.MAX_CHUNK_ATTEMPTS);
+    }
+
+    @Test
+    public void shouldRejectCsvWithoutRequiredColumns() {
+        assertThrows(IllegalArgumentException.class, () -> bookImportService.importBooks(
+                new StringReader("isbn,name\n9791000000020,Nameless\n"), BookImportFormat.CSV));
+    }
+
+    @Test
+    public void shouldStreamLargeCatalogInBatches() throws Exception {
+        // Arrange
+        StringBuilder csv = new StringBuilder("name,isbn,author,publisher,numberOfPages,quantity,genre\n");
+        for (int i = 0; i < CATALOG_SIZE; i++)
+            csv.append("Title ").append(i).append(',').append(String.format("9791%09d", i))
+               .append(",Author ").append(i % 100).append(",Publisher,100,2,CLASSIC\n");
+
+        // Act
+        BookImportResultDTO result = bookImportService.importBooks(new StringReader(csv.toString()), BookImportFormat.CSV);
+
+        // Assert
+        assertThat(result.inserted()).isEqualTo(CATALOG_SIZE);
+        assertThat(result.rejected()).isZero();
+        assertThat(bookRepository.findByIsbnIn(List.of("9791000000000", String.format("9791%09d", CATALOG_SIZE - 1)))).hasSize(2);
+    }
+
+    private Book importBook(String isbn, int quantity) throws Exception {
+        bookImportService.importBooks(new StringReader(jsonLine(isbn, quantity)), BookImportFormat.JSONL);
+        return bookRepository.findByIsbn(isbn);
+    }
+
+    // Another transaction takes a copy after each of the next chunks has read its books
+    private void checkOutWhileImportingChunks(Book book, int chunks) {
+        AtomicInteger remaining = new AtomicInteger(chunks);
+        doAnswer(invocation -> {
+            // The spy wraps the repository proxy, so the real method is not reachable through it
+            List<Book> books = entityManager.createQuery("SELECT b FROM Book b WHERE b.isbn IN :isbns", Book.class)
+                    .setParameter("isbns", invocation.getArgument(0))
+                    .getResultList();
+            if (remaining.getAndDecrement() > 0)
+                CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(
+                        status -> bookRepository.reserveCopy(book.getId()))).get();
+            return books;
+        }).when(bookRepository).findByIsbnIn(anyCollection());
+    }
+
+    private static String jsonLine(String isbn, int quantity) {
+        return "{\"isbn\":\"" + isbn + "\",\"name\":\"Raced\",\"author\":\"A\",\"publisher\":\"P\",\"numberOfPages\":10,\"quantity\":"
+                + quantity + ",\"genre\":\"FANTASY\"}\n";
+    }
+}
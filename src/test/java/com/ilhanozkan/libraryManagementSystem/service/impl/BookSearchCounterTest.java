@@ -0,0 +1,57 @@
+package com.ilhanozkan.libraryManagementSystem.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookSearchCounterTest {
+
+    @Test
+    void shouldCountEveryTimeInExactMode() {
+        // Arrange
+        BookSearchCounter counter = new BookSearchCounter("exact", Duration.ofMinutes(1));
+        AtomicInteger queries = new AtomicInteger();
+
+        // Act
+        counter.count(() -> queries.incrementAndGet(), "like", "Harry", null, null, null);
+        counter.count(() -> queries.incrementAndGet(), "like", "Harry", null, null, null);
+
+        // Assert
+        assertThat(queries.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldReuseCountForSameCriteriaInCachedMode() {
+        // Arrange
+        BookSearchCounter counter = new BookSearchCounter("cached", Duration.ofMinutes(1));
+        AtomicInteger queries = new AtomicInteger();
+
+        // Act
+        long first = counter.count(() -> 42 + queries.incrementAndGet(), "like", "Harry", null, null, null);
+        long second = counter.count(() -> 42 + queries.incrementAndGet(), "like", "Harry", null, null, null);
+        long other = counter.count(() -> 42 + queries.incrementAndGet(), "like", "Hobbit", null, null, null);
+
+        // Assert
+        assertThat(first).isEqualTo(43);
+        assertThat(second).isEqualTo(43);
+        assertThat(other).isEqualTo(44);
+        assertThat(queries.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRecountAfterTtlInCachedMode() {
+        // Arrange
+        BookSearchCounter counter = new BookSearchCounter("cached", Duration.ZERO);
+        AtomicInteger queries = new AtomicInteger();
+
+        // Act
+        counter.count(() -> queries.incrementAndGet(), "like", "Harry", null, null, null);
+        counter.count(() -> queries.incrementAndGet(), "like", "Harry", null, null, null);
+
+        // Assert
+        assertThat(queries.get()).isEqualTo(2);
+    }
+}
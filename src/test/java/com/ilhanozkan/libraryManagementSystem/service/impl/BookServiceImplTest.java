@@ -9,16 +9,20 @@ import com.ilhanozkan.libraryManagementSystem.model.entity.Book;
 import com.ilhanozkan.libraryManagementSystem.model.enums.BookGenre;
 import com.ilhanozkan.libraryManagementSystem.repository.BookRepository;
 import com.ilhanozkan.libraryManagementSystem.service.BookAvailabilityPublisher;
+import com.ilhanozkan.libraryManagementSystem.service.BookSearchEngine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Arrays;
 import java.util.List;
@@ -40,6 +44,12 @@ public class BookServiceImplTest {
     @Mock
     private BookAvailabilityPublisher bookAvailabilityPublisher;
 
+    @Mock
+    private BookSearchEngine bookSearchEngine;
+
+    @Mock
+    private BookCatalogVersion catalogVersion;
+
     @InjectMocks
     private BookServiceImpl bookService;
 
@@ -111,6 +121,26 @@ public class BookServiceImplTest {
         verify(bookRepository, times(1)).findAll(pageable);
     }
 
+    @Test
+    void shouldGetBooksByCursor() {
+        // Arrange
+        given(bookRepository.findFirstByKeyset(Limit.of(2))).willReturn(Arrays.asList(book1, book2));
+        given(bookRepository.findAfterByKeyset("Test Book 1", book1Id, Limit.of(2))).willReturn(List.of(book2));
+
+        // Act
+        PagedResponse<BookResponseDTO> firstPage = bookService.getBooksByCursor("", 1);
+        PagedResponse<BookResponseDTO> secondPage = bookService.getBooksByCursor(firstPage.getNextCursor(), 1);
+
+        // Assert
+        assertThat(firstPage.getContent()).extracting(BookResponseDTO::name).containsExactly("Test Book 1");
+        assertThat(firstPage.isLast()).isFalse();
+        assertThat(firstPage.getNextCursor()).isNotBlank();
+        assertThat(secondPage.getContent()).extracting(BookResponseDTO::name).containsExactly("Test Book 2");
+        assertThat(secondPage.isLast()).isTrue();
+        assertThat(secondPage.getNextCursor()).isNull();
+        verify(bookRepository, never()).count();
+    }
+
     @Test
     void shouldGetBookById() {
         // Arrange
@@ -142,7 +172,7 @@ public class BookServiceImplTest {
     @Test
     void shouldGetBookByIsbn() {
         // Arrange
-        given(bookRepository.findByIsbn("9781234567890")).willReturn(book1);
+        given(bookRepository.findByNaturalId("9781234567890")).willReturn(Optional.of(book1));
 
         // Act
         BookResponseDTO result = bookService.getBookByIsbn("9781234567890");
@@ -151,26 +181,26 @@ public class BookServiceImplTest {
         assertThat(result).isNotNull();
         assertThat(result.name()).isEqualTo("Test Book 1");
         
-        verify(bookRepository, times(1)).findByIsbn("9781234567890");
+        verify(bookRepository, times(1)).findByNaturalId("9781234567890");
     }
 
     @Test
     void shouldThrowExceptionWhenIsbnNotFound() {
         // Arrange
-        given(bookRepository.findByIsbn("nonexistent")).willReturn(null);
+        given(bookRepository.findByNaturalId("nonexistent")).willReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(BookNotFoundException.class, () -> bookService.getBookByIsbn("nonexistent"));
         
-        verify(bookRepository, times(1)).findByIsbn("nonexistent");
+        verify(bookRepository, times(1)).findByNaturalId("nonexistent");
     }
 
     @Test
     void shouldSearchBooks() {
         // Arrange
         Pageable pageable = PageRequest.of(0, 10);
-        given(bookRepository.searchBooks("Test", null, null, null, pageable))
-                .willReturn(Arrays.asList(book1, book2));
+        given(bookSearchEngine.search("Test", null, null, null, pageable))
+                .willReturn(new PageImpl<>(Arrays.asList(book1, book2), pageable, 2));
 
         // Act
         List<BookResponseDTO> result = bookService.searchBooks("Test", null, null, null, pageable).getContent();
@@ -180,7 +210,24 @@ public class BookServiceImplTest {
         assertThat(result.get(0).name()).isEqualTo("Test Book 1");
         assertThat(result.get(1).name()).isEqualTo("Test Book 2");
         
-        verify(bookRepository, times(1)).searchBooks("Test", null, null, null, pageable);
+        verify(bookSearchEngine, times(1)).search("Test", null, null, null, pageable);
+    }
+
+    @Test
+    void shouldReportTotalMatchesBeyondCurrentPage() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 2);
+        given(bookSearchEngine.search("Test", null, null, null, pageable))
+                .willReturn(new PageImpl<>(Arrays.asList(book1, book2), pageable, 5));
+
+        // Act
+        PagedResponse<BookResponseDTO> result = bookService.searchBooks("Test", null, null, null, pageable);
+
+        // Assert
+        assertThat(result.getContent()).hasSize(2);
+        assertThat(result.getTotalElements()).isEqualTo(5);
+        assertThat(result.getTotalPages()).isEqualTo(3);
+        assertThat(result.isLast()).isFalse();
     }
 
     @Test
@@ -309,4 +356,40 @@ public class BookServiceImplTest {
         verify(bookRepository, times(1)).findById(book1Id);
         verify(bookRepository, times(1)).deleteById(book1Id);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void shouldIndexSavedBookOnlyOnceTheTransactionCommits() {
+        // Arrange
+        given(bookRepository.save(any(Book.class))).willReturn(book1);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            bookService.createBook(bookRequestDTO);
+            verify(bookSearchEngine, never()).onBookSaved(any());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            // Assert
+            verify(bookSearchEngine, times(1)).onBookSaved(book1);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldLeaveIndexAloneWhenDeleteRollsBack() {
+        // Arrange
+        given(bookRepository.findById(book1Id)).willReturn(Optional.of(book1));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            bookService.deleteBook(book1Id);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+            // Assert
+            verify(bookSearchEngine, never()).onBookDeleted(any());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
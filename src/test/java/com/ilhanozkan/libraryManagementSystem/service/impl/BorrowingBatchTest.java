@@ -0,0 +1,175 @@
+package com.ilhanozkan.libraryManagementSystem.service.impl;
+
+import com.ilhanozkan.libraryManagementSystem.model.dto.request.BorrowingRequestDTO;
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.BorrowingBatchItemDTO;
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.BorrowingBatchResponseDTO;
+import com.ilhanozkan.libraryManagementSystem.model.entity.Book;
+import com.ilhanozkan.libraryManagementSystem.model.entity.User;
+import com.ilhanozkan.libraryManagementSystem.model.entity.UserPrincipal;
+import com.ilhanozkan.libraryManagementSystem.model.enums.BookGenre;
+import com.ilhanozkan.libraryManagementSystem.model.enums.UserRole;
+import com.ilhanozkan.libraryManagementSystem.model.enums.UserStatus;
+import com.ilhanozkan.libraryManagementSystem.repository.AvailabilityEventRepository;
+import com.ilhanozkan.libraryManagementSystem.repository.BookRepository;
+import com.ilhanozkan.libraryManagementSystem.repository.BorrowingRepository;
+import com.ilhanozkan.libraryManagementSystem.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+public class BorrowingBatchTest {
+
+    private static final int STUDENTS = 30;
+
+    @Autowired
+    private BorrowingServiceImpl borrowingService;
+
+    @Autowired
+    private BorrowingRepository borrowingRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AvailabilityEventRepository availabilityEventRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private final List<User> students = new ArrayList<>();
+    private final List<Book> books = new ArrayList<>();
+    private User librarian;
+
+    @BeforeEach
+    void setUp() {
+        borrowingRepository.deleteAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        librarian = userRepository.save(user("batchlibrarian", UserRole.LIBRARIAN, UserStatus.ACTIVE));
+        for (int i = 0; i < STUDENTS; i++)
+            students.add(userRepository.save(user("student" + i, UserRole.PATRON, UserStatus.ACTIVE)));
+        // Plenty of copies of the first title, only five of the second
+        books.add(bookRepository.save(book("Class Reader", "9790000000010", 40)));
+        books.add(bookRepository.save(book("Rare Atlas", "9790000000011", 5)));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(new UserPrincipal(librarian), null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        borrowingRepository.deleteAll();
+        books.forEach(book -> bookRepository.deleteById(book.getId()));
+        students.forEach(student -> userRepository.deleteById(student.getId()));
+        userRepository.deleteById(librarian.getId());
+        books.clear();
+        students.clear();
+    }
+
+    @Test
+    public void shouldCheckOutClassVisitInBulkWithPerEntryResults() {
+        // Arrange: every student takes the reader, the first eight also want the atlas, plus one unknown book
+        List<BorrowingRequestDTO> requests = new ArrayList<>();
+        students.forEach(student -> requests.add(new BorrowingRequestDTO(books.get(0).getId(), student.getId())));
+        students.subList(0, 8).forEach(student -> requests.add(new BorrowingRequestDTO(books.get(1).getId(), student.getId())));
+        requests.add(new BorrowingRequestDTO(UUID.randomUUID(), students.get(0).getId()));
+        long eventsBefore = availabilityEventRepository.count();
+        statistics.clear();
+
+        // Act
+        BorrowingBatchResponseDTO result = borrowingService.createBorrowings(requests);
+        long statements = statistics.getPrepareStatementCount();
+
+        // Assert
+        assertThat(result.succeeded()).isEqualTo(STUDENTS + 5);
+        assertThat(result.failed()).isEqualTo(4);
+        assertThat(result.results()).extracting(BorrowingBatchItemDTO::index).isSorted().hasSize(requests.size());
+        assertThat(result.results().subList(STUDENTS + 5, requests.size() - 1))
+                .allSatisfy(item -> assertThat(item.error()).contains("not available"));
+        assertThat(result.results().get(requests.size() - 1).error()).contains("not found");
+        assertThat(bookRepository.findById(books.get(0).getId()).orElseThrow().getAvailableQuantity()).isEqualTo(10);
+        assertThat(bookRepository.findById(books.get(1).getId()).orElseThrow().getAvailableQuantity()).isZero();
+        assertThat(borrowingRepository.count()).isEqualTo(STUDENTS + 5);
+        // One coalesced event per title, and far fewer statements than entries
+        assertThat(availabilityEventRepository.count() - eventsBefore).isEqualTo(2);
+        assertThat(statements).isLessThan(STUDENTS / 2);
+    }
+
+    @Test
+    public void shouldReturnBooksInBulk() throws Exception {
+        // Arrange
+        List<BorrowingRequestDTO> requests = students.stream()
+                .map(student -> new BorrowingRequestDTO(books.get(0).getId(), student.getId()))
+                .toList();
+        List<UUID> ids = borrowingService.createBorrowings(requests).results().stream()
+                .map(item -> item.borrowing().id())
+                .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+        ids.add(ids.get(0));
+        awaitStreamOffsets();
+        statistics.clear();
+
+        // Act
+        BorrowingBatchResponseDTO result = borrowingService.returnBooks(ids);
+        long statements = statistics.getPrepareStatementCount();
+
+        // Assert: the duplicate entry is reported as already returned
+        assertThat(result.succeeded()).isEqualTo(STUDENTS);
+        assertThat(result.results().get(STUDENTS).error()).contains("already been returned");
+        assertThat(result.results().get(0).borrowing().book().availableQuantity()).isEqualTo(40);
+        assertThat(borrowingRepository.findAll()).allSatisfy(borrowing -> assertThat(borrowing.getReturned()).isTrue());
+        assertThat(statements).isLessThan(STUDENTS / 2);
+    }
+
+    // The checkout's events get their stream offsets on the dispatcher thread; keep those statements out of the count
+    private void awaitStreamOffsets() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!availabilityEventRepository.findByStreamOffsetIsNullAndTimestampLessThanOrderBySeq(Long.MAX_VALUE, Limit.of(1)).isEmpty()
+                && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+    }
+
+        private static User user(String username, UserRole role, UserStatus status) {
+        return User.builder()
+                .username(username)
+                .email(username + "@test.com")
+                .password("password")
+                .name("Batch")
+                .surname(username)
+                .role(role)
+                .status(status)
+                .build();
+    }
+
+    private static Book book(String name, String isbn, int copies) {
+        return Book.builder()
+                .name(name)
+                .isbn(isbn)
+                .author("Batch Author")
+                .publisher("Batch Publisher")
+                .numberOfPages(100)
+                .quantity(copies)
+                .availableQuantity(copies)
+                .genre(BookGenre.CLASSIC)
+                .build();
+    }
+}
@@ -0,0 +1,142 @@
+package com.ilhanozkan.libraryManagementSystem.service.impl;
+
+import com.ilhanozkan.libraryManagementSystem.model.dto.request.BorrowingFilterDTO;
+import com.ilhanozkan.libraryManagementSystem.model.entity.Book;
+import com.ilhanozkan.libraryManagementSystem.model.entity.Borrowing;
+import com.ilhanozkan.libraryManagementSystem.model.entity.User;
+import com.ilhanozkan.libraryManagementSystem.model.enums.BookGenre;
+import com.ilhanozkan.libraryManagementSystem.model.enums.UserRole;
+import com.ilhanozkan.libraryManagementSystem.model.enums.UserStatus;
+import com.ilhanozkan.libraryManagementSystem.repository.BookRepository;
+import com.ilhanozkan.libraryManagementSystem.repository.BorrowingRepository;
+import com.ilhanozkan.libraryManagementSystem.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+public class BorrowingQueryCountTest {
+
+    @Autowired
+    private BorrowingServiceImpl borrowingService;
+
+    @Autowired
+    private BorrowingRepository borrowingRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private OverdueTracker overdueTracker;
+
+    private Statistics statistics;
+    private User patron;
+    private final List<Book> books = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        borrowingRepository.deleteAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        patron = userRepository.save(User.builder()
+                .username("counted")
+                .email("counted@test.com")
+                .password("password")
+                .name("Counted")
+                .surname("Patron")
+                .role(UserRole.PATRON)
+                .status(UserStatus.ACTIVE)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        borrowingRepository.deleteAll();
+        bookRepository.deleteAll(books);
+        userRepository.delete(patron);
+        books.clear();
+    }
+
+    @Test
+    public void shouldIssueSameStatementCountForOneOrManyBorrowings() throws Exception {
+        // Arrange
+        borrowBooks(1);
+        overdueTracker.rebuild();
+        long[] single = countStatements();
+        borrowBooks(24);
+        overdueTracker.rebuild();
+
+        // Act
+        long[] many = countStatements();
+
+        // Assert
+        assertThat(many).containsExactly(single);
+        assertThat(single).containsOnly(1L, 2L);
+    }
+
+    // Statements per request for: all borrowings page, user's borrowings, active borrowings, overdue report, export
+    private long[] countStatements() throws Exception {
+        return new long[]{
+                statementsFor(() -> borrowingService.getBorrowings(new BorrowingFilterDTO(), null, 50)),
+                statementsFor(() -> borrowingService.getBorrowingsByUserId(patron.getId())),
+                statementsFor(() -> borrowingService.getActiveBorrowingsByUserId(patron.getId())),
+                statementsFor(() -> borrowingService.getOverdueBooksTextReport()),
+                statementsFor(() -> borrowingService.exportBorrowings(new BorrowingFilterDTO(), new StringWriter()))
+        };
+    }
+
+    private long statementsFor(ThrowingRunnable call) throws Exception {
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void borrowBooks(int count) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < count; i++) {
+            Book book = bookRepository.save(Book.builder()
+                    .name("Counted Book " + books.size())
+                    .isbn(String.format("979%010d", books.size()))
+                    .author("Counted Author")
+                    .publisher("Counted Publisher")
+                    .numberOfPages(100)
+                    .quantity(1)
+                    .availableQuantity(0)
+                    .genre(BookGenre.CLASSIC)
+                    .build());
+            books.add(book);
+            borrowingRepository.save(Borrowing.builder()
+                    .book(book)
+                    .user(patron)
+                    .borrowDate(now.minusDays(20))
+                    .dueDate(now.minusDays(6))
+                    .returned(false)
+                    .updatedAt(now)
+                    .build());
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
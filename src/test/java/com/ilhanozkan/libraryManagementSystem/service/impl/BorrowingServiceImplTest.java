@@ -5,15 +5,21 @@ import com.ilhanozkan.libraryManagementSystem.common.exception.book.BookNotFound
 import com.ilhanozkan.libraryManagementSystem.common.exception.borrowing.BorrowingNotFoundException;
 import com.ilhanozkan.libraryManagementSystem.common.exception.user.UserIsNotActiveException;
 import com.ilhanozkan.libraryManagementSystem.common.exception.user.UserNotFoundException;
+import com.ilhanozkan.libraryManagementSystem.model.dto.request.BorrowingFilterDTO;
 import com.ilhanozkan.libraryManagementSystem.model.dto.request.BorrowingRequestDTO;
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.BorrowingBatchItemDTO;
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.BorrowingBatchResponseDTO;
 import com.ilhanozkan.libraryManagementSystem.model.dto.response.BorrowingResponseDTO;
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.PagedResponse;
 import com.ilhanozkan.libraryManagementSystem.model.entity.Book;
 import com.ilhanozkan.libraryManagementSystem.model.entity.Borrowing;
 import com.ilhanozkan.libraryManagementSystem.model.entity.User;
 import com.ilhanozkan.libraryManagementSystem.model.entity.UserPrincipal;
 import com.ilhanozkan.libraryManagementSystem.model.enums.BookGenre;
+import com.ilhanozkan.libraryManagementSystem.model.enums.BorrowingStatus;
 import com.ilhanozkan.libraryManagementSystem.model.enums.UserRole;
 import com.ilhanozkan.libraryManagementSystem.model.enums.UserStatus;
+import com.ilhanozkan.libraryManagementSystem.model.mapper.BorrowingResponseDTOMapper;
 import com.ilhanozkan.libraryManagementSystem.repository.BookRepository;
 import com.ilhanozkan.libraryManagementSystem.repository.BorrowingRepository;
 import com.ilhanozkan.libraryManagementSystem.repository.UserRepository;
@@ -25,20 +31,27 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.io.StringWriter;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.*;
 
@@ -57,6 +70,9 @@ public class BorrowingServiceImplTest {
     @Mock
     private BookService bookService;
 
+    @Mock
+    private OverdueTracker overdueTracker;
+
     @Mock
     private SecurityContext securityContext;
 
@@ -125,58 +141,129 @@ public class BorrowingServiceImplTest {
     @Test
     void shouldGetAllBorrowings() {
         // Arrange
-        List<Borrowing> borrowings = Arrays.asList(testBorrowing);
-        given(borrowingRepository.findAll()).willReturn(borrowings);
+        List<BorrowingResponseDTO> borrowings = List.of(view(testBorrowing));
+        given(borrowingRepository.findPage(null, null, null, null, null, null, null, null, Limit.of(21)))
+                .willReturn(borrowings);
 
         // Act
-        List<BorrowingResponseDTO> result = borrowingService.getBorrowings();
+        PagedResponse<BorrowingResponseDTO> result = borrowingService.getBorrowings(new BorrowingFilterDTO(), null, 20);
 
         // Assert
-        assertThat(result).hasSize(1);
-        verify(borrowingRepository, times(1)).findAll();
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.isLast()).isTrue();
+        assertThat(result.getNextCursor()).isNull();
+        verify(borrowingRepository, never()).findAll();
+    }
+
+    @Test
+    void shouldSeekPastCursorForNextBorrowingsPage() {
+        // Arrange
+        Borrowing nextBorrowing = Borrowing.builder()
+                .id(UUID.randomUUID())
+                .book(testBook)
+                .user(testUser)
+                .borrowDate(testBorrowing.getBorrowDate().plusMinutes(1))
+                .returned(false)
+                .build();
+        BorrowingFilterDTO filter = BorrowingFilterDTO.builder().userId(userId).build();
+        given(borrowingRepository.findPage(null, null, userId, null, null, null, null, null, Limit.of(2)))
+                .willReturn(List.of(view(testBorrowing), view(nextBorrowing)));
+        given(borrowingRepository.findPage(null, null, userId, null, null, null,
+                testBorrowing.getBorrowDate(), borrowingId, Limit.of(2)))
+                .willReturn(List.of(view(nextBorrowing)));
+
+        // Act
+        PagedResponse<BorrowingResponseDTO> firstPage = borrowingService.getBorrowings(filter, null, 1);
+        PagedResponse<BorrowingResponseDTO> secondPage = borrowingService.getBorrowings(filter, firstPage.getNextCursor(), 1);
+
+        // Assert
+        assertThat(firstPage.getContent()).extracting(BorrowingResponseDTO::id).containsExactly(borrowingId);
+        assertThat(firstPage.isLast()).isFalse();
+        assertThat(secondPage.getContent()).extracting(BorrowingResponseDTO::id).containsExactly(nextBorrowing.getId());
+        assertThat(secondPage.isLast()).isTrue();
+    }
+
+    @Test
+    void shouldRejectMalformedBorrowingsCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> borrowingService.getBorrowings(new BorrowingFilterDTO(), "not-a-cursor", 20));
+        verifyNoInteractions(borrowingRepository);
+    }
+
+    @Test
+    void shouldTranslateOverdueStatusIntoDueDatePredicate() {
+        // Arrange
+        BorrowingFilterDTO filter = BorrowingFilterDTO.builder().status(BorrowingStatus.OVERDUE).build();
+        given(borrowingRepository.findPage(eq(false), any(LocalDateTime.class), isNull(), isNull(), isNull(), isNull(),
+                isNull(), isNull(), eq(Limit.of(21))))
+                .willReturn(List.of(view(testBorrowing)));
+
+        // Act
+        PagedResponse<BorrowingResponseDTO> result = borrowingService.getBorrowings(filter, null, 20);
+
+        // Assert
+        assertThat(result.getContent()).hasSize(1);
+    }
+
+    @Test
+    void shouldExportBorrowingsAsCsv() throws Exception {
+        // Arrange
+        testBook.setName("Dune, Part \"One\"");
+        BorrowingFilterDTO filter = BorrowingFilterDTO.builder().status(BorrowingStatus.ACTIVE).build();
+        given(borrowingRepository.streamForExport(false, null, null, null, null, null))
+                .willReturn(Stream.of(view(testBorrowing)));
+        StringWriter writer = new StringWriter();
+
+        // Act
+        long exported = borrowingService.exportBorrowings(filter, writer);
+
+        // Assert
+        String[] lines = writer.toString().split("\n");
+        assertThat(exported).isEqualTo(1);
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("id,bookId,bookName");
+        assertThat(lines[1]).startsWith(borrowingId + "," + bookId + ",\"Dune, Part \"\"One\"\"\",");
+        assertThat(lines[1]).endsWith(",false");
     }
 
     @Test
     void shouldGetBorrowingsByUserId() {
         // Arrange
-        List<Borrowing> borrowings = Arrays.asList(testBorrowing);
-        given(userRepository.findById(userId)).willReturn(Optional.of(testUser));
-        given(borrowingRepository.findByUser(testUser)).willReturn(borrowings);
+        given(userRepository.existsById(userId)).willReturn(true);
+        given(borrowingRepository.findViewsByUserId(userId, null)).willReturn(List.of(view(testBorrowing)));
 
         // Act
         List<BorrowingResponseDTO> result = borrowingService.getBorrowingsByUserId(userId);
 
         // Assert
         assertThat(result).hasSize(1);
-        verify(userRepository, times(1)).findById(userId);
-        verify(borrowingRepository, times(1)).findByUser(testUser);
+        assertThat(result.get(0).bookName()).isEqualTo(testBook.getName());
+        verify(userRepository, never()).findById(userId);
+        verify(borrowingRepository, never()).findByUser(any(User.class));
     }
 
     @Test
     void shouldThrowExceptionWhenUserNotFoundForBorrowings() {
         // Arrange
-        given(userRepository.findById(userId)).willReturn(Optional.empty());
+        given(userRepository.existsById(userId)).willReturn(false);
 
         // Act & Assert
         assertThrows(UserNotFoundException.class, () -> borrowingService.getBorrowingsByUserId(userId));
-        verify(userRepository, times(1)).findById(userId);
-        verify(borrowingRepository, never()).findByUser(any(User.class));
+        verify(borrowingRepository, never()).findViewsByUserId(any(), any());
     }
 
     @Test
     void shouldGetActiveBorrowingsByUserId() {
         // Arrange
-        List<Borrowing> activeBorrowings = Arrays.asList(testBorrowing);
-        given(userRepository.findById(userId)).willReturn(Optional.of(testUser));
-        given(borrowingRepository.findByUserAndReturnedFalse(testUser)).willReturn(activeBorrowings);
+        given(userRepository.existsById(userId)).willReturn(true);
+        given(borrowingRepository.findViewsByUserId(userId, false)).willReturn(List.of(view(testBorrowing)));
 
         // Act
         List<BorrowingResponseDTO> result = borrowingService.getActiveBorrowingsByUserId(userId);
 
         // Assert
         assertThat(result).hasSize(1);
-        verify(userRepository, times(1)).findById(userId);
-        verify(borrowingRepository, times(1)).findByUserAndReturnedFalse(testUser);
+        verify(borrowingRepository, times(1)).findViewsByUserId(userId, false);
     }
 
     @Test
@@ -184,18 +271,37 @@ public class BorrowingServiceImplTest {
         // Arrange
         given(bookRepository.findById(bookId)).willReturn(Optional.of(testBook));
         given(userRepository.findById(userId)).willReturn(Optional.of(testUser));
+        given(bookRepository.reserveCopy(bookId)).willReturn(1);
         given(borrowingRepository.save(any(Borrowing.class))).willReturn(testBorrowing);
         doNothing().when(bookService).publishBookAvailabilityEvent(any(Book.class));
 
         // Act
         BorrowingResponseDTO result = borrowingService.createBorrowing(borrowingRequestDTO);
 
-        // Assert
+        // Assert: the copy taken is applied to the loaded book rather than read back
         assertThat(result).isNotNull();
+        assertThat(testBook.getAvailableQuantity()).isEqualTo(9);
         verify(bookRepository, times(1)).findById(bookId);
+        verify(bookRepository, times(1)).reserveCopy(bookId);
+        verify(bookRepository, never()).save(any(Book.class));
         verify(userRepository, times(1)).findById(userId);
         verify(borrowingRepository, times(1)).save(any(Borrowing.class));
         verify(bookService, times(1)).publishBookAvailabilityEvent(any(Book.class));
+        verify(overdueTracker, times(1)).onBorrowed(1);
+    }
+
+    @Test
+    void shouldThrowExceptionWhenLastCopyIsTakenConcurrently() {
+        // Arrange
+        given(bookRepository.findById(bookId)).willReturn(Optional.of(testBook));
+        given(userRepository.findById(userId)).willReturn(Optional.of(testUser));
+        given(bookRepository.reserveCopy(bookId)).willReturn(0);
+
+        // Act & Assert
+        assertThrows(BookNotAvailableException.class, () -> borrowingService.createBorrowing(borrowingRequestDTO));
+        verify(bookRepository, times(1)).reserveCopy(bookId);
+        verify(borrowingRepository, never()).save(any(Borrowing.class));
+        verify(bookService, never()).publishBookAvailabilityEvent(any(Book.class));
     }
 
     @Test
@@ -254,6 +360,7 @@ public class BorrowingServiceImplTest {
     @Test
     void shouldReturnBook() {
         // Arrange
+        testBook.setAvailableQuantity(9);
         given(borrowingRepository.findById(borrowingId)).willReturn(Optional.of(testBorrowing));
         
         // Mock authentication
@@ -262,6 +369,7 @@ public class BorrowingServiceImplTest {
         given(authentication.getPrincipal()).willReturn(userPrincipal);
         
         given(borrowingRepository.save(any(Borrowing.class))).willReturn(testBorrowing);
+        given(bookRepository.releaseCopy(bookId)).willReturn(1);
         doNothing().when(bookService).publishBookAvailabilityEvent(any(Book.class));
 
         // Act
@@ -269,18 +377,23 @@ public class BorrowingServiceImplTest {
 
         // Assert
         assertThat(result).isNotNull();
-        // Verify book's available quantity is incremented
-        assertThat(testBook.getAvailableQuantity()).isEqualTo(11); // Should be incremented from 10 to 11
+        assertThat(testBorrowing.getReturned()).isTrue();
+        assertThat(result.book().availableQuantity()).isEqualTo(10);
+        // Verify book's available quantity is incremented in the database, not read-modify-written
+        verify(bookRepository, times(1)).releaseCopy(bookId);
+        verify(bookRepository, never()).save(any(Book.class));
+        verify(bookRepository, never()).findById(any(UUID.class));
         verify(borrowingRepository, times(1)).findById(borrowingId);
         verify(borrowingRepository, times(1)).save(any(Borrowing.class));
-        verify(bookRepository, times(1)).save(any(Book.class));
-        verify(bookService, times(1)).publishBookAvailabilityEvent(any(Book.class));
+        verify(bookService, times(1)).publishBookAvailabilityEvent(testBook);
+        verify(overdueTracker, times(1)).onReturned(List.of(borrowingId));
     }
 
     @Test
     void shouldDeleteBorrowing() {
         // Arrange
         given(borrowingRepository.findById(borrowingId)).willReturn(Optional.of(testBorrowing));
+        given(bookRepository.releaseCopy(bookId)).willReturn(1);
         doNothing().when(bookService).publishBookAvailabilityEvent(any(Book.class));
         doNothing().when(borrowingRepository).delete(any(Borrowing.class));
 
@@ -289,11 +402,12 @@ public class BorrowingServiceImplTest {
 
         // Assert
         // Verify book's available quantity is incremented
-        assertThat(testBook.getAvailableQuantity()).isEqualTo(11); // Should be incremented from 10 to 11
         verify(borrowingRepository, times(1)).findById(borrowingId);
-        verify(bookRepository, times(1)).save(any(Book.class));
+        verify(bookRepository, times(1)).releaseCopy(bookId);
+        verify(bookRepository, never()).save(any(Book.class));
         verify(bookService, times(1)).publishBookAvailabilityEvent(any(Book.class));
         verify(borrowingRepository, times(1)).delete(any(Borrowing.class));
+        verify(overdueTracker, times(1)).onDeleted(borrowingId, true);
     }
 
     @Test
@@ -307,4 +421,42 @@ public class BorrowingServiceImplTest {
         verify(bookService, never()).updateBookQuantity(any(UUID.class), anyInt());
         verify(borrowingRepository, never()).delete(any(Borrowing.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldRejectEmptyOrOversizedBatches() {
+        // Arrange
+        List<BorrowingRequestDTO> oversized = Collections.nCopies(BorrowingServiceImpl.MAX_BATCH_SIZE + 1, borrowingRequestDTO);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> borrowingService.createBorrowings(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> borrowingService.createBorrowings(oversized));
+        assertThrows(IllegalArgumentException.class, () -> borrowingService.returnBooks(List.of()));
+        verifyNoInteractions(bookRepository, userRepository, borrowingRepository, bookService);
+    }
+
+    @Test
+    void shouldReserveCopyByCopyWhenBookRunsShortDuringBulkCheckout() {
+        // Arrange: three copies were available when loaded, another checkout took all but two of them
+        List<BorrowingRequestDTO> requests = Collections.nCopies(3, borrowingRequestDTO);
+        given(bookRepository.findAllById(any())).willReturn(List.of(testBook));
+        given(userRepository.findAllById(any())).willReturn(List.of(testUser));
+        given(bookRepository.reserveCopies(bookId, 3)).willReturn(0);
+        given(bookRepository.reserveCopies(bookId, 1)).willReturn(1, 1, 0);
+        given(borrowingRepository.saveAll(anyList())).willAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        BorrowingBatchResponseDTO result = borrowingService.createBorrowings(requests);
+
+        // Assert
+        assertThat(result.succeeded()).isEqualTo(2);
+        assertThat(result.results()).extracting(BorrowingBatchItemDTO::error)
+                .containsExactly(null, null, new BookNotAvailableException(bookId).getMessage());
+        verify(bookRepository, times(3)).reserveCopies(bookId, 1);
+        verify(overdueTracker, times(1)).onBorrowed(2);
+        verify(bookService, times(1)).publishBookAvailabilityEvent(testBook);
+    }
+
+    private static BorrowingResponseDTO view(Borrowing borrowing) {
+        return BorrowingResponseDTOMapper.INSTANCE.toBorrowingResponseDTO(borrowing);
+    }
+}
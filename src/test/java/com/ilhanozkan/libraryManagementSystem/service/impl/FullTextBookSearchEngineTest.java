@@ -0,0 +1,90 @@
+package com.ilhanozkan.libraryManagementSystem.service.impl;
+
+import com.ilhanozkan.libraryManagementSystem.model.entity.Book;
+import com.ilhanozkan.libraryManagementSystem.repository.BookRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FullTextBookSearchEngineTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private BookSearchCounter bookSearchCounter;
+
+    @InjectMocks
+    private FullTextBookSearchEngine searchEngine;
+
+    @Test
+    void shouldBuildPrefixQueryOnBookName() {
+        assertThat(FullTextBookSearchEngine.toPrefixQuery("Harry Pott")).isEqualTo("harry:*A & pott:*A");
+        assertThat(FullTextBookSearchEngine.toPrefixQuery("  Lord of the Rings!  ")).isEqualTo("lord:*A & of:*A & the:*A & rings:*A");
+        assertThat(FullTextBookSearchEngine.toPrefixQuery("Çalıkuşu")).isEqualTo("çalıkuşu:*A");
+    }
+
+    @Test
+    void shouldDropOperatorsFromUserInput() {
+        assertThat(FullTextBookSearchEngine.toPrefixQuery("harry & !potter | (x)")).isEqualTo("harry:*A & potter:*A & x:*A");
+        assertThat(FullTextBookSearchEngine.toPrefixQuery("&|!:*")).isNull();
+        assertThat(FullTextBookSearchEngine.toPrefixQuery(null)).isNull();
+    }
+
+    @Test
+    void shouldSearchWithTitleQuery() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 10);
+        Book book = Book.builder().name("Harry Potter").build();
+        given(bookRepository.fullTextSearchBooks("harry:*A", null, null, null, pageable)).willReturn(List.of(book));
+
+        // Act
+        Page<Book> result = searchEngine.search("Harry", null, null, null, pageable);
+
+        // Assert
+        assertThat(result.getContent()).containsExactly(book);
+        assertThat(result.getTotalElements()).isEqualTo(1);
+        verify(bookRepository, never()).countFullTextSearchBooks(any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldCountMatchesWhenPageIsFull() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 1);
+        Book book = Book.builder().name("Harry Potter").build();
+        given(bookRepository.fullTextSearchBooks("harry:*A", null, null, null, pageable)).willReturn(List.of(book));
+        given(bookRepository.countFullTextSearchBooks("harry:*A", null, null, null)).willReturn(7L);
+        given(bookSearchCounter.count(any(), any(Object[].class))).willAnswer(invocation ->
+                invocation.<java.util.function.LongSupplier>getArgument(0).getAsLong());
+
+        // Act
+        Page<Book> result = searchEngine.search("Harry", null, null, null, pageable);
+
+        // Assert
+        assertThat(result.getTotalElements()).isEqualTo(7);
+        assertThat(result.getTotalPages()).isEqualTo(7);
+    }
+
+    @Test
+    void shouldReturnNothingWhenTitleHasNoSearchableWords() {
+        // Act
+        Page<Book> result = searchEngine.search("!!!", null, null, null, PageRequest.of(0, 10));
+
+        // Assert
+        assertThat(result).isEmpty();
+        verify(bookRepository, never()).fullTextSearchBooks(any(), any(), any(), any(), any(Pageable.class));
+    }
+}
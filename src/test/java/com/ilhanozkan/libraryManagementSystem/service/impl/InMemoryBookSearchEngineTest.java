@@ -0,0 +1,162 @@
+package com.ilhanozkan.libraryManagementSystem.service.impl;
+
+import com.ilhanozkan.libraryManagementSystem.model.entity.Book;
+import com.ilhanozkan.libraryManagementSystem.model.enums.BookGenre;
+import com.ilhanozkan.libraryManagementSystem.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class InMemoryBookSearchEngineTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private BookSearchCounter bookSearchCounter;
+
+    @InjectMocks
+    private InMemoryBookSearchEngine searchEngine;
+
+    private Book harryPotter;
+    private Book hobbit;
+    private Book silmarillion;
+    private Pageable pageable;
+
+    @BeforeEach
+    void setUp() {
+        harryPotter = book("Harry Potter", "J.K. Rowling", "9780590353427", BookGenre.FANTASY);
+        hobbit = book("The Hobbit", "J.R.R. Tolkien", "9780547928227", BookGenre.FANTASY);
+        silmarillion = book("The Silmarillion", "J.R.R. Tolkien", "9780618391110", BookGenre.EPIC);
+        pageable = PageRequest.of(0, 10);
+
+        List<Book> books = List.of(harryPotter, hobbit, silmarillion);
+        given(bookRepository.findAll(any(Pageable.class))).willReturn(new PageImpl<>(books));
+        lenient().when(bookRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            Iterable<UUID> ids = invocation.getArgument(0);
+            List<UUID> requested = new ArrayList<>();
+            ids.forEach(requested::add);
+            return books.stream().filter(book -> requested.contains(book.getId())).toList();
+        });
+
+        searchEngine.rebuildIndex();
+    }
+
+    @Test
+    void shouldFindBooksBySubstringOfTitle() {
+        // Act
+        List<Book> result = searchEngine.search("hobb", null, null, null, pageable).getContent();
+
+        // Assert
+        assertThat(result).containsExactly(hobbit);
+        verify(bookRepository, never()).searchBooks(any(), any(), any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    void shouldIntersectCriteria() {
+        // Act
+        List<Book> byAuthor = searchEngine.search(null, "tolkien", null, null, pageable).getContent();
+        List<Book> byAuthorAndGenre = searchEngine.search(null, "Tolkien", null, String.valueOf(BookGenre.EPIC.ordinal()), pageable).getContent();
+        List<Book> byPartialIsbn = searchEngine.search(null, null, "0590", null, pageable).getContent();
+
+        // Assert
+        assertThat(byAuthor).containsExactly(hobbit, silmarillion);
+        assertThat(byAuthorAndGenre).containsExactly(silmarillion);
+        assertThat(byPartialIsbn).containsExactly(harryPotter);
+    }
+
+    @Test
+    void shouldVerifyQueriesShorterThanAGram() {
+        // Act
+        List<Book> result = searchEngine.search("ha", null, null, null, pageable).getContent();
+
+        // Assert
+        assertThat(result).containsExactly(harryPotter);
+    }
+
+    @Test
+    void shouldPageSortedResults() {
+        // Act
+        Page<Book> firstPage = searchEngine.search(null, null, null, String.valueOf(BookGenre.FANTASY.ordinal()), PageRequest.of(0, 1));
+        Page<Book> secondPage = searchEngine.search(null, null, null, String.valueOf(BookGenre.FANTASY.ordinal()), PageRequest.of(1, 1));
+
+        // Assert
+        assertThat(firstPage.getContent()).containsExactly(harryPotter);
+        assertThat(firstPage.getTotalElements()).isEqualTo(2);
+        assertThat(secondPage.getContent()).containsExactly(hobbit);
+        assertThat(secondPage.isLast()).isTrue();
+    }
+
+    @Test
+    void shouldKeepIndexCurrentOnUpdateAndDelete() {
+        // Arrange
+        hobbit.setName("There and Back Again");
+
+        // Act
+        searchEngine.onBookSaved(hobbit);
+        searchEngine.onBookDeleted(silmarillion.getId());
+
+        // Assert
+        assertThat(searchEngine.search("hobbit", null, null, null, pageable)).isEmpty();
+        assertThat(searchEngine.search("back again", null, null, null, pageable).getContent()).containsExactly(hobbit);
+        assertThat(searchEngine.search(null, "tolkien", null, null, pageable).getContent()).containsExactly(hobbit);
+    }
+
+    @Test
+    void shouldServeTheLiveIndexWhileRebuildingAndKeepChangesMadeMeanwhile() {
+        // Arrange: while the rebuild reads the old rows, a search runs and a rename commits
+        List<List<Book>> searchedDuringRebuild = new ArrayList<>();
+        Book renamed = book("There and Back Again", "J.R.R. Tolkien", "9780547928227", BookGenre.FANTASY);
+        renamed.setId(hobbit.getId());
+        given(bookRepository.findAll(any(Pageable.class))).willAnswer(invocation -> {
+            searchedDuringRebuild.add(searchEngine.search(null, "tolkien", null, null, pageable).getContent());
+            searchEngine.onBookSaved(renamed);
+            return new PageImpl<>(List.of(harryPotter, hobbit, silmarillion));
+        });
+
+        // Act
+        searchEngine.rebuildIndex();
+
+        // Assert
+        assertThat(searchedDuringRebuild).containsExactly(List.of(hobbit, silmarillion));
+        assertThat(searchEngine.search("hobbit", null, null, null, pageable)).isEmpty();
+        assertThat(searchEngine.search("back again", null, null, null, pageable).getContent()).hasSize(1);
+    }
+
+    @Test
+    void shouldReportMemoryFootprint() {
+        assertThat(searchEngine.estimateMemoryBytes()).isPositive();
+    }
+
+    private static Book book(String name, String author, String isbn, BookGenre genre) {
+        return Book.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .isbn(isbn)
+                .author(author)
+                .publisher("Publisher")
+                .numberOfPages(100)
+                .quantity(1)
+                .availableQuantity(1)
+                .genre(genre)
+                .build();
+    }
+}
@@ -0,0 +1,173 @@
+package com.ilhanozkan.libraryManagementSystem.service.impl;
+
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.BorrowingResponseDTO;
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.OverdueStatsDTO;
+import com.ilhanozkan.libraryManagementSystem.model.entity.Book;
+import com.ilhanozkan.libraryManagementSystem.model.entity.Borrowing;
+import com.ilhanozkan.libraryManagementSystem.model.entity.User;
+import com.ilhanozkan.libraryManagementSystem.model.enums.BookGenre;
+import com.ilhanozkan.libraryManagementSystem.model.enums.UserRole;
+import com.ilhanozkan.libraryManagementSystem.model.enums.UserStatus;
+import com.ilhanozkan.libraryManagementSystem.repository.BookRepository;
+import com.ilhanozkan.libraryManagementSystem.repository.BorrowingRepository;
+import com.ilhanozkan.libraryManagementSystem.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+public class OverdueTrackerTest {
+
+    @Autowired
+    private OverdueTracker overdueTracker;
+
+    @Autowired
+    private BorrowingRepository borrowingRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User patron;
+    private Book book;
+    private Borrowing overdue;
+    private Borrowing dueSoon;
+
+    @BeforeEach
+    void setUp() {
+        borrowingRepository.deleteAll();
+        patron = userRepository.save(User.builder()
+                .username("tracked")
+                .email("tracked@test.com")
+                .password("password")
+                .name("Tracked")
+                .surname("Patron")
+                .role(UserRole.PATRON)
+                .status(UserStatus.ACTIVE)
+                .build());
+        book = bookRepository.save(Book.builder()
+                .name("Tracked Book")
+                .isbn("9790000000020")
+                .author("Tracked Author")
+                .publisher("Tracked Publisher")
+                .numberOfPages(100)
+                .quantity(3)
+                .availableQuantity(0)
+                .genre(BookGenre.CLASSIC)
+                .build());
+
+        LocalDateTime now = LocalDateTime.now();
+        overdue = borrow(now.minusDays(3), false);
+        dueSoon = borrow(now.plusDays(3), false);
+        borrow(now.minusDays(5), true);
+        overdueTracker.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        borrowingRepository.deleteAll();
+        bookRepository.deleteById(book.getId());
+        userRepository.deleteById(patron.getId());
+        // Put the watermark back to today for whoever uses the tracker next
+        overdueTracker.rebuild();
+    }
+
+    @Test
+    public void shouldLoadOverdueBorrowingsAndSweepOnlyNewlyDueOnes() {
+        // Arrange
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        OverdueStatsDTO loaded = overdueTracker.getStats();
+        LocalDateTime inFiveDays = LocalDate.now().plusDays(5).atStartOfDay();
+
+        // Act
+        statistics.clear();
+        overdueTracker.sweep(inFiveDays);
+        overdueTracker.sweep(inFiveDays);
+        long sweepStatements = statistics.getPrepareStatementCount();
+        List<BorrowingResponseDTO> report = overdueTracker.getOverdueBorrowings();
+
+        // Assert
+        assertThat(loaded.totalBorrowings()).isEqualTo(3);
+        assertThat(loaded.activeBorrowings()).isEqualTo(2);
+        assertThat(loaded.overdueBorrowings()).isEqualTo(1);
+        assertThat(loaded.overdueBefore()).isEqualTo(LocalDate.now().atStartOfDay());
+        // One range read for the newly crossed days; the second sweep has nothing to cross
+        assertThat(sweepStatements).isEqualTo(1);
+        assertThat(report).extracting(BorrowingResponseDTO::id).containsExactly(overdue.getId(), dueSoon.getId());
+        assertThat(overdueTracker.getStats().overdueBefore()).isEqualTo(inFiveDays);
+    }
+
+    @Test
+    public void shouldApplyReturnsOnlyOnceTheyCommit() {
+        // Act
+        transactionTemplate.executeWithoutResult(status -> {
+            overdueTracker.onReturned(List.of(overdue.getId()));
+            status.setRollbackOnly();
+        });
+        OverdueStatsDTO afterRollback = overdueTracker.getStats();
+        transactionTemplate.executeWithoutResult(status -> overdueTracker.onReturned(List.of(overdue.getId())));
+        OverdueStatsDTO afterCommit = overdueTracker.getStats();
+
+        // Assert
+        assertThat(afterRollback.overdueBorrowings()).isEqualTo(1);
+        assertThat(afterRollback.activeBorrowings()).isEqualTo(2);
+        assertThat(afterCommit.overdueBorrowings()).isZero();
+        assertThat(afterCommit.activeBorrowings()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldReconcileWithBorrowingsChangedOnAnotherInstance() {
+        // Arrange: a return and a new overdue checkout committed without this instance's hooks
+        overdue.setReturned(true);
+        overdue.setReturnDate(LocalDateTime.now());
+        borrowingRepository.save(overdue);
+        Borrowing overdueElsewhere = borrow(LocalDateTime.now().minusDays(1), false);
+        OverdueStatsDTO beforeReconcile = overdueTracker.getStats();
+
+        // Act
+        overdueTracker.reconcile();
+        OverdueStatsDTO afterReconcile = overdueTracker.getStats();
+
+        // Assert
+        assertThat(beforeReconcile.totalBorrowings()).isEqualTo(3);
+        assertThat(afterReconcile.totalBorrowings()).isEqualTo(4);
+        assertThat(afterReconcile.activeBorrowings()).isEqualTo(2);
+        assertThat(afterReconcile.overdueBorrowings()).isEqualTo(1);
+        assertThat(overdueTracker.getOverdueBorrowings()).extracting(BorrowingResponseDTO::id)
+                .containsExactly(overdueElsewhere.getId());
+    }
+
+    private Borrowing borrow(LocalDateTime dueDate, boolean returned) {
+        return borrowingRepository.save(Borrowing.builder()
+                .book(book)
+                .user(patron)
+                .borrowDate(dueDate.minusDays(14))
+                .dueDate(dueDate)
+                .returnDate(returned ? dueDate : null)
+                .returned(returned)
+                .updatedAt(dueDate)
+                .build());
+    }
+}
@@ -0,0 +1,203 @@
+package com.ilhanozkan.libraryManagementSystem.service.impl;
+
+import com.ilhanozkan.libraryManagementSystem.common.exception.report.ReportJobNotFoundException;
+import com.ilhanozkan.libraryManagementSystem.model.dto.response.ReportJobDTO;
+import com.ilhanozkan.libraryManagementSystem.model.enums.ReportFormat;
+import com.ilhanozkan.libraryManagementSystem.model.enums.ReportJobStatus;
+import com.ilhanozkan.libraryManagementSystem.repository.ReportJobRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@ExtendWith(MockitoExtension.class)
+public class ReportJobServiceImplTest {
+
+    @Mock
+    private BorrowingServiceImpl borrowingService;
+
+    @Autowired
+    private ReportJobRepository reportJobRepository;
+
+    @TempDir
+    private Path directory;
+
+    private ReportJobServiceImpl reportJobService;
+    private ReportJobServiceImpl otherInstance;
+
+    @BeforeEach
+    void setUp() {
+        reportJobRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (reportJobService != null)
+            reportJobService.shutdown();
+        if (otherInstance != null)
+            otherInstance.shutdown();
+        reportJobRepository.deleteAll();
+    }
+
+    @Test
+    void shouldRenderOnceForConcurrentIdenticalRequests() throws Exception {
+        // Arrange
+        CountDownLatch rendering = new CountDownLatch(1);
+        given(borrowingService.getOverdueBooksTextReport()).willAnswer(invocation -> {
+            rendering.await(5, TimeUnit.SECONDS);
+            return "Overdue Books Report\n";
+        });
+        reportJobService = new ReportJobServiceImpl(borrowingService, reportJobRepository, directory, 2, Duration.ofMinutes(5), Duration.ofHours(1));
+
+        // Act: twelve librarians open the dashboard while the first render is still running
+        List<ReportJobDTO> submitted = new ArrayList<>();
+        for (int i = 0; i < 12; i++)
+            submitted.add(reportJobService.submitOverdueReport(ReportFormat.TEXT));
+        rendering.countDown();
+        ReportJobDTO completed = awaitCompletion(submitted.get(0).id());
+        ReportJobDTO afterCompletion = reportJobService.submitOverdueReport(ReportFormat.TEXT);
+
+        // Assert
+        assertThat(submitted).extracting(ReportJobDTO::id).containsOnly(completed.id());
+        assertThat(afterCompletion.id()).isEqualTo(completed.id());
+        assertThat(completed.status()).isEqualTo(ReportJobStatus.COMPLETED);
+        assertThat(read(reportJobService, completed.id())).isEqualTo("Overdue Books Report\n");
+        assertThat(completed.sizeBytes()).isEqualTo(21L);
+        verify(borrowingService, times(1)).getOverdueBooksTextReport();
+    }
+
+    @Test
+    void shouldRenderAgainOnceTheReportIsStale() throws Exception {
+        // Arrange
+        given(borrowingService.getOverdueBooksTextReport()).willReturn("Overdue Books Report\n");
+        reportJobService = new ReportJobServiceImpl(borrowingService, reportJobRepository, directory, 1, Duration.ZERO, Duration.ofHours(1));
+
+        // Act
+        UUID first = awaitCompletion(reportJobService.submitOverdueReport(ReportFormat.TEXT).id()).id();
+        UUID second = awaitCompletion(reportJobService.submitOverdueReport(ReportFormat.TEXT).id()).id();
+
+        // Assert
+        assertThat(second).isNotEqualTo(first);
+        verify(borrowingService, times(2)).getOverdueBooksTextReport();
+    }
+
+    @Test
+    void shouldRecordFailureAndRetryOnNextRequest() throws Exception {
+        // Arrange
+        given(borrowingService.getOverdueBooksTextReport())
+                .willThrow(new RuntimeException("database unavailable"))
+                .willReturn("Overdue Books Report\n");
+        reportJobService = new ReportJobServiceImpl(borrowingService, reportJobRepository, directory, 1, Duration.ofMinutes(5), Duration.ofHours(1));
+
+        // Act
+        ReportJobDTO failed = awaitCompletion(reportJobService.submitOverdueReport(ReportFormat.TEXT).id());
+        ReportJobDTO retried = awaitCompletion(reportJobService.submitOverdueReport(ReportFormat.TEXT).id());
+
+        // Assert
+        assertThat(failed.status()).isEqualTo(ReportJobStatus.FAILED);
+        assertThat(failed.error()).isEqualTo("database unavailable");
+        assertThrows(IllegalStateException.class, () -> reportJobService.openReport(failed.id()));
+        assertThat(retried.status()).isEqualTo(ReportJobStatus.COMPLETED);
+        try (var files = Files.list(directory)) {
+            assertThat(files).containsExactly(directory.resolve(retried.id() + ".txt"));
+        }
+    }
+
+    @Test
+    void shouldDeleteReportsPastRetention() throws Exception {
+        // Arrange
+        given(borrowingService.getOverdueBooksTextReport()).willReturn("Overdue Books Report\n");
+        reportJobService = new ReportJobServiceImpl(borrowingService, reportJobRepository, directory, 1, Duration.ZERO, Duration.ZERO);
+        ReportJobDTO job = awaitCompletion(reportJobService.submitOverdueReport(ReportFormat.TEXT).id());
+        Path file = directory.resolve(job.id() + ".txt");
+        Thread.sleep(5);
+
+        // Act
+        reportJobService.evictExpired();
+
+        // Assert
+        assertThat(file).doesNotExist();
+        assertThrows(ReportJobNotFoundException.class, () -> reportJobService.getJob(job.id()));
+        assertThrows(ReportJobNotFoundException.class, () -> reportJobService.openReport(job.id()));
+    }
+
+    @Test
+    void shouldFinishDownloadsStartedBeforeEviction() throws Exception {
+        // Arrange
+        given(borrowingService.getOverdueBooksTextReport()).willReturn("Overdue Books Report\n");
+        reportJobService = new ReportJobServiceImpl(borrowingService, reportJobRepository, directory, 1, Duration.ZERO, Duration.ZERO);
+        ReportJobDTO job = awaitCompletion(reportJobService.submitOverdueReport(ReportFormat.TEXT).id());
+        Thread.sleep(5);
+
+        try (InputStream download = reportJobService.openReport(job.id())) {
+            // Act
+            reportJobService.evictExpired();
+
+            // Assert
+            assertThat(new String(download.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("Overdue Books Report\n");
+        }
+        assertThat(directory.resolve(job.id() + ".txt")).doesNotExist();
+    }
+
+    @Test
+    void shouldServeJobsQueuedOnAnotherInstance() throws Exception {
+        // Arrange: two instances sharing the job table and the report directory
+        given(borrowingService.getOverdueBooksTextReport()).willReturn("Overdue Books Report\n");
+        reportJobService = new ReportJobServiceImpl(borrowingService, reportJobRepository, directory, 1, Duration.ofMinutes(5), Duration.ofHours(1));
+        otherInstance = new ReportJobServiceImpl(borrowingService, reportJobRepository, directory, 1, Duration.ofMinutes(5), Duration.ofHours(1));
+        UUID queued = reportJobService.submitOverdueReport(ReportFormat.TEXT).id();
+        awaitCompletion(queued);
+
+        // Act
+        ReportJobDTO polled = otherInstance.getJob(queued);
+        ReportJobDTO resubmitted = otherInstance.submitOverdueReport(ReportFormat.TEXT);
+
+        // Assert
+        assertThat(polled.status()).isEqualTo(ReportJobStatus.COMPLETED);
+        assertThat(resubmitted.id()).isEqualTo(queued);
+        assertThat(read(otherInstance, queued)).isEqualTo("Overdue Books Report\n");
+        verify(borrowingService, times(1)).getOverdueBooksTextReport();
+    }
+
+    private static String read(ReportJobServiceImpl service, UUID id) throws Exception {
+        try (InputStream report = service.openReport(id)) {
+            return new String(report.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private ReportJobDTO awaitCompletion(UUID id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        ReportJobDTO job = reportJobService.getJob(id);
+        while ((job.status() == ReportJobStatus.QUEUED || job.status() == ReportJobStatus.RUNNING)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            job = reportJobService.getJob(id);
+        }
+        return job;
+    }
+}
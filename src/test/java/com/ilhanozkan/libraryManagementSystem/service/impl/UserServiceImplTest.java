@@ -9,6 +9,8 @@ import com.ilhanozkan.libraryManagementSystem.model.entity.User;
 import com.ilhanozkan.libraryManagementSystem.model.enums.UserRole;
 import com.ilhanozkan.libraryManagementSystem.model.enums.UserStatus;
 import com.ilhanozkan.libraryManagementSystem.repository.UserRepository;
+import com.ilhanozkan.libraryManagementSystem.security.PrincipalCache;
+import com.ilhanozkan.libraryManagementSystem.security.TokenRevocationList;
 import org.apache.coyote.BadRequestException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,6 +18,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import com.ilhanozkan.libraryManagementSystem.util.KeysetCursor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -42,6 +46,12 @@ class UserServiceImplTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private TokenRevocationList tokenRevocationList;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -110,6 +120,22 @@ class UserServiceImplTest {
         verify(userRepository, times(1)).findAll(pageable);
     }
 
+    @Test
+    void shouldGetUsersByCursor() {
+        // Arrange
+        String cursor = new KeysetCursor(user2.getUsername(), user2.getId()).encode();
+        given(userRepository.findAfterByKeyset("janesmith", user2.getId(), Limit.of(11))).willReturn(List.of(user1));
+
+        // Act
+        PagedResponse<UserResponseDTO> result = userService.getUsersByCursor(cursor, 10);
+
+        // Assert
+        assertThat(result.getContent()).extracting(UserResponseDTO::username).containsExactly("johndoe");
+        assertThat(result.isLast()).isTrue();
+        assertThat(result.getTotalElements()).isEqualTo(-1);
+        verify(userRepository, never()).findAll(any(Pageable.class));
+    }
+
     @Test
     void shouldGetUserById() {
         // Arrange
@@ -173,7 +199,7 @@ class UserServiceImplTest {
         String invalidEmail = "invalid-email";
 
         // Act & Assert
-        assertThrows(RuntimeException.class, () -> userService.getUserByEmail(invalidEmail));
+        assertThrows(IllegalArgumentException.class, () -> userService.getUserByEmail(invalidEmail));
     }
 
     @Test
@@ -216,7 +242,7 @@ class UserServiceImplTest {
         given(userRepository.existsByUsername(userRequestDTO.username())).willReturn(true);
 
         // Act & Assert
-        assertThrows(RuntimeException.class, () -> userService.createUser(userRequestDTO));
+        assertThrows(IllegalArgumentException.class, () -> userService.createUser(userRequestDTO));
 
         verify(userRepository, times(1)).existsByUsername(userRequestDTO.username());
         verify(userRepository, never()).save(any(User.class));
@@ -260,6 +286,7 @@ class UserServiceImplTest {
 
         verify(userRepository, times(1)).findById(userId);
         verify(userRepository, times(1)).save(any(User.class));
+        verify(tokenRevocationList, never()).revoke(any());
     }
 
     @Test
@@ -301,6 +328,9 @@ class UserServiceImplTest {
         verify(userRepository, times(1)).findById(userId);
         verify(userRepository, times(1)).existsByUsername("newusername");
         verify(userRepository, times(1)).save(any(User.class));
+        verify(principalCache).evict("johndoe");
+        verify(principalCache).evict("newusername");
+        verify(tokenRevocationList).revoke(userId);
     }
 
     @Test
@@ -315,6 +345,8 @@ class UserServiceImplTest {
         // Assert
         verify(userRepository, times(1)).findById(userId);
         verify(userRepository, times(1)).delete(user1);
+        verify(principalCache).evict("johndoe");
+        verify(tokenRevocationList).revoke(userId);
     }
 
     @Test
@@ -328,6 +360,7 @@ class UserServiceImplTest {
 
         verify(userRepository, times(1)).findById(nonExistentId);
         verify(userRepository, never()).delete(any(User.class));
+        verifyNoInteractions(principalCache);
     }
 
     @Test
@@ -357,5 +390,7 @@ class UserServiceImplTest {
 
         verify(userRepository, times(1)).findById(userId);
         verify(userRepository, times(1)).save(any(User.class));
+        verify(principalCache).evict("johndoe");
+        verify(tokenRevocationList).revoke(userId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.ilhanozkan.libraryManagementSystem.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CsvRecordReaderTest {
+
+    @Test
+    void shouldReadQuotedFieldsAcrossLines() throws IOException {
+        // Arrange
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(
+                "name,author\r\n\"Dune, Part \"\"One\"\"\",Herbert\n\"Two\nLines\",\n"));
+
+        // Act & Assert
+        assertThat(reader.next()).containsExactly("name", "author");
+        assertThat(reader.next()).containsExactly("Dune, Part \"One\"", "Herbert");
+        assertThat(reader.getRecordLine()).isEqualTo(2);
+        assertThat(reader.next()).containsExactly("Two\nLines", "");
+        assertThat(reader.getRecordLine()).isEqualTo(3);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void shouldReadLastRecordWithoutLineBreak() throws IOException {
+        // Arrange
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("a,b\n1,2"));
+
+        // Act
+        reader.next();
+        List<String> last = reader.next();
+
+        // Assert
+        assertThat(last).containsExactly("1", "2");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void shouldRejectUnterminatedQuote() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("\"never closed,1\n"));
+        assertThrows(IOException.class, reader::next);
+    }
+}
@@ -0,0 +1,37 @@
+package com.ilhanozkan.libraryManagementSystem.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UuidV7Test {
+
+    @Test
+    void shouldGenerateVersion7UuidsCarryingTheCurrentTime() {
+        // Act
+        long before = System.currentTimeMillis();
+        UUID uuid = UuidV7.generate();
+        long after = System.currentTimeMillis();
+
+        // Assert
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        assertThat(UuidV7.timestampMillis(uuid)).isBetween(before, after);
+    }
+
+    @Test
+    void shouldIncreaseStrictlyWithinTheSameMillisecond() {
+        // Act
+        List<UUID> uuids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++)
+            uuids.add(UuidV7.generate());
+
+        // Assert: string order is what a database index on the UUID sees
+        assertThat(uuids).doesNotHaveDuplicates();
+        assertThat(uuids.stream().map(UUID::toString).toList()).isSorted();
+    }
+}